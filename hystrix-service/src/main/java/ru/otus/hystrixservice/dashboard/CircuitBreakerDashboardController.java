@@ -0,0 +1,45 @@
+package ru.otus.hystrixservice.dashboard;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.Set;
+
+@RestController
+public class CircuitBreakerDashboardController {
+    private static final Set<String> ENDPOINTS = Set.of("circuitbreakers", "circuitbreakerevents", "bulkheads");
+
+    private final RestTemplate restTemplate;
+    private final String libraryUrl;
+
+    public CircuitBreakerDashboardController(RestTemplateBuilder restTemplateBuilder,
+                                             @Value("${library.service.url:http://localhost:8080}") String libraryUrl) {
+        this.restTemplate = restTemplateBuilder
+                .setConnectTimeout(Duration.ofSeconds(2))
+                .setReadTimeout(Duration.ofSeconds(5))
+                .build();
+        this.libraryUrl = libraryUrl;
+    }
+
+    @GetMapping(value = "/circuit-breakers/api/{endpoint}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<String> proxy(@PathVariable String endpoint) {
+        if (!ENDPOINTS.contains(endpoint))
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).build();
+
+        try {
+            return ResponseEntity.status(HttpStatus.OK)
+                    .body(restTemplate.getForObject(libraryUrl + "/actuator/" + endpoint, String.class));
+        } catch (RestClientException e) {
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).build();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package ru.otus.hystrixservice.dashboard;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.client.AutoConfigureMockRestServiceServer;
+import org.springframework.boot.test.autoconfigure.web.client.AutoConfigureWebClient;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(CircuitBreakerDashboardController.class)
+@AutoConfigureWebClient
+@AutoConfigureMockRestServiceServer
+class CircuitBreakerDashboardControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MockRestServiceServer server;
+
+    @Test
+    void shouldProxyCircuitBreakerStates() throws Exception {
+        server.expect(requestTo("http://localhost:8080/actuator/circuitbreakers"))
+                .andRespond(withSuccess("{\"circuitBreakers\":{\"BookServiceImpl.getAll\":{\"state\":\"OPEN\"}}}",
+                        MediaType.APPLICATION_JSON));
+
+        mockMvc.perform(get("/circuit-breakers/api/circuitbreakers"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.circuitBreakers['BookServiceImpl.getAll'].state").value("OPEN"));
+    }
+
+    @Test
+    void shouldReportBadGatewayWhenLibraryIsDown() throws Exception {
+        server.expect(requestTo("http://localhost:8080/actuator/bulkheads")).andRespond(withServerError());
+
+        mockMvc.perform(get("/circuit-breakers/api/bulkheads"))
+                .andExpect(status().isBadGateway());
+    }
+
+    @Test
+    void shouldNotProxyOtherEndpoints() throws Exception {
+        mockMvc.perform(get("/circuit-breakers/api/env"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,81 @@
+package ru.otus.librarybenchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import ru.otus.webbooklibrary.WebBookLibraryService;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.service.BookService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class BookServiceBenchmark {
+    private ConfigurableApplicationContext context;
+    private MongoTemplate mongoTemplate;
+    private BookService bookService;
+    private String bookId;
+    private int sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WebBookLibraryService.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments());
+        mongoTemplate = context.getBean(MongoTemplate.class);
+        mongoTemplate.getDb().drop();
+        bookService = context.getBean(BookService.class);
+
+        bookService.saveBook("Ulysses", "James Joyce", "Modernist novel");
+        bookId = mongoTemplate.findOne(query(where("title").is("Ulysses")), Book.class).getId();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mongoTemplate.getDb().drop();
+        context.close();
+    }
+
+    @Benchmark
+    public void saveBook() {
+        bookService.saveBook("Book " + ++sequence, "James Joyce", "Modernist novel");
+    }
+
+    @Benchmark
+    public void updateBook() {
+        bookService.updateBook(bookId, "Ulysses " + ++sequence, "James Joyce", "Modernist novel");
+    }
+
+    private static String[] arguments() {
+        final List<String> arguments = new ArrayList<>(List.of(
+                "--spring.data.mongodb.database=library-benchmarks",
+                "--spring.cloud.config.enabled=false",
+                "--mongock.enabled=false"));
+        final String uri = System.getProperty("mongo.uri");
+
+        if (uri == null) {
+            arguments.add("--spring.data.mongodb.port=0");
+            arguments.add("--spring.mongodb.embedded.version=" + System.getProperty("mongo.version", "4.0.2"));
+        } else {
+            arguments.add("--spring.data.mongodb.uri=" + uri);
+            arguments.add("--spring.autoconfigure.exclude=" + String.join(",",
+                    "org.springframework.boot.autoconfigure.mongo.embedded.EmbeddedMongoAutoConfiguration",
+                    "org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration",
+                    "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration",
+                    "org.springframework.boot.autoconfigure.data.mongo.MongoReactiveRepositoriesAutoConfiguration"));
+        }
+        return arguments.toArray(String[]::new);
+    }
+}
@@ -0,0 +1,85 @@
+package ru.otus.librarybenchmarks;
+
+import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
+import com.netflix.hystrix.contrib.javanica.annotation.HystrixProperty;
+import com.netflix.hystrix.contrib.javanica.aop.aspectj.HystrixCommandAspect;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import ru.otus.webbooklibrary.domain.Book;
+
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class HystrixOverheadBenchmark {
+    private AnnotationConfigApplicationContext context;
+    private Catalog direct;
+    private Catalog hystrix;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new AnnotationConfigApplicationContext(HystrixConfig.class);
+        direct = new Catalog();
+        hystrix = context.getBean(Catalog.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Book directCall() {
+        return direct.getBook();
+    }
+
+    @Benchmark
+    public Book threadIsolatedCommand() {
+        return hystrix.getBook();
+    }
+
+    @Benchmark
+    public Book semaphoreIsolatedCommand() {
+        return hystrix.getBookOnCallerThread();
+    }
+
+    public static class Catalog {
+        private final Book book = SerializationBenchmark.book(1);
+
+        @HystrixCommand(defaultFallback = "getEmptyBookResult")
+        public Book getBook() {
+            return book;
+        }
+
+        @HystrixCommand(defaultFallback = "getEmptyBookResult", commandProperties =
+        @HystrixProperty(name = "execution.isolation.strategy", value = "SEMAPHORE"))
+        public Book getBookOnCallerThread() {
+            return book;
+        }
+
+        public Book getEmptyBookResult() {
+            return new Book();
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy
+    static class HystrixConfig {
+        @Bean
+        public HystrixCommandAspect hystrixCommandAspect() {
+            return new HystrixCommandAspect();
+        }
+
+        @Bean
+        public Catalog catalog() {
+            return new Catalog();
+        }
+    }
+}
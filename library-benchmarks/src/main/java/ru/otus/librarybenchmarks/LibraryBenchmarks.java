@@ -0,0 +1,26 @@
+package ru.otus.librarybenchmarks;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class LibraryBenchmarks {
+    public static void main(String[] args) throws Exception {
+        final CommandLineOptions options = new CommandLineOptions(args);
+
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+                || options.shouldListProfilers() || options.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        final ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if (!options.getResultFormat().hasValue())
+            builder.resultFormat(ResultFormatType.JSON);
+
+        new Runner(builder.build()).run();
+    }
+}
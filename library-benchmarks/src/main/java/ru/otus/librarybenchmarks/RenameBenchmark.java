@@ -0,0 +1,84 @@
+package ru.otus.librarybenchmarks;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.Genre;
+import ru.otus.webbooklibrary.repository.BookRepositoryCustomImpl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RenameBenchmark {
+    @Param({"100", "1000", "10000"})
+    private int books;
+
+    private MongoClient mongoClient;
+    private MongoTemplate mongoTemplate;
+    private BookRepositoryCustomImpl bookRepository;
+    private Author author;
+    private int renames;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mongoClient = MongoClients.create(System.getProperty("mongo.uri", "mongodb://localhost:27017"));
+        mongoTemplate = new MongoTemplate(mongoClient, "library-benchmarks");
+        mongoTemplate.getDb().drop();
+        mongoTemplate.indexOps(Book.class).ensureIndex(new Index("author._id", Sort.Direction.ASC));
+        mongoTemplate.indexOps(Book.class).ensureIndex(new Index("author.name", Sort.Direction.ASC));
+
+        author = mongoTemplate.insert(new Author("James Joyce"));
+        final Genre genre = mongoTemplate.insert(new Genre("Modernist novel"));
+        final List<Book> bookList = IntStream.range(0, books)
+                .mapToObj(i -> new Book("Book " + i, author, genre))
+                .collect(Collectors.toList());
+        mongoTemplate.insert(bookList, Book.class);
+
+        bookRepository = new BookRepositoryCustomImpl(mongoTemplate);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mongoTemplate.getDb().drop();
+        mongoClient.close();
+    }
+
+    @Benchmark
+    public long renameWithUpdateMany() {
+        author.setName(nextName());
+
+        return bookRepository.updateAuthorName(author.getId(), author.getName());
+    }
+
+    @Benchmark
+    public int renameByLoadingAndSavingBooks() {
+        final String oldName = author.getName();
+        author.setName(nextName());
+
+        final List<Book> bookList = mongoTemplate.find(query(where("author.name").is(oldName)), Book.class);
+        bookList.forEach(b -> b.setAuthor(author));
+        bookList.forEach(mongoTemplate::save);
+
+        return bookList.size();
+    }
+
+    private String nextName() {
+        return "James Joyce " + ++renames;
+    }
+}
@@ -0,0 +1,71 @@
+package ru.otus.librarybenchmarks;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.bson.types.ObjectId;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.Comment;
+import ru.otus.webbooklibrary.domain.Genre;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SerializationBenchmark {
+    private static final TypeReference<List<Book>> BOOK_LIST = new TypeReference<>() {
+    };
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<Book> books;
+    private List<Comment> comments;
+    private byte[] booksJson;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        books = IntStream.range(0, size).mapToObj(SerializationBenchmark::book).collect(Collectors.toList());
+        comments = books.stream().map(book -> new Comment("Comment to " + book.getTitle(), book))
+                .collect(Collectors.toList());
+        booksJson = objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] serializeBooks() throws IOException {
+        return objectMapper.writeValueAsBytes(books);
+    }
+
+    @Benchmark
+    public byte[] serializeComments() throws IOException {
+        return objectMapper.writeValueAsBytes(comments);
+    }
+
+    @Benchmark
+    public List<Book> deserializeBooks() throws IOException {
+        return objectMapper.readValue(booksJson, BOOK_LIST);
+    }
+
+    static Book book(int number) {
+        final Author author = new Author("Author " + number % 50);
+        author.setId(new ObjectId().toHexString());
+        final Genre genre = new Genre("Genre " + number % 10);
+        genre.setId(new ObjectId().toHexString());
+
+        final Book book = new Book("Book " + number, author, genre);
+        book.setId(new ObjectId().toHexString());
+        return book;
+    }
+}
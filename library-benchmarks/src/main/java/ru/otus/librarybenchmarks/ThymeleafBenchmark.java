@@ -0,0 +1,64 @@
+package ru.otus.librarybenchmarks;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockServletContext;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.page.ChunkedRows;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ThymeleafBenchmark {
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private SpringTemplateEngine templateEngine;
+    private MockServletContext servletContext;
+    private List<Book> books;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setCharacterEncoding("UTF-8");
+        templateResolver.setCacheable(true);
+
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+
+        servletContext = new MockServletContext();
+        books = IntStream.range(0, size).mapToObj(SerializationBenchmark::book).collect(Collectors.toList());
+        for (int i = 0; i < books.size(); i++)
+            books.get(i).setId(String.valueOf(i));
+    }
+
+    @Benchmark
+    public int renderBookList() {
+        final StringWriter writer = new StringWriter();
+        final ChunkedRows<Book> rows = new ChunkedRows<>((after, limit) -> {
+            final int from = after == null ? 0 : Integer.parseInt(after) + 1;
+            return books.subList(Math.min(from, size), Math.min(from + limit, size));
+        }, Book::getId, writer, null, size, 25);
+        final WebContext context = new WebContext(new MockHttpServletRequest(servletContext),
+                new MockHttpServletResponse(), servletContext, Locale.ENGLISH, Map.of("books", rows));
+        templateEngine.process("bookList", context, writer);
+        return writer.getBuffer().length();
+    }
+}
@@ -0,0 +1,84 @@
+package ru.otus.librarybenchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.Comment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class WireFormatBenchmark {
+    @Param({"10000", "100000"})
+    private int size;
+
+    @Param({"json", "json-gzip", "cbor", "smile", "smile-gzip"})
+    private String format;
+
+    private ObjectMapper objectMapper;
+    private boolean gzip;
+    private List<Book> books;
+    private List<Comment> comments;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        objectMapper = objectMapper(format);
+        gzip = format.endsWith("-gzip");
+        books = IntStream.range(0, size).mapToObj(SerializationBenchmark::book).collect(Collectors.toList());
+        comments = books.stream().map(book -> new Comment("Comment to " + book.getTitle(), book))
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] serializeBooks(Payload payload) throws IOException {
+        return write(books, payload);
+    }
+
+    @Benchmark
+    public byte[] serializeComments(Payload payload) throws IOException {
+        return write(comments, payload);
+    }
+
+    private byte[] write(Object value, Payload payload) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            objectMapper.writeValue(out, value);
+        }
+
+        payload.bytes = bytes.size();
+        return bytes.toByteArray();
+    }
+
+    private static ObjectMapper objectMapper(String format) {
+        switch (format) {
+            case "cbor":
+                return Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build();
+            case "smile":
+            case "smile-gzip":
+                return Jackson2ObjectMapperBuilder.json().factory(new SmileFactory()).build();
+            default:
+                return Jackson2ObjectMapperBuilder.json().build();
+        }
+    }
+}
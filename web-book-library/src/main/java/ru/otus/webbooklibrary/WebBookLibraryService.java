@@ -3,11 +3,13 @@ package ru.otus.webbooklibrary;
 import com.github.cloudyrock.spring.v5.EnableMongock;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.cloud.client.circuitbreaker.EnableCircuitBreaker;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @EnableMongock
-@EnableCircuitBreaker
+@EnableCaching
+@EnableScheduling
 public class WebBookLibraryService {
     public static void main(String[] args) {
         SpringApplication.run(WebBookLibraryService.class, args);
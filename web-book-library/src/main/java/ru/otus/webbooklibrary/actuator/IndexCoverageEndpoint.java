@@ -0,0 +1,83 @@
+package ru.otus.webbooklibrary.actuator;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.context.ApplicationContext;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentProperty;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryFactoryInformation;
+import org.springframework.data.repository.query.parser.PartTree;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Component
+@Endpoint(id = "indexes")
+public class IndexCoverageEndpoint {
+    private final ApplicationContext applicationContext;
+    private final MongoOperations mongoOperations;
+
+    public IndexCoverageEndpoint(ApplicationContext applicationContext, MongoOperations mongoOperations) {
+        this.applicationContext = applicationContext;
+        this.mongoOperations = mongoOperations;
+    }
+
+    @ReadOperation
+    public Map<String, List<String>> indexCoverage() {
+        final Map<String, List<String>> coverage = new LinkedHashMap<>();
+        coverage.put("covered", new ArrayList<>());
+        coverage.put("uncovered", new ArrayList<>());
+
+        final List<RepositoryInformation> repositories = applicationContext
+                .getBeansOfType(RepositoryFactoryInformation.class, false, false).values().stream()
+                .map(RepositoryFactoryInformation::getRepositoryInformation)
+                .sorted(Comparator.comparing(i -> i.getRepositoryInterface().getSimpleName()))
+                .collect(Collectors.toList());
+
+        for (RepositoryInformation information : repositories) {
+            final Class<?> domainType = information.getDomainType();
+            final List<String> leadingIndexFields = mongoOperations.indexOps(domainType).getIndexInfo().stream()
+                    .map(i -> i.getIndexFields().get(0))
+                    .map(IndexField::getKey)
+                    .collect(Collectors.toList());
+
+            for (Method method : information.getQueryMethods()) {
+                if (!method.getDeclaringClass().equals(information.getRepositoryInterface()))
+                    continue;
+
+                final Set<String> fields = getQueryFields(method, domainType);
+
+                if (fields.isEmpty())
+                    continue;
+
+                final boolean covered = leadingIndexFields.stream().anyMatch(fields::contains);
+                coverage.get(covered ? "covered" : "uncovered").add(String.format("%s.%s %s",
+                        information.getRepositoryInterface().getSimpleName(), method.getName(), fields));
+            }
+        }
+
+        return coverage;
+    }
+
+    private Set<String> getQueryFields(Method method, Class<?> domainType) {
+        final MappingContext<? extends MongoPersistentEntity<?>, MongoPersistentProperty> mappingContext =
+                mongoOperations.getConverter().getMappingContext();
+
+        return new PartTree(method.getName(), domainType).getParts().stream()
+                .map(part -> mappingContext.getPersistentPropertyPath(part.getProperty())
+                        .toDotPath(MongoPersistentProperty::getFieldName))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
@@ -0,0 +1,63 @@
+package ru.otus.webbooklibrary.circuitbreaker;
+
+import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+class Fallback {
+    private final Method method;
+    private final boolean withArguments;
+    private final boolean withThrowable;
+
+    private Fallback(Method method, boolean withArguments, boolean withThrowable) {
+        ReflectionUtils.makeAccessible(method);
+        this.method = method;
+        this.withArguments = withArguments;
+        this.withThrowable = withThrowable;
+    }
+
+    static Fallback resolve(Class<?> targetClass, Method command, HystrixCommand hystrixCommand) {
+        if (!hystrixCommand.fallbackMethod().isEmpty())
+            return resolve(targetClass, hystrixCommand.fallbackMethod(), command.getParameterTypes(), true);
+        if (!hystrixCommand.defaultFallback().isEmpty())
+            return resolve(targetClass, hystrixCommand.defaultFallback(), new Class<?>[0], false);
+
+        return null;
+    }
+
+    private static Fallback resolve(Class<?> targetClass, String name, Class<?>[] parameterTypes,
+                                    boolean withArguments) {
+        final Class<?>[] withThrowable = Arrays.copyOf(parameterTypes, parameterTypes.length + 1);
+        withThrowable[parameterTypes.length] = Throwable.class;
+
+        final Method method = ReflectionUtils.findMethod(targetClass, name, withThrowable);
+        if (method != null)
+            return new Fallback(method, withArguments, true);
+
+        final Method plain = ReflectionUtils.findMethod(targetClass, name, parameterTypes);
+        if (plain == null)
+            throw new IllegalStateException("Fallback method " + name + " is not found in " + targetClass);
+
+        return new Fallback(plain, withArguments, false);
+    }
+
+    Object invoke(Object target, Object[] args, Throwable e) throws Throwable {
+        final Object[] commandArgs = withArguments ? args : new Object[0];
+        final Object[] fallbackArgs = withThrowable ? append(commandArgs, e) : commandArgs;
+
+        try {
+            return method.invoke(target, fallbackArgs);
+        } catch (InvocationTargetException invocationException) {
+            throw invocationException.getTargetException();
+        }
+    }
+
+    private static Object[] append(Object[] args, Throwable e) {
+        final Object[] result = Arrays.copyOf(args, args.length + 1);
+        result[args.length] = e;
+        return result;
+    }
+}
@@ -0,0 +1,89 @@
+package ru.otus.webbooklibrary.circuitbreaker;
+
+import com.netflix.hystrix.HystrixThreadPoolKey;
+import com.netflix.hystrix.HystrixThreadPoolProperties;
+import com.netflix.hystrix.strategy.HystrixPlugins;
+import com.netflix.hystrix.strategy.concurrency.HystrixConcurrencyStrategy;
+import com.netflix.hystrix.strategy.concurrency.HystrixRequestVariable;
+import com.netflix.hystrix.strategy.concurrency.HystrixRequestVariableLifecycle;
+import com.netflix.hystrix.strategy.eventnotifier.HystrixEventNotifier;
+import com.netflix.hystrix.strategy.executionhook.HystrixCommandExecutionHook;
+import com.netflix.hystrix.strategy.metrics.HystrixMetricsPublisher;
+import com.netflix.hystrix.strategy.properties.HystrixPropertiesStrategy;
+import com.netflix.hystrix.strategy.properties.HystrixProperty;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+public class RequestAttributesConcurrencyStrategy extends HystrixConcurrencyStrategy {
+    private final HystrixConcurrencyStrategy delegate;
+
+    private RequestAttributesConcurrencyStrategy(HystrixConcurrencyStrategy delegate) {
+        this.delegate = delegate;
+    }
+
+    public static void register() {
+        final HystrixPlugins plugins = HystrixPlugins.getInstance();
+        final HystrixConcurrencyStrategy existing = plugins.getConcurrencyStrategy();
+        if (existing instanceof RequestAttributesConcurrencyStrategy)
+            return;
+
+        final HystrixEventNotifier eventNotifier = plugins.getEventNotifier();
+        final HystrixMetricsPublisher metricsPublisher = plugins.getMetricsPublisher();
+        final HystrixPropertiesStrategy propertiesStrategy = plugins.getPropertiesStrategy();
+        final HystrixCommandExecutionHook commandExecutionHook = plugins.getCommandExecutionHook();
+
+        HystrixPlugins.reset();
+        HystrixPlugins.getInstance().registerConcurrencyStrategy(new RequestAttributesConcurrencyStrategy(existing));
+        HystrixPlugins.getInstance().registerEventNotifier(eventNotifier);
+        HystrixPlugins.getInstance().registerMetricsPublisher(metricsPublisher);
+        HystrixPlugins.getInstance().registerPropertiesStrategy(propertiesStrategy);
+        HystrixPlugins.getInstance().registerCommandExecutionHook(commandExecutionHook);
+    }
+
+    @Override
+    public <T> Callable<T> wrapCallable(Callable<T> callable) {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        final Callable<T> wrapped = delegate.wrapCallable(callable);
+        if (attributes == null)
+            return wrapped;
+
+        return () -> {
+            RequestContextHolder.setRequestAttributes(attributes);
+            try {
+                return wrapped.call();
+            } finally {
+                RequestContextHolder.resetRequestAttributes();
+            }
+        };
+    }
+
+    @Override
+    public ThreadPoolExecutor getThreadPool(HystrixThreadPoolKey threadPoolKey,
+                                            HystrixProperty<Integer> corePoolSize,
+                                            HystrixProperty<Integer> maximumPoolSize,
+                                            HystrixProperty<Integer> keepAliveTime, TimeUnit unit,
+                                            BlockingQueue<Runnable> workQueue) {
+        return delegate.getThreadPool(threadPoolKey, corePoolSize, maximumPoolSize, keepAliveTime, unit, workQueue);
+    }
+
+    @Override
+    public ThreadPoolExecutor getThreadPool(HystrixThreadPoolKey threadPoolKey,
+                                            HystrixThreadPoolProperties threadPoolProperties) {
+        return delegate.getThreadPool(threadPoolKey, threadPoolProperties);
+    }
+
+    @Override
+    public BlockingQueue<Runnable> getBlockingQueue(int maxQueueSize) {
+        return delegate.getBlockingQueue(maxQueueSize);
+    }
+
+    @Override
+    public <T> HystrixRequestVariable<T> getRequestVariable(HystrixRequestVariableLifecycle<T> rv) {
+        return delegate.getRequestVariable(rv);
+    }
+}
@@ -0,0 +1,126 @@
+package ru.otus.webbooklibrary.circuitbreaker;
+
+import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class Resilience4jCommandAspect implements DisposableBean {
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
+    private final Map<Method, ResilientCommand> commands = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(
+            new CustomizableThreadFactory("resilience4j-command-"));
+
+    public Resilience4jCommandAspect(CircuitBreakerRegistry circuitBreakerRegistry,
+                                     BulkheadRegistry bulkheadRegistry,
+                                     TimeLimiterRegistry timeLimiterRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.timeLimiterRegistry = timeLimiterRegistry;
+    }
+
+    @Around("@annotation(hystrixCommand) && within(ru.otus.webbooklibrary.service..*)")
+    public Object execute(ProceedingJoinPoint joinPoint, HystrixCommand hystrixCommand) throws Throwable {
+        final Object target = joinPoint.getTarget();
+        final Object[] args = joinPoint.getArgs();
+        final ResilientCommand command = commands.computeIfAbsent(
+                ((MethodSignature) joinPoint.getSignature()).getMethod(),
+                method -> command(ClassUtils.getUserClass(target), method, hystrixCommand));
+
+        final Bulkhead bulkhead = command.getBulkhead();
+        if (!bulkhead.tryAcquirePermission())
+            return command.fallback(target, args, BulkheadFullException.createBulkheadFullException(bulkhead));
+
+        final CircuitBreaker circuitBreaker = command.getCircuitBreaker();
+        if (!circuitBreaker.tryAcquirePermission()) {
+            bulkhead.onComplete();
+            return command.fallback(target, args,
+                    CallNotPermittedException.createCallNotPermittedException(circuitBreaker));
+        }
+
+        final long start = System.nanoTime();
+        try {
+            final Object result = command.getTimeLimiter().executeFutureSupplier(() -> submit(joinPoint, bulkhead));
+            circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            if (command.ignores(e)) {
+                circuitBreaker.releasePermission();
+                throw e;
+            }
+
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            return command.fallback(target, args, e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private Future<Object> submit(ProceedingJoinPoint joinPoint, Bulkhead bulkhead) {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        final CompletableFuture<Object> result = new CompletableFuture<>();
+
+        try {
+            executor.execute(() -> {
+                RequestContextHolder.setRequestAttributes(attributes);
+                try {
+                    result.complete(joinPoint.proceed());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                    bulkhead.onComplete();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            bulkhead.onComplete();
+            throw e;
+        }
+
+        return result;
+    }
+
+    private ResilientCommand command(Class<?> targetClass, Method method, HystrixCommand hystrixCommand) {
+        final String group = hystrixCommand.groupKey().isEmpty() ? targetClass.getSimpleName()
+                : hystrixCommand.groupKey();
+        final String name = hystrixCommand.commandKey().isEmpty() ? method.getName() : hystrixCommand.commandKey();
+        final String bulkhead = hystrixCommand.threadPoolKey().isEmpty() ? group : hystrixCommand.threadPoolKey();
+
+        return new ResilientCommand(circuitBreakerRegistry.circuitBreaker(group + "." + name),
+                bulkheadRegistry.bulkhead(bulkhead), timeLimiterRegistry.timeLimiter(group + "." + name),
+                hystrixCommand.ignoreExceptions(),
+                Fallback.resolve(targetClass, method, hystrixCommand));
+    }
+}
@@ -0,0 +1,47 @@
+package ru.otus.webbooklibrary.circuitbreaker;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+
+import java.util.Arrays;
+
+class ResilientCommand {
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final TimeLimiter timeLimiter;
+    private final Class<? extends Throwable>[] ignoredExceptions;
+    private final Fallback fallback;
+
+    ResilientCommand(CircuitBreaker circuitBreaker, Bulkhead bulkhead, TimeLimiter timeLimiter,
+                     Class<? extends Throwable>[] ignoredExceptions, Fallback fallback) {
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+        this.timeLimiter = timeLimiter;
+        this.ignoredExceptions = ignoredExceptions;
+        this.fallback = fallback;
+    }
+
+    CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    TimeLimiter getTimeLimiter() {
+        return timeLimiter;
+    }
+
+    boolean ignores(Throwable e) {
+        return Arrays.stream(ignoredExceptions).anyMatch(type -> type.isInstance(e));
+    }
+
+    Object fallback(Object target, Object[] args, Throwable e) throws Throwable {
+        if (fallback == null)
+            throw e;
+
+        return fallback.invoke(target, args, e);
+    }
+}
@@ -0,0 +1,50 @@
+package ru.otus.webbooklibrary.concurrency;
+
+import com.netflix.concurrency.limits.Limiter;
+import com.netflix.concurrency.limits.limiter.AbstractLimiter;
+import com.netflix.hystrix.exception.HystrixRuntimeException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ConcurrencyLimitAspect {
+    private final AbstractLimiter<Void> limiter;
+    private final Counter rejected;
+
+    public ConcurrencyLimitAspect(AbstractLimiter<Void> limiter, MeterRegistry meterRegistry) {
+        this.limiter = limiter;
+        this.rejected = Counter.builder("library.concurrency.rejected").register(meterRegistry);
+        Gauge.builder("library.concurrency.limit", limiter, AbstractLimiter::getLimit).register(meterRegistry);
+        Gauge.builder("library.concurrency.inflight", limiter, AbstractLimiter::getInflight).register(meterRegistry);
+    }
+
+    @Around("@annotation(com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand)"
+            + " && within(ru.otus.webbooklibrary.service..*)")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        final Limiter.Listener listener = limiter.acquire(null).orElseThrow(() -> {
+            rejected.increment();
+            return new ConcurrencyLimitExceededException(limiter.getLimit());
+        });
+
+        try {
+            final Object result = joinPoint.proceed();
+            listener.onSuccess();
+            return result;
+        } catch (HystrixRuntimeException | CallNotPermittedException | BulkheadFullException e) {
+            listener.onDropped();
+            throw e;
+        } catch (Throwable e) {
+            listener.onIgnore();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ru.otus.webbooklibrary.concurrency;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Library is overloaded, retry later")
+public class ConcurrencyLimitExceededException extends RuntimeException {
+    public ConcurrencyLimitExceededException(int limit) {
+        super("Concurrency limit of " + limit + " exceeded");
+    }
+}
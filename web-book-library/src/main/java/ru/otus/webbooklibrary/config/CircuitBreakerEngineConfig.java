@@ -0,0 +1,35 @@
+package ru.otus.webbooklibrary.config;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.client.circuitbreaker.EnableCircuitBreaker;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.otus.webbooklibrary.circuitbreaker.RequestAttributesConcurrencyStrategy;
+import ru.otus.webbooklibrary.circuitbreaker.Resilience4jCommandAspect;
+
+@Configuration
+public class CircuitBreakerEngineConfig {
+    @Configuration
+    @ConditionalOnProperty(prefix = "library.circuit-breaker", name = "engine", havingValue = "hystrix")
+    @EnableCircuitBreaker
+    static class HystrixEngineConfig {
+        HystrixEngineConfig() {
+            RequestAttributesConcurrencyStrategy.register();
+        }
+    }
+
+    @Configuration
+    @ConditionalOnProperty(prefix = "library.circuit-breaker", name = "engine", havingValue = "resilience4j",
+            matchIfMissing = true)
+    static class Resilience4jEngineConfig {
+        @Bean
+        public Resilience4jCommandAspect resilience4jCommandAspect(CircuitBreakerRegistry circuitBreakerRegistry,
+                                                                   BulkheadRegistry bulkheadRegistry,
+                                                                   TimeLimiterRegistry timeLimiterRegistry) {
+            return new Resilience4jCommandAspect(circuitBreakerRegistry, bulkheadRegistry, timeLimiterRegistry);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package ru.otus.webbooklibrary.config;
+
+import com.netflix.concurrency.limits.Limit;
+import com.netflix.concurrency.limits.limit.AIMDLimit;
+import com.netflix.concurrency.limits.limit.Gradient2Limit;
+import com.netflix.concurrency.limits.limiter.AbstractLimiter;
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.otus.webbooklibrary.concurrency.ConcurrencyLimitAspect;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@ConditionalOnProperty(prefix = "library.concurrency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+    @Bean
+    public AbstractLimiter<Void> mongoConcurrencyLimiter(
+            @Value("${library.concurrency.algorithm:gradient2}") String algorithm,
+            @Value("${library.concurrency.initial-limit:20}") int initialLimit,
+            @Value("${library.concurrency.min-limit:4}") int minLimit,
+            @Value("${library.concurrency.max-limit:200}") int maxLimit,
+            @Value("${library.concurrency.aimd.latency-threshold:1s}") Duration latencyThreshold) {
+        final Limit limit;
+        switch (algorithm) {
+            case "aimd":
+                limit = AIMDLimit.newBuilder().initialLimit(initialLimit).minLimit(minLimit).maxLimit(maxLimit)
+                        .timeout(latencyThreshold.toNanos(), TimeUnit.NANOSECONDS).build();
+                break;
+            case "gradient2":
+                limit = Gradient2Limit.newBuilder().initialLimit(initialLimit).minLimit(minLimit)
+                        .maxConcurrency(maxLimit).build();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown concurrency limit algorithm " + algorithm);
+        }
+
+        return SimpleLimiter.newBuilder().named("mongo").limit(limit).build();
+    }
+
+    @Bean
+    public ConcurrencyLimitAspect concurrencyLimitAspect(AbstractLimiter<Void> mongoConcurrencyLimiter,
+                                                         MeterRegistry meterRegistry) {
+        return new ConcurrencyLimitAspect(mongoConcurrencyLimiter, meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+package ru.otus.webbooklibrary.config;
+
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import ru.otus.webbooklibrary.repository.config.CollectionVersions;
+import ru.otus.webbooklibrary.rest.controller.ConditionalGetInterceptor;
+
+@Profile("!reactive")
+@Configuration
+public class ConditionalGetConfig implements WebMvcConfigurer {
+    private final CollectionVersions collectionVersions = new CollectionVersions();
+
+    @Bean
+    public CollectionVersions collectionVersions() {
+        return collectionVersions;
+    }
+
+    @Bean
+    public MongoClientSettingsBuilderCustomizer collectionVersionsCustomizer() {
+        return builder -> builder.addCommandListener(collectionVersions);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConditionalGetInterceptor(collectionVersions))
+                .addPathPatterns(ConditionalGetInterceptor.paths());
+    }
+}
@@ -0,0 +1,16 @@
+package ru.otus.webbooklibrary.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.otus.webbooklibrary.metrics.MongoCommandMetricsListener;
+
+@Configuration
+public class MetricsConfig {
+    @Bean
+    public MongoClientSettingsBuilderCustomizer mongoCommandMetricsCustomizer(MeterRegistry meterRegistry) {
+        final MongoCommandMetricsListener listener = new MongoCommandMetricsListener(meterRegistry);
+        return builder -> builder.addCommandListener(listener);
+    }
+}
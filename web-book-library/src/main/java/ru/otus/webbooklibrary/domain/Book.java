@@ -1,9 +1,11 @@
 package ru.otus.webbooklibrary.domain;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
+import java.time.Instant;
 import java.util.Objects;
 
 @Document(collection = "books")
@@ -16,6 +18,13 @@ public class Book {
     private Author author;
     @Field("genre")
     private Genre genre;
+    @Field("commentCount")
+    private Long commentCount;
+    @Field("lastCommentAt")
+    private Instant lastCommentAt;
+    @Version
+    @Field("version")
+    private Long version;
 
     public Book() {
     }
@@ -42,6 +51,18 @@ public class Book {
         return genre;
     }
 
+    public long getCommentCount() {
+        return commentCount == null ? 0 : commentCount;
+    }
+
+    public Instant getLastCommentAt() {
+        return lastCommentAt;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
     public void setId(String id) {
         this.id = id;
     }
@@ -58,6 +79,18 @@ public class Book {
         this.genre = genre;
     }
 
+    public void setCommentCount(long commentCount) {
+        this.commentCount = commentCount;
+    }
+
+    public void setLastCommentAt(Instant lastCommentAt) {
+        this.lastCommentAt = lastCommentAt;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,65 @@
+package ru.otus.webbooklibrary.domain;
+
+import org.springframework.data.annotation.Id;
+
+import java.util.List;
+
+public class BookWithComments {
+    @Id
+    private String id;
+    private String title;
+    private Author author;
+    private Genre genre;
+    private List<Comment> comments;
+
+    public BookWithComments() {
+    }
+
+    public BookWithComments(Book book, List<Comment> comments) {
+        this.id = book.getId();
+        this.title = book.getTitle();
+        this.author = book.getAuthor();
+        this.genre = book.getGenre();
+        this.comments = comments;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public Author getAuthor() {
+        return author;
+    }
+
+    public Genre getGenre() {
+        return genre;
+    }
+
+    public List<Comment> getComments() {
+        return comments;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public void setAuthor(Author author) {
+        this.author = author;
+    }
+
+    public void setGenre(Genre genre) {
+        this.genre = genre;
+    }
+
+    public void setComments(List<Comment> comments) {
+        this.comments = comments;
+    }
+}
@@ -1,6 +1,7 @@
 package ru.otus.webbooklibrary.domain;
 
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
 
@@ -14,6 +15,9 @@ public class Comment {
     private String content;
     @Field("book")
     private Book book;
+    @Version
+    @Field("version")
+    private Long version;
 
     public Comment() {
     }
@@ -24,6 +28,13 @@ public class Comment {
         this.book.setTitle(bookTitle);
     }
 
+    public Comment(String content, Book book) {
+        this.content = content;
+        this.book = new Book();
+        this.book.setId(book.getId());
+        this.book.setTitle(book.getTitle());
+    }
+
     public String getId() {
         return id;
     }
@@ -36,6 +47,10 @@ public class Comment {
         return book;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     public void setId(String id) {
         this.id = id;
     }
@@ -45,9 +60,15 @@ public class Comment {
     }
 
     public void setBook(String bookTitle) {
+        if (book == null)
+            book = new Book();
         this.book.setTitle(bookTitle);
     }
 
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,52 @@
+package ru.otus.webbooklibrary.domain;
+
+import java.util.Objects;
+
+public class SearchHit {
+    private final String type;
+    private final String id;
+    private final String text;
+    private final String details;
+    private final double score;
+
+    public SearchHit(String type, String id, String text, String details, double score) {
+        this.type = type;
+        this.id = id;
+        this.text = text;
+        this.details = details;
+        this.score = score;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public String getDetails() {
+        return details;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SearchHit searchHit = (SearchHit) o;
+        return type.equals(searchHit.type) && id.equals(searchHit.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, id);
+    }
+}
@@ -0,0 +1,77 @@
+package ru.otus.webbooklibrary.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class LibraryMetricsAspect {
+    private final MeterRegistry meterRegistry;
+
+    public LibraryMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("within(ru.otus.webbooklibrary.service..*) && @within(org.springframework.stereotype.Service) " +
+            "&& execution(public !org.reactivestreams.Publisher+ *(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return record("library.service", "service", ClassUtils.getUserClass(joinPoint.getTarget()).getSimpleName(),
+                joinPoint);
+    }
+
+    @Around("(this(org.springframework.data.repository.Repository) " +
+            "|| within(ru.otus.webbooklibrary.repository..*) && @within(org.springframework.stereotype.Repository)) " +
+            "&& execution(public !org.reactivestreams.Publisher+ *(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        final String repository = repositoryName(joinPoint);
+        final Object result = record("library.repository", "repository", repository, joinPoint);
+
+        if (result instanceof Collection)
+            DistributionSummary.builder("library.repository.results")
+                    .tag("repository", repository)
+                    .tag("method", joinPoint.getSignature().getName())
+                    .register(meterRegistry)
+                    .record(((Collection<?>) result).size());
+
+        return result;
+    }
+
+    private Object record(String name, String typeTag, String type, ProceedingJoinPoint joinPoint) throws Throwable {
+        final Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(name)
+                    .tag(typeTag, type)
+                    .tag("method", joinPoint.getSignature().getName())
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String repositoryName(ProceedingJoinPoint joinPoint) {
+        return Arrays.stream(AopProxyUtils.proxiedUserInterfaces(joinPoint.getThis()))
+                .filter(type -> type.getPackageName().startsWith("ru.otus.webbooklibrary"))
+                .findFirst()
+                .orElse(joinPoint.getSignature().getDeclaringType())
+                .getSimpleName();
+    }
+}
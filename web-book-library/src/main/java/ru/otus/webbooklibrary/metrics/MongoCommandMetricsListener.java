@@ -0,0 +1,54 @@
+package ru.otus.webbooklibrary.metrics;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.BsonValue;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+public class MongoCommandMetricsListener implements CommandListener {
+    private final MeterRegistry meterRegistry;
+    private final Map<Integer, String> collections = new ConcurrentHashMap<>();
+
+    public MongoCommandMetricsListener(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        final String key = "getMore".equals(event.getCommandName()) ? "collection" : event.getCommandName();
+        final BsonValue collection = event.getCommand().get(key);
+
+        if (collection != null && collection.isString())
+            collections.put(event.getRequestId(), collection.asString().getValue());
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        record(event.getRequestId(), event.getCommandName(), "SUCCESS",
+                event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        record(event.getRequestId(), event.getCommandName(), "FAILED",
+                event.getElapsedTime(TimeUnit.NANOSECONDS));
+    }
+
+    private void record(int requestId, String command, String status, long elapsedNanos) {
+        final String collection = collections.remove(requestId);
+
+        Timer.builder("mongodb.driver.commands")
+                .tag("command", command)
+                .tag("collection", collection == null ? "none" : collection)
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+}
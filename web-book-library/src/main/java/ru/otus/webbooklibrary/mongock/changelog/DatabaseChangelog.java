@@ -2,7 +2,9 @@ package ru.otus.webbooklibrary.mongock.changelog;
 
 import com.github.cloudyrock.mongock.ChangeLog;
 import com.github.cloudyrock.mongock.ChangeSet;
+import com.github.cloudyrock.mongock.driver.mongodb.springdata.v3.decorator.impl.MongockTemplate;
 import com.mongodb.client.MongoDatabase;
+import org.bson.types.ObjectId;
 import ru.otus.webbooklibrary.domain.Author;
 import ru.otus.webbooklibrary.domain.Book;
 import ru.otus.webbooklibrary.domain.Comment;
@@ -11,6 +13,11 @@ import ru.otus.webbooklibrary.repository.AuthorRepository;
 import ru.otus.webbooklibrary.repository.BookRepository;
 import ru.otus.webbooklibrary.repository.CommentRepository;
 import ru.otus.webbooklibrary.repository.GenreRepository;
+import ru.otus.webbooklibrary.repository.config.LibraryIndexes;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import static org.springframework.data.mongodb.core.query.Update.update;
 
 @ChangeLog
 public class DatabaseChangelog {
@@ -30,13 +37,33 @@ public class DatabaseChangelog {
     }
 
     @ChangeSet(order = "004", id = "insertBook", runAlways = true, author = "Diatessaron")
-    public void insertBook(BookRepository repository) {
-        repository.save(new Book("Ulysses", new Author("James Joyce"),
-                new Genre("Modernist novel")));
+    public void insertBook(BookRepository repository, AuthorRepository authorRepository,
+                           GenreRepository genreRepository) {
+        repository.save(new Book("Ulysses", authorRepository.findByName("James Joyce").get(0),
+                genreRepository.findByName("Modernist novel").orElseThrow()));
     }
 
     @ChangeSet(order = "005", id = "insertComment", runAlways = true, author = "Diatessaron")
-    public void insertComment(CommentRepository repository) {
-        repository.save(new Comment("Published in 1922", "Ulysses"));
+    public void insertComment(CommentRepository repository, BookRepository bookRepository) {
+        final Book book = bookRepository.findByTitle("Ulysses").get(0);
+        final Comment comment = repository.save(new Comment("Published in 1922", book));
+        bookRepository.incrementCommentCount(book.getId(), 1, new ObjectId(comment.getId()).getDate().toInstant());
+    }
+
+    @ChangeSet(order = "098", id = "initializeVersions", author = "Diatessaron")
+    public void initializeVersions(MongockTemplate template) {
+        template.updateMulti(query(where("version").exists(false)), update("version", 0L), Book.class);
+        template.updateMulti(query(where("version").exists(false)), update("version", 0L), Comment.class);
+    }
+
+    @ChangeSet(order = "099", id = "mergeDuplicateNames", author = "Diatessaron")
+    public void mergeDuplicateNames(AuthorRepository authorRepository, GenreRepository genreRepository) {
+        authorRepository.mergeDuplicateNames();
+        genreRepository.mergeDuplicateNames();
+    }
+
+    @ChangeSet(order = "100", id = "ensureIndexes", runAlways = true, author = "Diatessaron")
+    public void ensureIndexes(MongockTemplate template) {
+        LibraryIndexes.DEFINITIONS.forEach((type, indexes) -> indexes.forEach(template.indexOps(type)::ensureIndex));
     }
 }
@@ -0,0 +1,83 @@
+package ru.otus.webbooklibrary.page;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+public class ChunkedRows<T> implements Iterator<T> {
+    private final BiFunction<String, Integer, List<T>> loader;
+    private final Function<T, String> idOf;
+    private final Flushable output;
+    private final int limit;
+    private final int chunkSize;
+    private Iterator<T> chunk = Collections.emptyIterator();
+    private String after;
+    private int remaining;
+    private boolean exhausted;
+    private boolean started;
+
+    public ChunkedRows(BiFunction<String, Integer, List<T>> loader, Function<T, String> idOf, Flushable output,
+                       String after, int limit, int chunkSize) {
+        this.loader = loader;
+        this.idOf = idOf;
+        this.output = output;
+        this.after = after;
+        this.limit = limit;
+        this.remaining = limit;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (chunk.hasNext())
+            return true;
+        if (exhausted || remaining == 0)
+            return false;
+
+        if (started)
+            flush();
+        started = true;
+
+        final int size = Math.min(chunkSize, remaining);
+        final int fetched = size == remaining ? size + 1 : size;
+        final List<T> rows = loader.apply(after, fetched);
+        exhausted = rows.size() < fetched;
+        chunk = (rows.size() > size ? rows.subList(0, size) : rows).iterator();
+
+        return chunk.hasNext();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        final T row = chunk.next();
+        after = idOf.apply(row);
+        remaining--;
+
+        return row;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public String getNextAfter() {
+        return exhausted || remaining > 0 ? null : after;
+    }
+
+    private void flush() {
+        try {
+            output.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ru.otus.webbooklibrary.page;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.ui.Model;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Component
+public class ModelFanOut implements DisposableBean {
+    private final ThreadPoolExecutor executor;
+    private final MeterRegistry meterRegistry;
+    private final Duration budget;
+
+    public ModelFanOut(MeterRegistry meterRegistry,
+                       @Value("${library.pages.fan-out.threads:16}") int threads,
+                       @Value("${library.pages.fan-out.queue-capacity:64}") int queueCapacity,
+                       @Value("${library.pages.fan-out.budget:2s}") Duration budget) {
+        this.meterRegistry = meterRegistry;
+        this.budget = budget;
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("page-fan-out-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    public Loads into(Model model) {
+        return new Loads(model);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    public class Loads {
+        private final Model model;
+        private final Map<String, CompletableFuture<?>> futures = new LinkedHashMap<>();
+        private final Map<String, Supplier<?>> fallbacks = new LinkedHashMap<>();
+
+        private Loads(Model model) {
+            this.model = model;
+        }
+
+        public <T> Loads require(String attribute, Supplier<T> loader) {
+            futures.put(attribute, CompletableFuture.supplyAsync(loader, executor));
+            return this;
+        }
+
+        public <T> Loads optional(String attribute, Supplier<T> loader, Supplier<T> fallback) {
+            fallbacks.put(attribute, fallback);
+            return require(attribute, loader);
+        }
+
+        public void await() {
+            final long deadline = System.nanoTime() + budget.toNanos();
+            boolean partial = false;
+
+            for (Map.Entry<String, CompletableFuture<?>> entry : futures.entrySet()) {
+                final String attribute = entry.getKey();
+                try {
+                    model.addAttribute(attribute, entry.getValue()
+                            .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS));
+                } catch (TimeoutException | ExecutionException e) {
+                    entry.getValue().cancel(false);
+                    if (!fallbacks.containsKey(attribute))
+                        throw failure(attribute, e);
+
+                    meterRegistry.counter("library.pages.fan-out.partial", "attribute", attribute).increment();
+                    model.addAttribute(attribute, fallbacks.get(attribute).get());
+                    partial = true;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new PageBudgetExceededException(attribute);
+                }
+            }
+
+            model.addAttribute("partial", partial);
+        }
+
+        private RuntimeException failure(String attribute, Exception e) {
+            if (e instanceof ExecutionException && e.getCause() instanceof RuntimeException)
+                return (RuntimeException) e.getCause();
+
+            return new PageBudgetExceededException(attribute);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package ru.otus.webbooklibrary.page;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Page could not be loaded in time, retry later")
+public class PageBudgetExceededException extends RuntimeException {
+    public PageBudgetExceededException(String attribute) {
+        super("Page attribute " + attribute + " was not loaded within the page budget");
+    }
+}
@@ -0,0 +1,31 @@
+package ru.otus.webbooklibrary.page;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletResponse;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+@Component
+public class RowPager {
+    private final int pageSize;
+    private final int maxPageSize;
+    private final int chunkSize;
+
+    public RowPager(@Value("${library.pages.size:100}") int pageSize,
+                    @Value("${library.pages.max-size:1000}") int maxPageSize,
+                    @Value("${library.pages.chunk-size:25}") int chunkSize) {
+        this.pageSize = pageSize;
+        this.maxPageSize = maxPageSize;
+        this.chunkSize = chunkSize;
+    }
+
+    public <T> ChunkedRows<T> rows(String after, Integer limit, BiFunction<String, Integer, List<T>> loader,
+                                   Function<T, String> idOf, HttpServletResponse response) {
+        final int size = limit == null ? pageSize : Math.max(1, Math.min(limit, maxPageSize));
+
+        return new ChunkedRows<>(loader, idOf, response::flushBuffer, after, size, chunkSize);
+    }
+}
@@ -4,14 +4,20 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.page.RowPager;
 import ru.otus.webbooklibrary.service.AuthorService;
 
+import javax.servlet.http.HttpServletResponse;
+
 @Controller
 public class AuthorPageController {
     private final AuthorService authorService;
+    private final RowPager rowPager;
 
-    public AuthorPageController(AuthorService authorService) {
+    public AuthorPageController(AuthorService authorService, RowPager rowPager) {
         this.authorService = authorService;
+        this.rowPager = rowPager;
     }
 
     @GetMapping("/authors/add")
@@ -26,7 +32,9 @@ public class AuthorPageController {
     }
 
     @GetMapping("/authors")
-    public String getAll() {
+    public String getAll(@RequestParam(required = false) String after, @RequestParam(required = false) Integer limit,
+                         HttpServletResponse response, Model model) {
+        model.addAttribute("authors", rowPager.rows(after, limit, authorService::getPage, Author::getId, response));
         return "authorList";
     }
 
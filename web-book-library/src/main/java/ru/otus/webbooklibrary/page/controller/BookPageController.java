@@ -6,34 +6,46 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.page.ModelFanOut;
+import ru.otus.webbooklibrary.page.RowPager;
+import ru.otus.webbooklibrary.rest.dto.BookSummary;
 import ru.otus.webbooklibrary.service.AuthorService;
 import ru.otus.webbooklibrary.service.BookService;
 import ru.otus.webbooklibrary.service.GenreService;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
+import java.util.Set;
 
 @Controller
 public class BookPageController {
     private final BookService bookService;
     private final AuthorService authorService;
     private final GenreService genreService;
+    private final RowPager rowPager;
+    private final ModelFanOut modelFanOut;
 
-    public BookPageController(BookService bookService, AuthorService authorService, GenreService genreService) {
+    public BookPageController(BookService bookService, AuthorService authorService, GenreService genreService,
+                              RowPager rowPager, ModelFanOut modelFanOut) {
         this.bookService = bookService;
         this.authorService = authorService;
         this.genreService = genreService;
+        this.rowPager = rowPager;
+        this.modelFanOut = modelFanOut;
     }
 
     @GetMapping("/books/add")
     public String savePage(Model model) {
-        model.addAttribute("authors", authorService.getAll());
-        model.addAttribute("genres", genreService.getAll());
+        modelFanOut.into(model)
+                .optional("authors", authorService::getAll, List::of)
+                .optional("genres", genreService::getAll, List::of)
+                .await();
         return "bookSave";
     }
 
     @GetMapping("/books/id")
     public String getBookById(@RequestParam String id, Model model) {
-        model.addAttribute("book", bookService.getBookById(id));
+        model.addAttribute("book", bookService.getBookWithComments(id));
         return "bookById";
     }
 
@@ -56,17 +68,21 @@ public class BookPageController {
     }
 
     @GetMapping("/books")
-    public String getAll(Model model) {
-        final List<Book> books = bookService.getAll();
-        model.addAttribute("books", books);
+    public String getAll(@RequestParam(required = false) String after, @RequestParam(required = false) Integer limit,
+                         HttpServletResponse response, Model model) {
+        final Set<String> fields = Set.copyOf(BookSummary.FIELDS.values());
+        model.addAttribute("books", rowPager.rows(after, limit,
+                (from, size) -> bookService.getProjection(fields, from, size), Book::getId, response));
         return "bookList";
     }
 
     @GetMapping("/books/edit")
     public String editPage(@RequestParam String id, Model model) {
-        model.addAttribute("book", bookService.getBookById(id));
-        model.addAttribute("authors", authorService.getAll());
-        model.addAttribute("genres", genreService.getAll());
+        modelFanOut.into(model)
+                .require("book", () -> bookService.getBookById(id))
+                .optional("authors", authorService::getAll, List::of)
+                .optional("genres", genreService::getAll, List::of)
+                .await();
         return "bookEdit";
     }
 }
@@ -6,19 +6,23 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import ru.otus.webbooklibrary.domain.Comment;
+import ru.otus.webbooklibrary.page.RowPager;
 import ru.otus.webbooklibrary.service.BookService;
 import ru.otus.webbooklibrary.service.CommentService;
 
-import java.util.List;
+import javax.servlet.http.HttpServletResponse;
+import java.util.Set;
 
 @Controller
 public class CommentPageController {
     private final CommentService commentService;
     private final BookService bookService;
+    private final RowPager rowPager;
 
-    public CommentPageController(CommentService commentService, BookService bookService) {
+    public CommentPageController(CommentService commentService, BookService bookService, RowPager rowPager) {
         this.bookService = bookService;
         this.commentService = commentService;
+        this.rowPager = rowPager;
     }
 
     @GetMapping("/comments/add")
@@ -40,9 +44,11 @@ public class CommentPageController {
     }
 
     @GetMapping("/comments")
-    public String getAll(Model model) {
-        final List<Comment> comments = commentService.getAll();
-        model.addAttribute("comments", comments);
+    public String getAll(@RequestParam(required = false) String after, @RequestParam(required = false) Integer limit,
+                         HttpServletResponse response, Model model) {
+        final Set<String> fields = Set.of("content", "book.title");
+        model.addAttribute("comments", rowPager.rows(after, limit,
+                (from, size) -> commentService.getProjection(fields, from, size), Comment::getId, response));
         return "commentList";
     }
 
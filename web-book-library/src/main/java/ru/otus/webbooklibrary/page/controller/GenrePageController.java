@@ -4,16 +4,19 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
 import ru.otus.webbooklibrary.domain.Genre;
+import ru.otus.webbooklibrary.page.RowPager;
 import ru.otus.webbooklibrary.service.GenreService;
 
-import java.util.List;
+import javax.servlet.http.HttpServletResponse;
 
 @Controller
 public class GenrePageController {
     private final GenreService genreService;
+    private final RowPager rowPager;
 
-    public GenrePageController(GenreService genreService) {
+    public GenrePageController(GenreService genreService, RowPager rowPager) {
         this.genreService = genreService;
+        this.rowPager = rowPager;
     }
 
     @GetMapping("/genres/add")
@@ -28,9 +31,9 @@ public class GenrePageController {
     }
 
     @GetMapping("/genres")
-    public String getAll(Model model) {
-        final List<Genre> genres = genreService.getAll();
-        model.addAttribute("genres", genres);
+    public String getAll(@RequestParam(required = false) String after, @RequestParam(required = false) Integer limit,
+                         HttpServletResponse response, Model model) {
+        model.addAttribute("genres", rowPager.rows(after, limit, genreService::getPage, Genre::getId, response));
         return "genreList";
     }
 
@@ -1,12 +1,62 @@
 package ru.otus.webbooklibrary.repository;
 
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import ru.otus.webbooklibrary.domain.Author;
 
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface AuthorRepository extends MongoRepository<Author, String> {
+@CacheConfig(cacheNames = {"authorsByName", "allAuthors"})
+public interface AuthorRepository extends MongoRepository<Author, String>, AuthorRepositoryCustom {
+    @Cacheable("authorsByName")
     List<Author> findByName(String name);
 
+    @Cacheable("allAuthors")
+    @Override
+    List<Author> findAll();
+
+    @CacheEvict(allEntries = true)
+    @Override
+    <S extends Author> S save(S entity);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    <S extends Author> List<S> saveAll(Iterable<S> entities);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    <S extends Author> S insert(S entity);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    <S extends Author> List<S> insert(Iterable<S> entities);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void deleteById(String id);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void delete(Author entity);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void deleteAll(Iterable<? extends Author> entities);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void deleteAll();
+
+    @CacheEvict(allEntries = true)
     void deleteByName(String name);
+
+    List<Author> findAllBy(Pageable pageable);
+
+    List<Author> findByIdGreaterThan(String id, Pageable pageable);
+
+    Stream<Author> streamAllBy();
 }
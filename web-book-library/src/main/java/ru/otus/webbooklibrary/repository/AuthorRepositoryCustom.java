@@ -0,0 +1,12 @@
+package ru.otus.webbooklibrary.repository;
+
+import org.springframework.cache.annotation.CacheEvict;
+import ru.otus.webbooklibrary.domain.Author;
+
+public interface AuthorRepositoryCustom {
+    @CacheEvict(cacheNames = {"authorsByName", "allAuthors"}, allEntries = true)
+    Author findOrCreateByName(String name);
+
+    @CacheEvict(cacheNames = {"authorsByName", "allAuthors"}, allEntries = true)
+    long mergeDuplicateNames();
+}
@@ -0,0 +1,22 @@
+package ru.otus.webbooklibrary.repository;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import ru.otus.webbooklibrary.domain.Author;
+
+public class AuthorRepositoryCustomImpl implements AuthorRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public AuthorRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Author findOrCreateByName(String name) {
+        return NamedDocuments.findOrCreateByName(mongoTemplate, name, Author.class);
+    }
+
+    @Override
+    public long mergeDuplicateNames() {
+        return NamedDocuments.mergeDuplicateNames(mongoTemplate, Author.class, "author");
+    }
+}
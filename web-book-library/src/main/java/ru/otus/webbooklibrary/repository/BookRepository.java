@@ -1,18 +1,29 @@
 package ru.otus.webbooklibrary.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import ru.otus.webbooklibrary.domain.Book;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface BookRepository extends MongoRepository<Book, String> {
+public interface BookRepository extends MongoRepository<Book, String>, BookRepositoryCustom {
     List<Book> findByTitle(String title);
 
     List<Book> findByAuthor_Name(String author);
 
     List<Book> findByGenre_Name(String genre);
 
-    void deleteByAuthor_Name(String author);
+    long countByAuthor_Id(String authorId);
 
-    void deleteByGenre_Name(String genre);
+    long countByGenre_Id(String genreId);
+
+    long deleteByIdIn(Collection<String> ids);
+
+    List<Book> findAllBy(Pageable pageable);
+
+    List<Book> findByIdGreaterThan(String id, Pageable pageable);
+
+    Stream<Book> streamAllBy();
 }
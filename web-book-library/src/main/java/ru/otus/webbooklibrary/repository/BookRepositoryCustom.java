@@ -0,0 +1,36 @@
+package ru.otus.webbooklibrary.repository;
+
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.BookWithComments;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface BookRepositoryCustom {
+    long updateAuthorName(String authorId, String name);
+
+    long updateGenreName(String genreId, String name);
+
+    List<String> findIdsByAuthorId(String authorId, int limit);
+
+    List<String> findIdsByGenreId(String genreId, int limit);
+
+    List<Book> findProjected(Collection<String> fields, String after, int limit);
+
+    List<String> findIdsAfter(String after, int limit);
+
+    long incrementCommentCount(String bookId, long delta, Instant commentedAt);
+
+    void incrementCommentCounts(Map<String, Long> deltas, Instant commentedAt);
+
+    long reconcileCommentCounts(Collection<String> bookIds);
+
+    Optional<Book> findByCommentId(String commentId);
+
+    Optional<BookWithComments> findWithCommentsById(String id);
+
+    Optional<Book> patch(String id, long version, Map<String, Object> fields);
+}
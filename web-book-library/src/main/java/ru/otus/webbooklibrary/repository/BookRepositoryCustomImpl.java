@@ -0,0 +1,168 @@
+package ru.otus.webbooklibrary.repository;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.BookWithComments;
+import ru.otus.webbooklibrary.domain.Comment;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import static org.springframework.data.mongodb.core.query.Update.update;
+
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public BookRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public long updateAuthorName(String authorId, String name) {
+        return UnversionedUpdates.updateMulti(mongoTemplate, query(where("author.id").is(authorId)),
+                update("author.name", name), Book.class).getModifiedCount();
+    }
+
+    @Override
+    public long updateGenreName(String genreId, String name) {
+        return UnversionedUpdates.updateMulti(mongoTemplate, query(where("genre.id").is(genreId)),
+                update("genre.name", name), Book.class).getModifiedCount();
+    }
+
+    @Override
+    public List<String> findIdsByAuthorId(String authorId, int limit) {
+        return findIds(where("author.id").is(authorId), limit);
+    }
+
+    @Override
+    public List<String> findIdsByGenreId(String genreId, int limit) {
+        return findIds(where("genre.id").is(genreId), limit);
+    }
+
+    @Override
+    public List<Book> findProjected(Collection<String> fields, String after, int limit) {
+        final Query query = after == null ? new Query() : query(where("id").gt(after));
+        query.with(Sort.by("id")).limit(limit);
+        query.fields().include("id");
+        fields.forEach(query.fields()::include);
+
+        return mongoTemplate.find(query, Book.class);
+    }
+
+    @Override
+    public List<String> findIdsAfter(String after, int limit) {
+        final Query query = after == null ? new Query() : query(where("id").gt(after));
+        query.with(Sort.by("id")).limit(limit);
+        query.fields().include("id");
+
+        return mongoTemplate.find(query, Book.class).stream().map(Book::getId).collect(Collectors.toList());
+    }
+
+    @Override
+    public long incrementCommentCount(String bookId, long delta, Instant commentedAt) {
+        return UnversionedUpdates.updateFirst(mongoTemplate, commentCountQuery(bookId, delta),
+                commentCountUpdate(delta, commentedAt), Book.class).getModifiedCount();
+    }
+
+    @Override
+    public void incrementCommentCounts(Map<String, Long> deltas, Instant commentedAt) {
+        if (deltas.isEmpty())
+            return;
+
+        final BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class);
+        deltas.forEach((bookId, delta) ->
+                operations.updateOne(commentCountQuery(bookId, delta), commentCountUpdate(delta, commentedAt)));
+        operations.execute();
+    }
+
+    @Override
+    public long reconcileCommentCounts(Collection<String> bookIds) {
+        if (bookIds.isEmpty())
+            return 0;
+
+        final TypedAggregation<Comment> aggregation = newAggregation(Comment.class,
+                match(where("book.id").in(bookIds)),
+                group("book.id").count().as("count").max("id").as("lastCommentId"));
+        final Map<String, Document> counts = mongoTemplate.aggregate(aggregation, Document.class)
+                .getMappedResults().stream()
+                .collect(Collectors.toMap(count -> count.get("_id").toString(), Function.identity()));
+
+        final BulkOperations operations = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class);
+        bookIds.forEach(bookId -> {
+            final Document count = counts.get(bookId);
+            final Update update = count == null
+                    ? new Update().set("commentCount", 0L).unset("lastCommentAt")
+                    : new Update().set("commentCount", ((Number) count.get("count")).longValue())
+                    .set("lastCommentAt", count.get("lastCommentId", ObjectId.class).getDate().toInstant());
+            operations.updateOne(query(where("id").is(bookId)), update);
+        });
+
+        return operations.execute().getModifiedCount();
+    }
+
+    @Override
+    public Optional<Book> findByCommentId(String commentId) {
+        final TypedAggregation<Comment> aggregation = newAggregation(Comment.class,
+                match(where("id").is(commentId)),
+                lookup("books", "book._id", "_id", "book"),
+                unwind("book"),
+                replaceRoot("book"));
+
+        return Optional.ofNullable(mongoTemplate.aggregate(aggregation, Book.class).getUniqueMappedResult());
+    }
+
+    @Override
+    public Optional<BookWithComments> findWithCommentsById(String id) {
+        final TypedAggregation<Book> aggregation = newAggregation(Book.class,
+                match(where("id").is(id)),
+                lookup("comments", "_id", "book._id", "comments"));
+
+        return Optional.ofNullable(mongoTemplate.aggregate(aggregation, BookWithComments.class)
+                .getUniqueMappedResult());
+    }
+
+    private static Query commentCountQuery(String bookId, long delta) {
+        final Criteria criteria = where("id").is(bookId);
+
+        return query(delta < 0 ? criteria.and("commentCount").gte(-delta) : criteria);
+    }
+
+    private static Update commentCountUpdate(long delta, Instant commentedAt) {
+        final Update update = new Update().inc("commentCount", delta);
+
+        return commentedAt == null ? update : update.max("lastCommentAt", commentedAt);
+    }
+
+    private List<String> findIds(Criteria criteria, int limit) {
+        final Query query = query(criteria).limit(limit);
+        query.fields().include("id");
+
+        return mongoTemplate.find(query, Book.class).stream().map(Book::getId).collect(Collectors.toList());
+    }
+
+    @Override
+    public Optional<Book> patch(String id, long version, Map<String, Object> fields) {
+        final Update update = new Update().inc("version", 1);
+        fields.forEach(update::set);
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(query(where("id").is(id).and("version").is(version)),
+                update, FindAndModifyOptions.options().returnNew(true), Book.class));
+    }
+}
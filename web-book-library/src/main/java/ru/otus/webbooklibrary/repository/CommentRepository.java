@@ -1,16 +1,27 @@
 package ru.otus.webbooklibrary.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import ru.otus.webbooklibrary.domain.Comment;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
-public interface CommentRepository extends MongoRepository<Comment, String> {
+public interface CommentRepository extends MongoRepository<Comment, String>, CommentRepositoryCustom {
     List<Comment> findByContent(String content);
 
     List<Comment> findByBook_Title(String bookTitle);
 
     void deleteByContent(String content);
 
-    void deleteByBook_Title(String title);
+    void deleteByBook_Id(String bookId);
+
+    long deleteByBook_IdIn(Collection<String> bookIds);
+
+    List<Comment> findAllBy(Pageable pageable);
+
+    List<Comment> findByIdGreaterThan(String id, Pageable pageable);
+
+    Stream<Comment> streamAllBy();
 }
@@ -0,0 +1,16 @@
+package ru.otus.webbooklibrary.repository;
+
+import ru.otus.webbooklibrary.domain.Comment;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+public interface CommentRepositoryCustom {
+    long updateBookTitle(String bookId, String title);
+
+    List<Comment> findProjected(Collection<String> fields, String after, int limit);
+
+    Optional<Comment> patch(String id, long version, Map<String, Object> fields);
+}
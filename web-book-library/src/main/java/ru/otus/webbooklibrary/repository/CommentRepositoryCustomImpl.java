@@ -0,0 +1,50 @@
+package ru.otus.webbooklibrary.repository;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import ru.otus.webbooklibrary.domain.Comment;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import static org.springframework.data.mongodb.core.query.Update.update;
+
+public class CommentRepositoryCustomImpl implements CommentRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public CommentRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public long updateBookTitle(String bookId, String title) {
+        return UnversionedUpdates.updateMulti(mongoTemplate, query(where("book.id").is(bookId)),
+                update("book.title", title), Comment.class).getModifiedCount();
+    }
+
+    @Override
+    public List<Comment> findProjected(Collection<String> fields, String after, int limit) {
+        final Query query = after == null ? new Query() : query(where("id").gt(after));
+        query.with(Sort.by("id")).limit(limit);
+        query.fields().include("id");
+        fields.forEach(query.fields()::include);
+
+        return mongoTemplate.find(query, Comment.class);
+    }
+
+    @Override
+    public Optional<Comment> patch(String id, long version, Map<String, Object> fields) {
+        final Update update = new Update().inc("version", 1);
+        fields.forEach(update::set);
+
+        return Optional.ofNullable(mongoTemplate.findAndModify(query(where("id").is(id).and("version").is(version)),
+                update, FindAndModifyOptions.options().returnNew(true), Comment.class));
+    }
+}
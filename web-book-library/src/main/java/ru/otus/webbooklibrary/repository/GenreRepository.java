@@ -1,12 +1,63 @@
 package ru.otus.webbooklibrary.repository;
 
+import org.springframework.cache.annotation.CacheConfig;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import ru.otus.webbooklibrary.domain.Genre;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface GenreRepository extends MongoRepository<Genre, String> {
+@CacheConfig(cacheNames = {"genresByName", "allGenres"})
+public interface GenreRepository extends MongoRepository<Genre, String>, GenreRepositoryCustom {
+    @Cacheable("genresByName")
     Optional<Genre> findByName(String name);
 
+    @Cacheable("allGenres")
+    @Override
+    List<Genre> findAll();
+
+    @CacheEvict(allEntries = true)
+    @Override
+    <S extends Genre> S save(S entity);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    <S extends Genre> List<S> saveAll(Iterable<S> entities);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    <S extends Genre> S insert(S entity);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    <S extends Genre> List<S> insert(Iterable<S> entities);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void deleteById(String id);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void delete(Genre entity);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void deleteAll(Iterable<? extends Genre> entities);
+
+    @CacheEvict(allEntries = true)
+    @Override
+    void deleteAll();
+
+    @CacheEvict(allEntries = true)
     void deleteByName(String name);
+
+    List<Genre> findAllBy(Pageable pageable);
+
+    List<Genre> findByIdGreaterThan(String id, Pageable pageable);
+
+    Stream<Genre> streamAllBy();
 }
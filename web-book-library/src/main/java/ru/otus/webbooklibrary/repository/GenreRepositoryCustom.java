@@ -0,0 +1,12 @@
+package ru.otus.webbooklibrary.repository;
+
+import org.springframework.cache.annotation.CacheEvict;
+import ru.otus.webbooklibrary.domain.Genre;
+
+public interface GenreRepositoryCustom {
+    @CacheEvict(cacheNames = {"genresByName", "allGenres"}, allEntries = true)
+    Genre findOrCreateByName(String name);
+
+    @CacheEvict(cacheNames = {"genresByName", "allGenres"}, allEntries = true)
+    long mergeDuplicateNames();
+}
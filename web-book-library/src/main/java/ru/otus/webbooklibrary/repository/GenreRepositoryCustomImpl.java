@@ -0,0 +1,22 @@
+package ru.otus.webbooklibrary.repository;
+
+import org.springframework.data.mongodb.core.MongoTemplate;
+import ru.otus.webbooklibrary.domain.Genre;
+
+public class GenreRepositoryCustomImpl implements GenreRepositoryCustom {
+    private final MongoTemplate mongoTemplate;
+
+    public GenreRepositoryCustomImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Genre findOrCreateByName(String name) {
+        return NamedDocuments.findOrCreateByName(mongoTemplate, name, Genre.class);
+    }
+
+    @Override
+    public long mergeDuplicateNames() {
+        return NamedDocuments.mergeDuplicateNames(mongoTemplate, Genre.class, "genre");
+    }
+}
@@ -0,0 +1,69 @@
+package ru.otus.webbooklibrary.repository;
+
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.Comment;
+
+import java.util.List;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import static org.springframework.data.mongodb.core.query.Update.update;
+
+final class NamedDocuments {
+    private NamedDocuments() {
+    }
+
+    static <T> T findOrCreateByName(MongoTemplate mongoTemplate, String name, Class<T> type) {
+        final Query query = query(where("name").is(name));
+        final Update update = new Update().setOnInsert("name", name);
+        final FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+
+        try {
+            return mongoTemplate.findAndModify(query, update, options, type);
+        } catch (DuplicateKeyException e) {
+            return mongoTemplate.findAndModify(query, update, options, type);
+        }
+    }
+
+    static <T> Mono<T> findOrCreateByName(ReactiveMongoTemplate mongoTemplate, String name, Class<T> type) {
+        final Query query = query(where("name").is(name));
+        final Update update = new Update().setOnInsert("name", name);
+        final FindAndModifyOptions options = FindAndModifyOptions.options().upsert(true).returnNew(true);
+
+        return mongoTemplate.findAndModify(query, update, options, type)
+                .onErrorResume(DuplicateKeyException.class,
+                        e -> mongoTemplate.findAndModify(query, update, options, type));
+    }
+
+    static <T> long mergeDuplicateNames(MongoTemplate mongoTemplate, Class<T> type, String bookField) {
+        final List<Document> duplicates = mongoTemplate.aggregate(newAggregation(type,
+                sort(Sort.Direction.ASC, "id"),
+                group("name").push("id").as("ids"),
+                match(where("ids.1").exists(true))), Document.class).getMappedResults();
+
+        long merged = 0;
+        for (Document duplicate : duplicates) {
+            final List<Object> ids = duplicate.getList("ids", Object.class);
+            final T survivor = mongoTemplate.findById(ids.get(0), type);
+            final List<Object> losers = ids.subList(1, ids.size());
+
+            UnversionedUpdates.updateMulti(mongoTemplate, query(where(bookField + ".id").in(losers)),
+                    update(bookField, survivor), Book.class);
+            UnversionedUpdates.updateMulti(mongoTemplate, query(where("book." + bookField + ".id").in(losers)),
+                    update("book." + bookField, survivor), Comment.class);
+            merged += mongoTemplate.remove(query(where("id").in(losers)), type).getDeletedCount();
+        }
+
+        return merged;
+    }
+}
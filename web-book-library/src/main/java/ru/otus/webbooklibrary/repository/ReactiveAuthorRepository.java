@@ -0,0 +1,17 @@
+package ru.otus.webbooklibrary.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Author;
+
+public interface ReactiveAuthorRepository extends ReactiveMongoRepository<Author, String>, ReactiveAuthorRepositoryCustom {
+    Flux<Author> findByName(String name);
+
+    Mono<Void> deleteByName(String name);
+
+    Flux<Author> findAllBy(Pageable pageable);
+
+    Flux<Author> findByIdGreaterThan(String id, Pageable pageable);
+}
@@ -0,0 +1,8 @@
+package ru.otus.webbooklibrary.repository;
+
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Author;
+
+public interface ReactiveAuthorRepositoryCustom {
+    Mono<Author> findOrCreateByName(String name);
+}
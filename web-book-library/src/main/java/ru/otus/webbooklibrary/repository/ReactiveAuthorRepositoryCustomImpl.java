@@ -0,0 +1,18 @@
+package ru.otus.webbooklibrary.repository;
+
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Author;
+
+public class ReactiveAuthorRepositoryCustomImpl implements ReactiveAuthorRepositoryCustom {
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveAuthorRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Author> findOrCreateByName(String name) {
+        return NamedDocuments.findOrCreateByName(mongoTemplate, name, Author.class);
+    }
+}
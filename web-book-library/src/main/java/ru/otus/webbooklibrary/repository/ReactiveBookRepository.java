@@ -0,0 +1,23 @@
+package ru.otus.webbooklibrary.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Book;
+
+import java.util.Collection;
+
+public interface ReactiveBookRepository extends ReactiveMongoRepository<Book, String>, ReactiveBookRepositoryCustom {
+    Flux<Book> findByTitle(String title);
+
+    Flux<Book> findByAuthor_Name(String author);
+
+    Flux<Book> findByGenre_Name(String genre);
+
+    Mono<Long> deleteByIdIn(Collection<String> ids);
+
+    Flux<Book> findAllBy(Pageable pageable);
+
+    Flux<Book> findByIdGreaterThan(String id, Pageable pageable);
+}
@@ -0,0 +1,28 @@
+package ru.otus.webbooklibrary.repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.BookWithComments;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+public interface ReactiveBookRepositoryCustom {
+    Mono<Long> updateAuthorName(String authorId, String name);
+
+    Mono<Long> updateGenreName(String genreId, String name);
+
+    Flux<String> findIdsByAuthorId(String authorId);
+
+    Flux<String> findIdsByGenreId(String genreId);
+
+    Mono<Long> incrementCommentCount(String bookId, long delta, Instant commentedAt);
+
+    Flux<Book> findProjected(Collection<String> fields, String after, int limit);
+
+    Mono<BookWithComments> findWithCommentsById(String id);
+
+    Mono<Book> patch(String id, long version, Map<String, Object> fields);
+}
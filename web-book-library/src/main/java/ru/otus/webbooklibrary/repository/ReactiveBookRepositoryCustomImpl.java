@@ -0,0 +1,99 @@
+package ru.otus.webbooklibrary.repository;
+
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.BookWithComments;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.aggregation.Aggregation.*;
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import static org.springframework.data.mongodb.core.query.Update.update;
+
+public class ReactiveBookRepositoryCustomImpl implements ReactiveBookRepositoryCustom {
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveBookRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Long> updateAuthorName(String authorId, String name) {
+        return UnversionedUpdates.updateMulti(mongoTemplate, query(where("author.id").is(authorId)),
+                update("author.name", name), Book.class).map(UpdateResult::getModifiedCount);
+    }
+
+    @Override
+    public Mono<Long> updateGenreName(String genreId, String name) {
+        return UnversionedUpdates.updateMulti(mongoTemplate, query(where("genre.id").is(genreId)),
+                update("genre.name", name), Book.class).map(UpdateResult::getModifiedCount);
+    }
+
+    @Override
+    public Flux<String> findIdsByAuthorId(String authorId) {
+        return findIds(where("author.id").is(authorId));
+    }
+
+    @Override
+    public Flux<String> findIdsByGenreId(String genreId) {
+        return findIds(where("genre.id").is(genreId));
+    }
+
+    @Override
+    public Mono<Long> incrementCommentCount(String bookId, long delta, Instant commentedAt) {
+        final Criteria criteria = where("id").is(bookId);
+        final Update update = new Update().inc("commentCount", delta);
+        if (commentedAt != null)
+            update.max("lastCommentAt", commentedAt);
+
+        return UnversionedUpdates.updateFirst(mongoTemplate,
+                query(delta < 0 ? criteria.and("commentCount").gte(-delta) : criteria), update, Book.class).map(UpdateResult::getModifiedCount);
+    }
+
+    @Override
+    public Flux<Book> findProjected(Collection<String> fields, String after, int limit) {
+        final Query query = after == null ? new Query() : query(where("id").gt(after));
+        query.with(Sort.by("id")).limit(limit);
+        query.fields().include("id");
+        fields.forEach(query.fields()::include);
+
+        return mongoTemplate.find(query, Book.class);
+    }
+
+    @Override
+    public Mono<BookWithComments> findWithCommentsById(String id) {
+        final TypedAggregation<Book> aggregation = newAggregation(Book.class,
+                match(where("id").is(id)),
+                lookup("comments", "_id", "book._id", "comments"));
+
+        return mongoTemplate.aggregate(aggregation, BookWithComments.class).singleOrEmpty();
+    }
+
+    @Override
+    public Mono<Book> patch(String id, long version, Map<String, Object> fields) {
+        final Update update = new Update().inc("version", 1);
+        fields.forEach(update::set);
+
+        return mongoTemplate.findAndModify(query(where("id").is(id).and("version").is(version)),
+                update, FindAndModifyOptions.options().returnNew(true), Book.class);
+    }
+
+    private Flux<String> findIds(Criteria criteria) {
+        final Query query = query(criteria);
+        query.fields().include("id");
+
+        return mongoTemplate.find(query, Book.class).map(Book::getId);
+    }
+}
@@ -0,0 +1,26 @@
+package ru.otus.webbooklibrary.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Comment;
+
+import java.util.Collection;
+
+public interface ReactiveCommentRepository extends ReactiveMongoRepository<Comment, String>,
+        ReactiveCommentRepositoryCustom {
+    Flux<Comment> findByContent(String content);
+
+    Flux<Comment> findByBook_Title(String bookTitle);
+
+    Mono<Void> deleteByContent(String content);
+
+    Mono<Void> deleteByBook_Id(String bookId);
+
+    Mono<Long> deleteByBook_IdIn(Collection<String> bookIds);
+
+    Flux<Comment> findAllBy(Pageable pageable);
+
+    Flux<Comment> findByIdGreaterThan(String id, Pageable pageable);
+}
@@ -0,0 +1,16 @@
+package ru.otus.webbooklibrary.repository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Comment;
+
+import java.util.Collection;
+import java.util.Map;
+
+public interface ReactiveCommentRepositoryCustom {
+    Mono<Long> updateBookTitle(String bookId, String title);
+
+    Flux<Comment> findProjected(Collection<String> fields, String after, int limit);
+
+    Mono<Comment> patch(String id, long version, Map<String, Object> fields);
+}
@@ -0,0 +1,51 @@
+package ru.otus.webbooklibrary.repository;
+
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Comment;
+
+import java.util.Collection;
+import java.util.Map;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+import static org.springframework.data.mongodb.core.query.Update.update;
+
+public class ReactiveCommentRepositoryCustomImpl implements ReactiveCommentRepositoryCustom {
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveCommentRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Long> updateBookTitle(String bookId, String title) {
+        return UnversionedUpdates.updateMulti(mongoTemplate, query(where("book.id").is(bookId)),
+                update("book.title", title), Comment.class).map(UpdateResult::getModifiedCount);
+    }
+
+    @Override
+    public Flux<Comment> findProjected(Collection<String> fields, String after, int limit) {
+        final Query query = after == null ? new Query() : query(where("id").gt(after));
+        query.with(Sort.by("id")).limit(limit);
+        query.fields().include("id");
+        fields.forEach(query.fields()::include);
+
+        return mongoTemplate.find(query, Comment.class);
+    }
+
+    @Override
+    public Mono<Comment> patch(String id, long version, Map<String, Object> fields) {
+        final Update update = new Update().inc("version", 1);
+        fields.forEach(update::set);
+
+        return mongoTemplate.findAndModify(query(where("id").is(id).and("version").is(version)),
+                update, FindAndModifyOptions.options().returnNew(true), Comment.class);
+    }
+}
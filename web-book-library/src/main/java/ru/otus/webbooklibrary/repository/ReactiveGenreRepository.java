@@ -0,0 +1,17 @@
+package ru.otus.webbooklibrary.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Genre;
+
+public interface ReactiveGenreRepository extends ReactiveMongoRepository<Genre, String>, ReactiveGenreRepositoryCustom {
+    Mono<Genre> findByName(String name);
+
+    Mono<Void> deleteByName(String name);
+
+    Flux<Genre> findAllBy(Pageable pageable);
+
+    Flux<Genre> findByIdGreaterThan(String id, Pageable pageable);
+}
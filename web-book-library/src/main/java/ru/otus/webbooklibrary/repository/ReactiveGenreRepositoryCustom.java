@@ -0,0 +1,8 @@
+package ru.otus.webbooklibrary.repository;
+
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Genre;
+
+public interface ReactiveGenreRepositoryCustom {
+    Mono<Genre> findOrCreateByName(String name);
+}
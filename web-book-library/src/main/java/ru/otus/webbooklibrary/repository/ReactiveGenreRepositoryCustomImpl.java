@@ -0,0 +1,18 @@
+package ru.otus.webbooklibrary.repository;
+
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Genre;
+
+public class ReactiveGenreRepositoryCustomImpl implements ReactiveGenreRepositoryCustom {
+    private final ReactiveMongoTemplate mongoTemplate;
+
+    public ReactiveGenreRepositoryCustomImpl(ReactiveMongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public Mono<Genre> findOrCreateByName(String name) {
+        return NamedDocuments.findOrCreateByName(mongoTemplate, name, Genre.class);
+    }
+}
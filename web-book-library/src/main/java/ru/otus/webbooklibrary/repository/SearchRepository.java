@@ -0,0 +1,13 @@
+package ru.otus.webbooklibrary.repository;
+
+import ru.otus.webbooklibrary.domain.SearchHit;
+
+import java.util.List;
+
+public interface SearchRepository {
+    List<SearchHit> searchBooks(String text, int limit);
+
+    List<SearchHit> searchAuthors(String text, int limit);
+
+    List<SearchHit> searchComments(String text, int limit);
+}
@@ -0,0 +1,66 @@
+package ru.otus.webbooklibrary.repository;
+
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.stereotype.Repository;
+import ru.otus.webbooklibrary.domain.SearchHit;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Repository
+public class SearchRepositoryImpl implements SearchRepository {
+    private final MongoTemplate mongoTemplate;
+
+    public SearchRepositoryImpl(MongoTemplate mongoTemplate) {
+        this.mongoTemplate = mongoTemplate;
+    }
+
+    @Override
+    public List<SearchHit> searchBooks(String text, int limit) {
+        return search("books", text, limit, document -> new SearchHit("book", id(document),
+                document.getString("title"), embedded(document, "author", "name"), score(document)),
+                "title", "author.name");
+    }
+
+    @Override
+    public List<SearchHit> searchAuthors(String text, int limit) {
+        return search("authors", text, limit, document -> new SearchHit("author", id(document),
+                document.getString("name"), null, score(document)), "name");
+    }
+
+    @Override
+    public List<SearchHit> searchComments(String text, int limit) {
+        return search("comments", text, limit, document -> new SearchHit("comment", id(document),
+                document.getString("content"), embedded(document, "book", "title"), score(document)),
+                "content", "book.title");
+    }
+
+    private List<SearchHit> search(String collection, String text, int limit, Function<Document, SearchHit> mapper,
+                                   String... fields) {
+        final TextQuery query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text))
+                .sortByScore();
+        query.limit(limit);
+        for (String field : fields)
+            query.fields().include(field);
+
+        return mongoTemplate.find(query, Document.class, collection).stream().map(mapper)
+                .collect(Collectors.toList());
+    }
+
+    private static String id(Document document) {
+        return document.get("_id").toString();
+    }
+
+    private static String embedded(Document document, String key, String field) {
+        final Document embedded = document.get(key, Document.class);
+        return embedded == null ? null : embedded.getString(field);
+    }
+
+    private static double score(Document document) {
+        return document.get("score", Number.class).doubleValue();
+    }
+}
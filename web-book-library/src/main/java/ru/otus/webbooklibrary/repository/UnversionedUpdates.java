@@ -0,0 +1,63 @@
+package ru.otus.webbooklibrary.repository;
+
+import com.mongodb.client.result.UpdateResult;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.convert.UpdateMapper;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.BasicQuery;
+import org.springframework.data.mongodb.core.query.BasicUpdate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+
+final class UnversionedUpdates {
+    private UnversionedUpdates() {
+    }
+
+    static UpdateResult updateFirst(MongoTemplate mongoTemplate, Query query, Update update, Class<?> type) {
+        final MongoConverter converter = mongoTemplate.getConverter();
+
+        return mongoTemplate.updateFirst(mapQuery(converter, query, type), mapUpdate(converter, update, type),
+                mongoTemplate.getCollectionName(type));
+    }
+
+    static UpdateResult updateMulti(MongoTemplate mongoTemplate, Query query, Update update, Class<?> type) {
+        final MongoConverter converter = mongoTemplate.getConverter();
+
+        return mongoTemplate.updateMulti(mapQuery(converter, query, type), mapUpdate(converter, update, type),
+                mongoTemplate.getCollectionName(type));
+    }
+
+    static Mono<UpdateResult> updateFirst(ReactiveMongoTemplate mongoTemplate, Query query, Update update,
+                                          Class<?> type) {
+        final MongoConverter converter = mongoTemplate.getConverter();
+
+        return mongoTemplate.updateFirst(mapQuery(converter, query, type), mapUpdate(converter, update, type),
+                mongoTemplate.getCollectionName(type));
+    }
+
+    static Mono<UpdateResult> updateMulti(ReactiveMongoTemplate mongoTemplate, Query query, Update update,
+                                          Class<?> type) {
+        final MongoConverter converter = mongoTemplate.getConverter();
+
+        return mongoTemplate.updateMulti(mapQuery(converter, query, type), mapUpdate(converter, update, type),
+                mongoTemplate.getCollectionName(type));
+    }
+
+    private static Query mapQuery(MongoConverter converter, Query query, Class<?> type) {
+        return new BasicQuery(new QueryMapper(converter).getMappedObject(query.getQueryObject(),
+                persistentEntity(converter, type)));
+    }
+
+    private static Update mapUpdate(MongoConverter converter, Update update, Class<?> type) {
+        return new BasicUpdate(new UpdateMapper(converter).getMappedObject(update.getUpdateObject(),
+                persistentEntity(converter, type)));
+    }
+
+    private static MongoPersistentEntity<?> persistentEntity(MongoConverter converter, Class<?> type) {
+        return converter.getMappingContext().getRequiredPersistentEntity(type);
+    }
+}
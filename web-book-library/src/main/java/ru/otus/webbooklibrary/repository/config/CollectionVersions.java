@@ -0,0 +1,84 @@
+package ru.otus.webbooklibrary.repository.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonValue;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+public class CollectionVersions implements CommandListener {
+    private static final Set<String> WRITE_COMMANDS = Set.of("insert", "update", "delete", "findAndModify",
+            "findandmodify", "drop", "create");
+
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final long startedAt = System.currentTimeMillis();
+    private final Map<String, Version> versions = new ConcurrentHashMap<>();
+    private final Map<Integer, String> pendingWrites = new ConcurrentHashMap<>();
+
+    public String etag(Collection<String> collections) {
+        return collections.stream()
+                .map(collection -> Long.toString(version(collection).counter))
+                .collect(Collectors.joining(".", "W/\"" + epoch + "-", "\""));
+    }
+
+    public long lastModified(Collection<String> collections) {
+        return collections.stream().mapToLong(collection -> version(collection).modifiedAt).max().orElse(startedAt);
+    }
+
+    public void changed(String collection) {
+        versions.compute(collection, (name, version) ->
+                new Version(version == null ? 1 : version.counter + 1, System.currentTimeMillis()));
+    }
+
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if ("dropDatabase".equals(event.getCommandName())) {
+            versions.keySet().forEach(this::changed);
+            return;
+        }
+        if (!WRITE_COMMANDS.contains(event.getCommandName()))
+            return;
+
+        final BsonValue collection = event.getCommand().get(event.getCommandName());
+        if (collection != null && collection.isString())
+            pendingWrites.put(event.getRequestId(), collection.asString().getValue());
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        completed(event.getRequestId());
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        completed(event.getRequestId());
+    }
+
+    private void completed(int requestId) {
+        final String collection = pendingWrites.remove(requestId);
+
+        if (collection != null)
+            changed(collection);
+    }
+
+    private Version version(String collection) {
+        return versions.getOrDefault(collection, new Version(0, startedAt));
+    }
+
+    private static final class Version {
+        private final long counter;
+        private final long modifiedAt;
+
+        private Version(long counter, long modifiedAt) {
+            this.counter = counter;
+            this.modifiedAt = modifiedAt;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package ru.otus.webbooklibrary.repository.config;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition.TextIndexDefinitionBuilder;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.Comment;
+import ru.otus.webbooklibrary.domain.Genre;
+
+import java.util.List;
+import java.util.Map;
+
+public final class LibraryIndexes {
+    public static final Map<Class<?>, List<IndexDefinition>> DEFINITIONS = Map.of(
+            Author.class, List.of(
+                    new Index("name", Sort.Direction.ASC).unique(),
+                    new TextIndexDefinitionBuilder().onField("name").build()),
+            Genre.class, List.of(
+                    new Index("name", Sort.Direction.ASC).unique()),
+            Book.class, List.of(
+                    new Index().on("title", Sort.Direction.ASC).on("author.name", Sort.Direction.ASC),
+                    new Index("author.name", Sort.Direction.ASC),
+                    new Index("genre.name", Sort.Direction.ASC),
+                    new Index("author._id", Sort.Direction.ASC),
+                    new Index("genre._id", Sort.Direction.ASC),
+                    new TextIndexDefinitionBuilder().onField("title", 3F).onField("author.name")
+                            .onField("genre.name").build()),
+            Comment.class, List.of(
+                    new Index("content", Sort.Direction.ASC),
+                    new Index("book.title", Sort.Direction.ASC),
+                    new Index("book._id", Sort.Direction.ASC),
+                    new TextIndexDefinitionBuilder().onField("content").build()));
+
+    private LibraryIndexes() {
+    }
+}
@@ -0,0 +1,40 @@
+package ru.otus.webbooklibrary.repository.config;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.reactivestreams.client.MongoClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.boot.autoconfigure.mongo.MongoProperties;
+import org.springframework.boot.autoconfigure.mongo.ReactiveMongoClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.SimpleReactiveMongoDatabaseFactory;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+
+import java.util.stream.Collectors;
+
+@Profile("reactive")
+@Configuration
+@EnableMongoRepositories(basePackages = "ru.otus.webbooklibrary.repository")
+@EnableReactiveMongoRepositories(basePackages = "ru.otus.webbooklibrary.repository")
+public class ReactiveMongoConfig {
+    @Bean(destroyMethod = "close")
+    public MongoClient reactiveMongoClient(MongoProperties properties, Environment environment,
+                                           ObjectProvider<MongoClientSettingsBuilderCustomizer> customizers) {
+        return new ReactiveMongoClientFactory(properties, environment,
+                customizers.orderedStream().collect(Collectors.toList()))
+                .createMongoClient(MongoClientSettings.builder().build());
+    }
+
+    @Bean
+    public ReactiveMongoTemplate reactiveMongoTemplate(MongoClient reactiveMongoClient, MongoProperties properties,
+                                                       MongoConverter mongoConverter) {
+        return new ReactiveMongoTemplate(new SimpleReactiveMongoDatabaseFactory(reactiveMongoClient,
+                properties.getMongoClientDatabase()), mongoConverter);
+    }
+}
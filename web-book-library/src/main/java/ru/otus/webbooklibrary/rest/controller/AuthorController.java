@@ -1,22 +1,29 @@
 package ru.otus.webbooklibrary.rest.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.otus.webbooklibrary.domain.Author;
 import ru.otus.webbooklibrary.rest.dto.AuthorRequest;
+import ru.otus.webbooklibrary.rest.dto.PageResponse;
 import ru.otus.webbooklibrary.service.AuthorService;
 
 import java.util.List;
 
+@Profile("!reactive")
 @RestController
 public class AuthorController {
     private final AuthorService authorService;
+    private final ObjectMapper objectMapper;
 
-    public AuthorController(AuthorService authorService) {
+    public AuthorController(AuthorService authorService, ObjectMapper objectMapper) {
         this.authorService = authorService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping(value = "/api/authors",
@@ -41,6 +48,24 @@ public class AuthorController {
         return ResponseEntity.status(HttpStatus.OK).body(authorService.getAll());
     }
 
+    @GetMapping(value = "/api/authors", params = "ids")
+    public ResponseEntity<List<Author>> getByIds(@RequestParam String ids) {
+        return ResponseEntity.status(HttpStatus.OK).body(authorService.getAuthorsByIds(Ids.parse(ids)));
+    }
+
+    @GetMapping(value = "/api/authors", params = {"limit", "!ids"})
+    public ResponseEntity<PageResponse<Author>> getPage(@RequestParam int limit,
+                                                        @RequestParam(required = false) String after) {
+        final int pageLimit = Pagination.limit(limit);
+        final List<Author> authors = authorService.getPage(Pagination.after(after), pageLimit);
+        return ResponseEntity.status(HttpStatus.OK).body(Pagination.page(authors, pageLimit, Author::getId));
+    }
+
+    @GetMapping(value = "/api/authors/stream", produces = NdJson.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        return NdJson.stream(authorService::getAllAsStream, objectMapper);
+    }
+
     @PutMapping(value = "/api/authors",
             consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<String> edit(@Validated @RequestBody AuthorRequest authorRequest) {
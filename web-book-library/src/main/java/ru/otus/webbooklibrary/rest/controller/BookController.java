@@ -1,22 +1,34 @@
 package ru.otus.webbooklibrary.rest.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.BookWithComments;
 import ru.otus.webbooklibrary.rest.dto.BookRequest;
+import ru.otus.webbooklibrary.rest.dto.BookSummary;
+import ru.otus.webbooklibrary.rest.dto.PageResponse;
 import ru.otus.webbooklibrary.service.BookService;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+@Profile("!reactive")
 @RestController
 public class BookController {
     private final BookService bookService;
+    private final ObjectMapper objectMapper;
 
-    public BookController(BookService bookService) {
+    public BookController(BookService bookService, ObjectMapper objectMapper) {
         this.bookService = bookService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping(value = "/api/books",
@@ -31,6 +43,16 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.OK).body(bookService.getBookById(id));
     }
 
+    @GetMapping("/api/books/id/comments")
+    public ResponseEntity<BookWithComments> getBookWithComments(@RequestParam String id) {
+        return ResponseEntity.status(HttpStatus.OK).body(bookService.getBookWithComments(id));
+    }
+
+    @GetMapping("/api/books/comment")
+    public ResponseEntity<Book> getBookByComment(@RequestParam String comment) {
+        return ResponseEntity.status(HttpStatus.OK).body(bookService.getBookByComment(comment));
+    }
+
     @GetMapping("/api/books/title/{title}")
     public ResponseEntity<List<Book>> getBookByTitle(@PathVariable String title) {
         return ResponseEntity.status(HttpStatus.OK).body(bookService.getBookByTitle(title));
@@ -51,6 +73,45 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.OK).body(bookService.getAll());
     }
 
+    @GetMapping(value = "/api/books", params = "ids")
+    public ResponseEntity<List<Book>> getByIds(@RequestParam String ids) {
+        return ResponseEntity.status(HttpStatus.OK).body(bookService.getBooksByIds(Ids.parse(ids)));
+    }
+
+    @GetMapping(value = "/api/books", params = {"limit", "!ids"})
+    public ResponseEntity<PageResponse<Book>> getPage(@RequestParam int limit,
+                                                      @RequestParam(required = false) String after) {
+        final int pageLimit = Pagination.limit(limit);
+        final List<Book> books = bookService.getPage(Pagination.after(after), pageLimit);
+        return ResponseEntity.status(HttpStatus.OK).body(Pagination.page(books, pageLimit, Book::getId));
+    }
+
+    @GetMapping(value = "/api/books", params = {"fields", "!ids"})
+    public ResponseEntity<List<BookSummary>> getSummaries(@RequestParam String fields) {
+        final Set<String> summaryFields = Fields.parse(fields, BookSummary.FIELDS);
+        final List<Book> books = bookService.getProjection(Fields.paths(summaryFields, BookSummary.FIELDS), null,
+                Pagination.MAX_LIMIT);
+        return ResponseEntity.status(HttpStatus.OK).body(books.stream()
+                .map(book -> BookSummary.of(book, summaryFields)).collect(Collectors.toList()));
+    }
+
+    @GetMapping(value = "/api/books", params = {"fields", "limit", "!ids"})
+    public ResponseEntity<PageResponse<BookSummary>> getSummaryPage(@RequestParam String fields,
+                                                                    @RequestParam int limit,
+                                                                    @RequestParam(required = false) String after) {
+        final Set<String> summaryFields = Fields.parse(fields, BookSummary.FIELDS);
+        final int pageLimit = Pagination.limit(limit);
+        final List<BookSummary> books = bookService.getProjection(Fields.paths(summaryFields, BookSummary.FIELDS),
+                Pagination.after(after), pageLimit).stream()
+                .map(book -> BookSummary.of(book, summaryFields)).collect(Collectors.toList());
+        return ResponseEntity.status(HttpStatus.OK).body(Pagination.page(books, pageLimit, BookSummary::getId));
+    }
+
+    @GetMapping(value = "/api/books/stream", produces = NdJson.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        return NdJson.stream(bookService::getAllAsStream, objectMapper);
+    }
+
     @PutMapping(value = "/api/books",
             consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Object> edit(@Validated @RequestBody BookRequest bookRequest) {
@@ -59,6 +120,20 @@ public class BookController {
         return ResponseEntity.status(HttpStatus.OK).build();
     }
 
+    @PatchMapping(value = "/api/books",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Book> patch(@Validated @RequestBody BookRequest bookRequest) {
+        if (bookRequest.getId() == null || bookRequest.getVersion() == null)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Id and version are required");
+        if (bookRequest.getTitle() == null && bookRequest.getAuthorName() == null
+                && bookRequest.getGenreName() == null)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nothing to update");
+
+        return ResponseEntity.status(HttpStatus.OK).body(bookService.patchBook(bookRequest.getId(),
+                bookRequest.getVersion(), bookRequest.getTitle(), bookRequest.getAuthorName(),
+                bookRequest.getGenreName()));
+    }
+
     @DeleteMapping(value = "/api/books",
             consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Object> deleteByTitle(@Validated @RequestBody BookRequest bookRequest) {
@@ -0,0 +1,55 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+import ru.otus.webbooklibrary.rest.dto.BookRequest;
+import ru.otus.webbooklibrary.service.BookImportReport;
+import ru.otus.webbooklibrary.service.BookImportService;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+public class BookImportController {
+    static final String TEXT_CSV_VALUE = "text/csv";
+
+    private final BookImportService bookImportService;
+    private final ObjectReader jsonReader;
+    private final ObjectReader csvReader;
+
+    public BookImportController(BookImportService bookImportService, ObjectMapper objectMapper) {
+        this.bookImportService = bookImportService;
+        this.jsonReader = objectMapper.readerFor(BookRequest.class);
+        this.csvReader = new CsvMapper()
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .readerFor(BookRequest.class)
+                .with(CsvSchema.emptySchema().withHeader());
+    }
+
+    @PostMapping(value = "/api/books/import",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, NdJson.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<BookImportReport> importJson(InputStream body) throws IOException {
+        return importRows(jsonReader.readValues(body));
+    }
+
+    @PostMapping(value = "/api/books/import",
+            consumes = TEXT_CSV_VALUE)
+    public ResponseEntity<BookImportReport> importCsv(InputStream body) throws IOException {
+        return importRows(csvReader.readValues(body));
+    }
+
+    private ResponseEntity<BookImportReport> importRows(MappingIterator<BookRequest> requests) throws IOException {
+        try (requests) {
+            return ResponseEntity.status(HttpStatus.OK).body(bookImportService.importBooks(new ImportRows(requests)));
+        }
+    }
+}
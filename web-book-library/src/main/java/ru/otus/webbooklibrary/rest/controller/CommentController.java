@@ -1,22 +1,33 @@
 package ru.otus.webbooklibrary.rest.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.otus.webbooklibrary.domain.Comment;
 import ru.otus.webbooklibrary.rest.dto.CommentRequest;
+import ru.otus.webbooklibrary.rest.dto.CommentSummary;
+import ru.otus.webbooklibrary.rest.dto.PageResponse;
 import ru.otus.webbooklibrary.service.CommentService;
 
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
+@Profile("!reactive")
 @RestController
 public class CommentController {
     private final CommentService commentService;
+    private final ObjectMapper objectMapper;
 
-    public CommentController(CommentService commentService) {
+    public CommentController(CommentService commentService, ObjectMapper objectMapper) {
         this.commentService = commentService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping(value = "/api/comments",
@@ -46,6 +57,46 @@ public class CommentController {
         return ResponseEntity.status(HttpStatus.OK).body(commentService.getAll());
     }
 
+    @GetMapping(value = "/api/comments", params = "ids")
+    public ResponseEntity<List<Comment>> getByIds(@RequestParam String ids) {
+        return ResponseEntity.status(HttpStatus.OK).body(commentService.getCommentsByIds(Ids.parse(ids)));
+    }
+
+    @GetMapping(value = "/api/comments", params = {"limit", "!ids"})
+    public ResponseEntity<PageResponse<Comment>> getPage(@RequestParam int limit,
+                                                         @RequestParam(required = false) String after) {
+        final int pageLimit = Pagination.limit(limit);
+        final List<Comment> comments = commentService.getPage(Pagination.after(after), pageLimit);
+        return ResponseEntity.status(HttpStatus.OK).body(Pagination.page(comments, pageLimit, Comment::getId));
+    }
+
+    @GetMapping(value = "/api/comments", params = {"fields", "!ids"})
+    public ResponseEntity<List<CommentSummary>> getSummaries(@RequestParam String fields) {
+        final Set<String> summaryFields = Fields.parse(fields, CommentSummary.FIELDS);
+        final List<Comment> comments = commentService.getProjection(
+                Fields.paths(summaryFields, CommentSummary.FIELDS), null, Pagination.MAX_LIMIT);
+        return ResponseEntity.status(HttpStatus.OK).body(comments.stream()
+                .map(comment -> CommentSummary.of(comment, summaryFields)).collect(Collectors.toList()));
+    }
+
+    @GetMapping(value = "/api/comments", params = {"fields", "limit", "!ids"})
+    public ResponseEntity<PageResponse<CommentSummary>> getSummaryPage(@RequestParam String fields,
+                                                                       @RequestParam int limit,
+                                                                       @RequestParam(required = false) String after) {
+        final Set<String> summaryFields = Fields.parse(fields, CommentSummary.FIELDS);
+        final int pageLimit = Pagination.limit(limit);
+        final List<CommentSummary> comments = commentService.getProjection(
+                Fields.paths(summaryFields, CommentSummary.FIELDS), Pagination.after(after), pageLimit).stream()
+                .map(comment -> CommentSummary.of(comment, summaryFields)).collect(Collectors.toList());
+        return ResponseEntity.status(HttpStatus.OK).body(Pagination.page(comments, pageLimit,
+                CommentSummary::getId));
+    }
+
+    @GetMapping(value = "/api/comments/stream", produces = NdJson.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        return NdJson.stream(commentService::getAllAsStream, objectMapper);
+    }
+
     @PutMapping(value = "/api/comments",
             consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<String> edit(@Validated @RequestBody CommentRequest commentRequest) {
@@ -53,6 +104,18 @@ public class CommentController {
                 (commentRequest.getId(), commentRequest.getContent()));
     }
 
+    @PatchMapping(value = "/api/comments",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Comment> patch(@Validated @RequestBody CommentRequest commentRequest) {
+        if (commentRequest.getId() == null || commentRequest.getVersion() == null)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Id and version are required");
+        if (commentRequest.getContent() == null)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nothing to update");
+
+        return ResponseEntity.status(HttpStatus.OK).body(commentService.patchComment(commentRequest.getId(),
+                commentRequest.getVersion(), commentRequest.getContent()));
+    }
+
     @DeleteMapping(value = "/api/comments",
             consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<String> deleteByContent(@Validated @RequestBody CommentRequest commentRequest) {
@@ -0,0 +1,42 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+import ru.otus.webbooklibrary.service.StaleResultCache;
+
+import javax.servlet.http.HttpServletRequest;
+
+@ControllerAdvice
+public class ConditionalGetAdvice implements ResponseBodyAdvice<Object> {
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest) || !(response instanceof ServletServerHttpResponse))
+            return body;
+
+        final HttpServletRequest servletRequest = ((ServletServerHttpRequest) request).getServletRequest();
+        final Object etag = servletRequest.getAttribute(ConditionalGetInterceptor.ETAG_ATTRIBUTE);
+        if (etag == null || servletRequest.getAttribute(StaleResultCache.DEGRADED_ATTRIBUTE) != null
+                || ((ServletServerHttpResponse) response).getServletResponse().getStatus() != HttpStatus.OK.value())
+            return body;
+
+        response.getHeaders().setETag((String) etag);
+        response.getHeaders().setLastModified(
+                (Long) servletRequest.getAttribute(ConditionalGetInterceptor.LAST_MODIFIED_ATTRIBUTE));
+        return body;
+    }
+}
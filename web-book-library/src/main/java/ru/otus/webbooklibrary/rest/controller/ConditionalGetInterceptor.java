@@ -0,0 +1,69 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import ru.otus.webbooklibrary.repository.config.CollectionVersions;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+    static final String ETAG_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".ETAG";
+    static final String LAST_MODIFIED_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".LAST_MODIFIED";
+
+    private static final Map<String, List<String>> COLLECTIONS_BY_PATH = new LinkedHashMap<>();
+
+    static {
+        COLLECTIONS_BY_PATH.put("/api/books", List.of("books", "comments"));
+        COLLECTIONS_BY_PATH.put("/api/authors", List.of("authors"));
+        COLLECTIONS_BY_PATH.put("/api/genres", List.of("genres"));
+        COLLECTIONS_BY_PATH.put("/api/comments", List.of("comments"));
+        COLLECTIONS_BY_PATH.put("/api/search", List.of("books", "authors", "comments"));
+    }
+
+    private final CollectionVersions collectionVersions;
+
+    public ConditionalGetInterceptor(CollectionVersions collectionVersions) {
+        this.collectionVersions = collectionVersions;
+    }
+
+    public static String[] paths() {
+        return COLLECTIONS_BY_PATH.keySet().stream()
+                .flatMap(path -> List.of(path, path + "/**").stream())
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!"GET".equals(request.getMethod()) && !"HEAD".equals(request.getMethod()))
+            return true;
+
+        final List<String> collections = collections(request.getRequestURI().substring(
+                request.getContextPath().length()));
+        if (collections == null)
+            return true;
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        final String etag = collectionVersions.etag(collections);
+        final long lastModified = collectionVersions.lastModified(collections);
+        if (new ServletWebRequest(request).checkNotModified(etag, lastModified))
+            return !new ServletWebRequest(request, response).checkNotModified(etag, lastModified);
+
+        request.setAttribute(ETAG_ATTRIBUTE, etag);
+        request.setAttribute(LAST_MODIFIED_ATTRIBUTE, lastModified);
+        return true;
+    }
+
+    private static List<String> collections(String path) {
+        return COLLECTIONS_BY_PATH.entrySet().stream()
+                .filter(entry -> path.equals(entry.getKey()) || path.startsWith(entry.getKey() + "/"))
+                .map(Map.Entry::getValue)
+                .findFirst().orElse(null);
+    }
+}
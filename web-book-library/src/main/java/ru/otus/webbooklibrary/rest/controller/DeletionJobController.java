@@ -0,0 +1,52 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import ru.otus.webbooklibrary.rest.dto.AuthorRequest;
+import ru.otus.webbooklibrary.rest.dto.GenreRequest;
+import ru.otus.webbooklibrary.service.DeletionJob;
+import ru.otus.webbooklibrary.service.DeletionJobService;
+
+import java.net.URI;
+
+@Profile("!reactive")
+@RestController
+public class DeletionJobController {
+    private final DeletionJobService deletionJobService;
+
+    public DeletionJobController(DeletionJobService deletionJobService) {
+        this.deletionJobService = deletionJobService;
+    }
+
+    @DeleteMapping(value = "/api/authors", params = "async=true",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DeletionJob> deleteAuthor(@Validated @RequestBody AuthorRequest authorRequest) {
+        return submitted(deletionJobService.deleteAuthor(authorRequest.getId()));
+    }
+
+    @DeleteMapping(value = "/api/genres", params = "async=true",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<DeletionJob> deleteGenre(@Validated @RequestBody GenreRequest genreRequest) {
+        return submitted(deletionJobService.deleteGenre(genreRequest.getId()));
+    }
+
+    @GetMapping("/api/deletions/{id}")
+    public ResponseEntity<DeletionJob> getJob(@PathVariable String id) {
+        return deletionJobService.getJob(id)
+                .map(job -> ResponseEntity.status(HttpStatus.OK).body(job))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).build());
+    }
+
+    private ResponseEntity<DeletionJob> submitted(DeletionJob job) {
+        if (job.getStatus() == DeletionJob.Status.REJECTED)
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(job);
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/deletions/" + job.getId()))
+                .body(job);
+    }
+}
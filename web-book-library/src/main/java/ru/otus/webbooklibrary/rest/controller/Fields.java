@@ -0,0 +1,34 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+final class Fields {
+    private Fields() {
+    }
+
+    static Set<String> parse(String fields, Map<String, String> allowed) {
+        if (fields.isBlank())
+            return allowed.keySet();
+
+        final Set<String> requested = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(field -> !field.isEmpty() && !"id".equals(field))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        if (!allowed.keySet().containsAll(requested))
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Incorrect fields");
+
+        return requested;
+    }
+
+    static Set<String> paths(Set<String> fields, Map<String, String> allowed) {
+        return fields.stream().map(allowed::get).collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+}
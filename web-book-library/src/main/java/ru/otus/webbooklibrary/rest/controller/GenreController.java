@@ -1,22 +1,29 @@
 package ru.otus.webbooklibrary.rest.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.otus.webbooklibrary.domain.Genre;
 import ru.otus.webbooklibrary.rest.dto.GenreRequest;
+import ru.otus.webbooklibrary.rest.dto.PageResponse;
 import ru.otus.webbooklibrary.service.GenreService;
 
 import java.util.List;
 
+@Profile("!reactive")
 @RestController
 public class GenreController {
     private final GenreService genreService;
+    private final ObjectMapper objectMapper;
 
-    public GenreController(GenreService genreService) {
+    public GenreController(GenreService genreService, ObjectMapper objectMapper) {
         this.genreService = genreService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping(value = "/api/genres",
@@ -41,6 +48,24 @@ public class GenreController {
         return ResponseEntity.status(HttpStatus.OK).body(genreService.getAll());
     }
 
+    @GetMapping(value = "/api/genres", params = "ids")
+    public ResponseEntity<List<Genre>> getByIds(@RequestParam String ids) {
+        return ResponseEntity.status(HttpStatus.OK).body(genreService.getGenresByIds(Ids.parse(ids)));
+    }
+
+    @GetMapping(value = "/api/genres", params = {"limit", "!ids"})
+    public ResponseEntity<PageResponse<Genre>> getPage(@RequestParam int limit,
+                                                       @RequestParam(required = false) String after) {
+        final int pageLimit = Pagination.limit(limit);
+        final List<Genre> genres = genreService.getPage(Pagination.after(after), pageLimit);
+        return ResponseEntity.status(HttpStatus.OK).body(Pagination.page(genres, pageLimit, Genre::getId));
+    }
+
+    @GetMapping(value = "/api/genres/stream", produces = NdJson.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> stream() {
+        return NdJson.stream(genreService::getAllAsStream, objectMapper);
+    }
+
     @PutMapping(value = "/api/genres",
             consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<String> edit(@Validated  @RequestBody GenreRequest genreRequest) {
@@ -0,0 +1,26 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+final class Ids {
+    private Ids() {
+    }
+
+    static Set<String> parse(String ids) {
+        final Set<String> requested = Arrays.stream(ids.split(","))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        if (requested.isEmpty() || requested.size() > Pagination.MAX_LIMIT)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Incorrect ids");
+
+        return requested;
+    }
+}
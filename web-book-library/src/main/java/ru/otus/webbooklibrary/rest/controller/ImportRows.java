@@ -0,0 +1,65 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import ru.otus.webbooklibrary.rest.dto.BookRequest;
+import ru.otus.webbooklibrary.service.BookImportRow;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+final class ImportRows implements Iterator<BookImportRow> {
+    private final MappingIterator<BookRequest> requests;
+    private long number;
+    private boolean finished;
+    private BookImportRow next;
+
+    ImportRows(MappingIterator<BookRequest> requests) {
+        this.requests = requests;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished)
+            next = read();
+
+        return next != null;
+    }
+
+    @Override
+    public BookImportRow next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        final BookImportRow row = next;
+        next = null;
+        return row;
+    }
+
+    private BookImportRow read() {
+        try {
+            if (!requests.hasNextValue()) {
+                finished = true;
+                return null;
+            }
+
+            number++;
+            final BookRequest request = requests.nextValue();
+            return BookImportRow.of(number, request.getTitle(), request.getAuthorName(), request.getGenreName());
+        } catch (JsonMappingException e) {
+            if (e.getCause() instanceof JsonParseException)
+                return stop(e.getCause());
+
+            return BookImportRow.failed(number, e.getOriginalMessage());
+        } catch (IOException e) {
+            return stop(e);
+        }
+    }
+
+    private BookImportRow stop(Throwable e) {
+        finished = true;
+        return BookImportRow.failed(number, "Malformed input, import stopped: " + e.getMessage());
+    }
+}
@@ -0,0 +1,36 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Iterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+final class NdJson {
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType(APPLICATION_NDJSON_VALUE);
+
+    private NdJson() {
+    }
+
+    static <T> ResponseEntity<StreamingResponseBody> stream(Supplier<Stream<T>> source, ObjectMapper mapper) {
+        final ObjectWriter writer = mapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
+        return ResponseEntity.status(HttpStatus.OK).contentType(APPLICATION_NDJSON).body(out -> {
+            try (Stream<T> stream = source.get()) {
+                final Iterator<T> iterator = stream.iterator();
+
+                while (iterator.hasNext()) {
+                    writer.writeValue(out, iterator.next());
+                    out.write('\n');
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,45 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import ru.otus.webbooklibrary.rest.dto.PageResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+final class Pagination {
+    static final int MAX_LIMIT = 1000;
+
+    private Pagination() {
+    }
+
+    static int limit(int limit) {
+        if (limit < 1)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Incorrect limit");
+
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    static String after(String cursor) {
+        if (cursor == null || cursor.isEmpty())
+            return null;
+
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Incorrect cursor", e);
+        }
+    }
+
+    static <T> PageResponse<T> page(List<T> items, int limit, Function<T, String> idExtractor) {
+        if (items.size() < limit)
+            return new PageResponse<>(items, null);
+
+        final String lastId = idExtractor.apply(items.get(items.size() - 1));
+
+        return new PageResponse<>(items, Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(lastId.getBytes(StandardCharsets.UTF_8)));
+    }
+}
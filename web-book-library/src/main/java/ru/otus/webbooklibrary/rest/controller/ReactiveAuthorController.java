@@ -0,0 +1,84 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.rest.dto.AuthorRequest;
+import ru.otus.webbooklibrary.rest.dto.PageResponse;
+import ru.otus.webbooklibrary.service.ReactiveAuthorService;
+
+import java.util.List;
+
+@Profile("reactive")
+@RestController
+public class ReactiveAuthorController {
+    private final ReactiveAuthorService authorService;
+
+    public ReactiveAuthorController(ReactiveAuthorService authorService) {
+        this.authorService = authorService;
+    }
+
+    @PostMapping(value = "/api/authors",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<String>> create(@Validated @RequestBody AuthorRequest authorRequest) {
+        return authorService.saveAuthor(authorRequest.getAuthor())
+                .map(result -> ResponseEntity.status(HttpStatus.CREATED).body(result));
+    }
+
+    @GetMapping("/api/authors/id")
+    public Mono<ResponseEntity<Author>> getAuthorById(@RequestParam String id) {
+        return authorService.getAuthorById(id).map(author -> ResponseEntity.status(HttpStatus.OK).body(author));
+    }
+
+    @GetMapping("/api/authors/{author}")
+    public Mono<ResponseEntity<List<Author>>> getAuthorByName(@PathVariable String author) {
+        return authorService.getAuthorByName(author).collectList()
+                .map(authors -> ResponseEntity.status(HttpStatus.OK).body(authors));
+    }
+
+    @GetMapping(value = "/api/authors", params = "ids")
+    public Mono<ResponseEntity<List<Author>>> getByIds(@RequestParam String ids) {
+        return authorService.getAuthorsByIds(Ids.parse(ids)).collectList()
+                .map(authors -> ResponseEntity.status(HttpStatus.OK).body(authors));
+    }
+
+    @GetMapping("/api/authors")
+    public Mono<ResponseEntity<List<Author>>> getAll() {
+        return authorService.getAll().collectList()
+                .map(authors -> ResponseEntity.status(HttpStatus.OK).body(authors));
+    }
+
+    @GetMapping(value = "/api/authors", params = {"limit", "!ids"})
+    public Mono<ResponseEntity<PageResponse<Author>>> getPage(@RequestParam int limit,
+                                                              @RequestParam(required = false) String after) {
+        final int pageLimit = Pagination.limit(limit);
+        return authorService.getPage(Pagination.after(after), pageLimit).collectList()
+                .map(authors -> ResponseEntity.status(HttpStatus.OK)
+                        .body(Pagination.page(authors, pageLimit, Author::getId)));
+    }
+
+    @GetMapping(value = "/api/authors/stream", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
+    public Flux<Author> stream() {
+        return authorService.getAll();
+    }
+
+    @PutMapping(value = "/api/authors",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<String>> edit(@Validated @RequestBody AuthorRequest authorRequest) {
+        return authorService.updateAuthor(authorRequest.getId(), authorRequest.getAuthor())
+                .map(result -> ResponseEntity.status(HttpStatus.OK).body(result));
+    }
+
+    @DeleteMapping(value = "/api/authors",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<String>> deleteByName(@Validated @RequestBody AuthorRequest authorRequest) {
+        return authorService.deleteAuthor(authorRequest.getId())
+                .map(result -> ResponseEntity.status(HttpStatus.OK).body(result));
+    }
+}
@@ -0,0 +1,142 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.BookWithComments;
+import ru.otus.webbooklibrary.rest.dto.BookRequest;
+import ru.otus.webbooklibrary.rest.dto.BookSummary;
+import ru.otus.webbooklibrary.rest.dto.PageResponse;
+import ru.otus.webbooklibrary.service.ReactiveBookService;
+
+import java.util.List;
+import java.util.Set;
+
+@Profile("reactive")
+@RestController
+public class ReactiveBookController {
+    private final ReactiveBookService bookService;
+
+    public ReactiveBookController(ReactiveBookService bookService) {
+        this.bookService = bookService;
+    }
+
+    @PostMapping(value = "/api/books",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Object>> save(@Validated @RequestBody BookRequest bookRequest) {
+        return bookService.saveBook(bookRequest.getTitle(), bookRequest.getAuthorName(), bookRequest.getGenreName())
+                .then(Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.CREATED).build()));
+    }
+
+    @GetMapping("/api/books/id")
+    public Mono<ResponseEntity<Book>> getBookById(@RequestParam String id) {
+        return bookService.getBookById(id).map(book -> ResponseEntity.status(HttpStatus.OK).body(book));
+    }
+
+    @GetMapping("/api/books/id/comments")
+    public Mono<ResponseEntity<BookWithComments>> getBookWithComments(@RequestParam String id) {
+        return bookService.getBookWithComments(id).map(book -> ResponseEntity.status(HttpStatus.OK).body(book));
+    }
+
+    @GetMapping("/api/books/title/{title}")
+    public Mono<ResponseEntity<List<Book>>> getBookByTitle(@PathVariable String title) {
+        return bookService.getBookByTitle(title).collectList()
+                .map(books -> ResponseEntity.status(HttpStatus.OK).body(books));
+    }
+
+    @GetMapping("/api/books/author/{author}")
+    public Mono<ResponseEntity<List<Book>>> getBookByAuthor(@PathVariable String author) {
+        return bookService.getBookByAuthor(author).collectList()
+                .map(books -> ResponseEntity.status(HttpStatus.OK).body(books));
+    }
+
+    @GetMapping("/api/books/genre/{genre}")
+    public Mono<ResponseEntity<List<Book>>> getBookByGenre(@PathVariable String genre) {
+        return bookService.getBookByGenre(genre).collectList()
+                .map(books -> ResponseEntity.status(HttpStatus.OK).body(books));
+    }
+
+    @GetMapping(value = "/api/books", params = "ids")
+    public Mono<ResponseEntity<List<Book>>> getByIds(@RequestParam String ids) {
+        return bookService.getBooksByIds(Ids.parse(ids)).collectList()
+                .map(books -> ResponseEntity.status(HttpStatus.OK).body(books));
+    }
+
+    @GetMapping("/api/books")
+    public Mono<ResponseEntity<List<Book>>> getAll() {
+        return bookService.getAll().collectList()
+                .map(books -> ResponseEntity.status(HttpStatus.OK).body(books));
+    }
+
+    @GetMapping(value = "/api/books", params = {"limit", "!ids"})
+    public Mono<ResponseEntity<PageResponse<Book>>> getPage(@RequestParam int limit,
+                                                            @RequestParam(required = false) String after) {
+        final int pageLimit = Pagination.limit(limit);
+        return bookService.getPage(Pagination.after(after), pageLimit).collectList()
+                .map(books -> ResponseEntity.status(HttpStatus.OK)
+                        .body(Pagination.page(books, pageLimit, Book::getId)));
+    }
+
+    @GetMapping(value = "/api/books", params = {"fields", "!ids"})
+    public Mono<ResponseEntity<List<BookSummary>>> getSummaries(@RequestParam String fields) {
+        final Set<String> summaryFields = Fields.parse(fields, BookSummary.FIELDS);
+        return bookService.getProjection(Fields.paths(summaryFields, BookSummary.FIELDS), null, Pagination.MAX_LIMIT)
+                .map(book -> BookSummary.of(book, summaryFields)).collectList()
+                .map(books -> ResponseEntity.status(HttpStatus.OK).body(books));
+    }
+
+    @GetMapping(value = "/api/books", params = {"fields", "limit", "!ids"})
+    public Mono<ResponseEntity<PageResponse<BookSummary>>> getSummaryPage(@RequestParam String fields,
+                                                                          @RequestParam int limit,
+                                                                          @RequestParam(required = false)
+                                                                                  String after) {
+        final Set<String> summaryFields = Fields.parse(fields, BookSummary.FIELDS);
+        final int pageLimit = Pagination.limit(limit);
+        return bookService.getProjection(Fields.paths(summaryFields, BookSummary.FIELDS),
+                Pagination.after(after), pageLimit)
+                .map(book -> BookSummary.of(book, summaryFields)).collectList()
+                .map(books -> ResponseEntity.status(HttpStatus.OK)
+                        .body(Pagination.page(books, pageLimit, BookSummary::getId)));
+    }
+
+    @GetMapping(value = "/api/books/stream", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
+    public Flux<Book> stream() {
+        return bookService.getAll();
+    }
+
+    @PutMapping(value = "/api/books",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Object>> edit(@Validated @RequestBody BookRequest bookRequest) {
+        return bookService.updateBook(bookRequest.getId(), bookRequest.getTitle(),
+                bookRequest.getAuthorName(), bookRequest.getGenreName())
+                .then(Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.OK).build()));
+    }
+
+    @PatchMapping(value = "/api/books",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Book>> patch(@Validated @RequestBody BookRequest bookRequest) {
+        if (bookRequest.getId() == null || bookRequest.getVersion() == null)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Id and version are required");
+        if (bookRequest.getTitle() == null && bookRequest.getAuthorName() == null
+                && bookRequest.getGenreName() == null)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nothing to update");
+
+        return bookService.patchBook(bookRequest.getId(), bookRequest.getVersion(), bookRequest.getTitle(),
+                bookRequest.getAuthorName(), bookRequest.getGenreName())
+                .map(book -> ResponseEntity.status(HttpStatus.OK).body(book));
+    }
+
+    @DeleteMapping(value = "/api/books",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Object>> deleteByTitle(@Validated @RequestBody BookRequest bookRequest) {
+        return bookService.deleteBook(bookRequest.getId())
+                .then(Mono.fromSupplier(() -> ResponseEntity.status(HttpStatus.OK).build()));
+    }
+}
@@ -0,0 +1,129 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Comment;
+import ru.otus.webbooklibrary.rest.dto.CommentRequest;
+import ru.otus.webbooklibrary.rest.dto.CommentSummary;
+import ru.otus.webbooklibrary.rest.dto.PageResponse;
+import ru.otus.webbooklibrary.service.ReactiveCommentService;
+
+import java.util.List;
+import java.util.Set;
+
+@Profile("reactive")
+@RestController
+public class ReactiveCommentController {
+    private final ReactiveCommentService commentService;
+
+    public ReactiveCommentController(ReactiveCommentService commentService) {
+        this.commentService = commentService;
+    }
+
+    @PostMapping(value = "/api/comments",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<String>> save(@Validated @RequestBody CommentRequest commentRequest) {
+        return commentService.saveComment(commentRequest.getBook(), commentRequest.getContent())
+                .map(result -> ResponseEntity.status(HttpStatus.CREATED).body(result));
+    }
+
+    @GetMapping("/api/comments/id")
+    public Mono<ResponseEntity<Comment>> getCommentById(@RequestParam String id) {
+        return commentService.getCommentById(id).map(comment -> ResponseEntity.status(HttpStatus.OK).body(comment));
+    }
+
+    @GetMapping("/api/comments/{comment}")
+    public Mono<ResponseEntity<List<Comment>>> getCommentByContent(@PathVariable String comment) {
+        return commentService.getCommentByContent(comment).collectList()
+                .map(comments -> ResponseEntity.status(HttpStatus.OK).body(comments));
+    }
+
+    @GetMapping("/api/comments/book/{bookTitle}")
+    public Mono<ResponseEntity<List<Comment>>> getCommentByBookTitle(@PathVariable String bookTitle) {
+        return commentService.getCommentsByBook(bookTitle).collectList()
+                .map(comments -> ResponseEntity.status(HttpStatus.OK).body(comments));
+    }
+
+    @GetMapping(value = "/api/comments", params = "ids")
+    public Mono<ResponseEntity<List<Comment>>> getByIds(@RequestParam String ids) {
+        return commentService.getCommentsByIds(Ids.parse(ids)).collectList()
+                .map(comments -> ResponseEntity.status(HttpStatus.OK).body(comments));
+    }
+
+    @GetMapping("/api/comments")
+    public Mono<ResponseEntity<List<Comment>>> getAll() {
+        return commentService.getAll().collectList()
+                .map(comments -> ResponseEntity.status(HttpStatus.OK).body(comments));
+    }
+
+    @GetMapping(value = "/api/comments", params = {"limit", "!ids"})
+    public Mono<ResponseEntity<PageResponse<Comment>>> getPage(@RequestParam int limit,
+                                                               @RequestParam(required = false) String after) {
+        final int pageLimit = Pagination.limit(limit);
+        return commentService.getPage(Pagination.after(after), pageLimit).collectList()
+                .map(comments -> ResponseEntity.status(HttpStatus.OK)
+                        .body(Pagination.page(comments, pageLimit, Comment::getId)));
+    }
+
+    @GetMapping(value = "/api/comments", params = {"fields", "!ids"})
+    public Mono<ResponseEntity<List<CommentSummary>>> getSummaries(@RequestParam String fields) {
+        final Set<String> summaryFields = Fields.parse(fields, CommentSummary.FIELDS);
+        return commentService.getProjection(Fields.paths(summaryFields, CommentSummary.FIELDS), null,
+                Pagination.MAX_LIMIT)
+                .map(comment -> CommentSummary.of(comment, summaryFields)).collectList()
+                .map(comments -> ResponseEntity.status(HttpStatus.OK).body(comments));
+    }
+
+    @GetMapping(value = "/api/comments", params = {"fields", "limit", "!ids"})
+    public Mono<ResponseEntity<PageResponse<CommentSummary>>> getSummaryPage(@RequestParam String fields,
+                                                                             @RequestParam int limit,
+                                                                             @RequestParam(required = false)
+                                                                                     String after) {
+        final Set<String> summaryFields = Fields.parse(fields, CommentSummary.FIELDS);
+        final int pageLimit = Pagination.limit(limit);
+        return commentService.getProjection(Fields.paths(summaryFields, CommentSummary.FIELDS),
+                Pagination.after(after), pageLimit)
+                .map(comment -> CommentSummary.of(comment, summaryFields)).collectList()
+                .map(comments -> ResponseEntity.status(HttpStatus.OK)
+                        .body(Pagination.page(comments, pageLimit, CommentSummary::getId)));
+    }
+
+    @GetMapping(value = "/api/comments/stream", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
+    public Flux<Comment> stream() {
+        return commentService.getAll();
+    }
+
+    @PutMapping(value = "/api/comments",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<String>> edit(@Validated @RequestBody CommentRequest commentRequest) {
+        return commentService.updateComment(commentRequest.getId(), commentRequest.getContent())
+                .map(result -> ResponseEntity.status(HttpStatus.OK).body(result));
+    }
+
+    @PatchMapping(value = "/api/comments",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<Comment>> patch(@Validated @RequestBody CommentRequest commentRequest) {
+        if (commentRequest.getId() == null || commentRequest.getVersion() == null)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Id and version are required");
+        if (commentRequest.getContent() == null)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nothing to update");
+
+        return commentService.patchComment(commentRequest.getId(), commentRequest.getVersion(),
+                commentRequest.getContent())
+                .map(comment -> ResponseEntity.status(HttpStatus.OK).body(comment));
+    }
+
+    @DeleteMapping(value = "/api/comments",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<String>> deleteByContent(@Validated @RequestBody CommentRequest commentRequest) {
+        return commentService.deleteComment(commentRequest.getId())
+                .map(result -> ResponseEntity.status(HttpStatus.OK).body(result));
+    }
+}
@@ -0,0 +1,83 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Genre;
+import ru.otus.webbooklibrary.rest.dto.GenreRequest;
+import ru.otus.webbooklibrary.rest.dto.PageResponse;
+import ru.otus.webbooklibrary.service.ReactiveGenreService;
+
+import java.util.List;
+
+@Profile("reactive")
+@RestController
+public class ReactiveGenreController {
+    private final ReactiveGenreService genreService;
+
+    public ReactiveGenreController(ReactiveGenreService genreService) {
+        this.genreService = genreService;
+    }
+
+    @PostMapping(value = "/api/genres",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<String>> create(@Validated @RequestBody GenreRequest genreRequest) {
+        return genreService.saveGenre(genreRequest.getGenre())
+                .map(result -> ResponseEntity.status(HttpStatus.CREATED).body(result));
+    }
+
+    @GetMapping("/api/genres/id")
+    public Mono<ResponseEntity<Genre>> getGenreById(@RequestParam String id) {
+        return genreService.getGenreById(id).map(genre -> ResponseEntity.status(HttpStatus.OK).body(genre));
+    }
+
+    @GetMapping("/api/genres/{genre}")
+    public Mono<ResponseEntity<Genre>> getGenreByName(@PathVariable String genre) {
+        return genreService.getGenreByName(genre).map(result -> ResponseEntity.status(HttpStatus.OK).body(result));
+    }
+
+    @GetMapping(value = "/api/genres", params = "ids")
+    public Mono<ResponseEntity<List<Genre>>> getByIds(@RequestParam String ids) {
+        return genreService.getGenresByIds(Ids.parse(ids)).collectList()
+                .map(genres -> ResponseEntity.status(HttpStatus.OK).body(genres));
+    }
+
+    @GetMapping("/api/genres")
+    public Mono<ResponseEntity<List<Genre>>> getAll() {
+        return genreService.getAll().collectList()
+                .map(genres -> ResponseEntity.status(HttpStatus.OK).body(genres));
+    }
+
+    @GetMapping(value = "/api/genres", params = {"limit", "!ids"})
+    public Mono<ResponseEntity<PageResponse<Genre>>> getPage(@RequestParam int limit,
+                                                             @RequestParam(required = false) String after) {
+        final int pageLimit = Pagination.limit(limit);
+        return genreService.getPage(Pagination.after(after), pageLimit).collectList()
+                .map(genres -> ResponseEntity.status(HttpStatus.OK)
+                        .body(Pagination.page(genres, pageLimit, Genre::getId)));
+    }
+
+    @GetMapping(value = "/api/genres/stream", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
+    public Flux<Genre> stream() {
+        return genreService.getAll();
+    }
+
+    @PutMapping(value = "/api/genres",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<String>> edit(@Validated @RequestBody GenreRequest genreRequest) {
+        return genreService.updateGenre(genreRequest.getId(), genreRequest.getGenre())
+                .map(result -> ResponseEntity.status(HttpStatus.OK).body(result));
+    }
+
+    @DeleteMapping(value = "/api/genres",
+            consumes = MediaType.APPLICATION_JSON_VALUE)
+    public Mono<ResponseEntity<String>> deleteByName(@Validated @RequestBody GenreRequest genreRequest) {
+        return genreService.deleteGenre(genreRequest.getId())
+                .map(result -> ResponseEntity.status(HttpStatus.OK).body(result));
+    }
+}
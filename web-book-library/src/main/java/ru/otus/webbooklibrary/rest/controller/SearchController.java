@@ -0,0 +1,53 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import ru.otus.webbooklibrary.domain.SearchHit;
+import ru.otus.webbooklibrary.rest.dto.PageResponse;
+import ru.otus.webbooklibrary.service.SearchService;
+
+import java.util.List;
+
+@Profile("!reactive")
+@RestController
+public class SearchController {
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @GetMapping("/api/search")
+    public ResponseEntity<PageResponse<SearchHit>> search(@RequestParam String q,
+                                                          @RequestParam(defaultValue = "20") int limit,
+                                                          @RequestParam(required = false) String after) {
+        if (q.isBlank())
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Empty search query");
+
+        final int pageLimit = Pagination.limit(limit);
+        final int offset = offset(Pagination.after(after));
+        if (offset + pageLimit > Pagination.MAX_LIMIT)
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Search results are limited to "
+                    + Pagination.MAX_LIMIT + " hits");
+
+        final List<SearchHit> hits = searchService.search(q, offset, pageLimit);
+        final String nextOffset = String.valueOf(offset + pageLimit);
+        return ResponseEntity.status(HttpStatus.OK).body(Pagination.page(hits, pageLimit, hit -> nextOffset));
+    }
+
+    private static int offset(String after) {
+        if (after == null)
+            return 0;
+
+        try {
+            return Math.max(Integer.parseInt(after), 0);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Incorrect cursor", e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package ru.otus.webbooklibrary.rest.dto;
 
 public class BookRequest {
     private String id;
+    private Long version;
     private String title;
     private String authorName;
     private String genreName;
@@ -14,6 +15,14 @@ public class BookRequest {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getTitle() {
         return title;
     }
@@ -0,0 +1,70 @@
+package ru.otus.webbooklibrary.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import ru.otus.webbooklibrary.domain.Book;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BookSummary {
+    public static final Map<String, String> FIELDS = Map.of(
+            "title", "title",
+            "author", "author.name",
+            "genre", "genre.name",
+            "commentCount", "commentCount",
+            "lastCommentAt", "lastCommentAt");
+
+    private final String id;
+    private String title;
+    private String author;
+    private String genre;
+    private Long commentCount;
+    private Instant lastCommentAt;
+
+    private BookSummary(String id) {
+        this.id = id;
+    }
+
+    public static BookSummary of(Book book, Set<String> fields) {
+        final BookSummary summary = new BookSummary(book.getId());
+
+        if (fields.contains("title"))
+            summary.title = book.getTitle();
+        if (fields.contains("author") && book.getAuthor() != null)
+            summary.author = book.getAuthor().getName();
+        if (fields.contains("genre") && book.getGenre() != null)
+            summary.genre = book.getGenre().getName();
+        if (fields.contains("commentCount"))
+            summary.commentCount = book.getCommentCount();
+        if (fields.contains("lastCommentAt"))
+            summary.lastCommentAt = book.getLastCommentAt();
+
+        return summary;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getGenre() {
+        return genre;
+    }
+
+    public Long getCommentCount() {
+        return commentCount;
+    }
+
+    public Instant getLastCommentAt() {
+        return lastCommentAt;
+    }
+}
@@ -2,6 +2,7 @@ package ru.otus.webbooklibrary.rest.dto;
 
 public class CommentRequest {
     private String id;
+    private Long version;
     private String content;
     private String book;
 
@@ -13,6 +14,14 @@ public class CommentRequest {
         this.id = id;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getContent() {
         return content;
     }
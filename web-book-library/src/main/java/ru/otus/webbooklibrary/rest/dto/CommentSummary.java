@@ -0,0 +1,55 @@
+package ru.otus.webbooklibrary.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import ru.otus.webbooklibrary.domain.Comment;
+
+import java.util.Map;
+import java.util.Set;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CommentSummary {
+    public static final Map<String, String> FIELDS = Map.of(
+            "content", "content",
+            "bookId", "book.id",
+            "bookTitle", "book.title");
+
+    private final String id;
+    private String content;
+    private String bookId;
+    private String bookTitle;
+
+    private CommentSummary(String id) {
+        this.id = id;
+    }
+
+    public static CommentSummary of(Comment comment, Set<String> fields) {
+        final CommentSummary summary = new CommentSummary(comment.getId());
+
+        if (fields.contains("content"))
+            summary.content = comment.getContent();
+        if (comment.getBook() != null) {
+            if (fields.contains("bookId"))
+                summary.bookId = comment.getBook().getId();
+            if (fields.contains("bookTitle"))
+                summary.bookTitle = comment.getBook().getTitle();
+        }
+
+        return summary;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public String getBookId() {
+        return bookId;
+    }
+
+    public String getBookTitle() {
+        return bookTitle;
+    }
+}
@@ -0,0 +1,21 @@
+package ru.otus.webbooklibrary.rest.dto;
+
+import java.util.List;
+
+public class PageResponse<T> {
+    private final List<T> items;
+    private final String next;
+
+    public PageResponse(List<T> items, String next) {
+        this.items = items;
+        this.next = next;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public String getNext() {
+        return next;
+    }
+}
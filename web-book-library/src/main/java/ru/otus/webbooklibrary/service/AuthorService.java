@@ -2,17 +2,25 @@ package ru.otus.webbooklibrary.service;
 
 import ru.otus.webbooklibrary.domain.Author;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface AuthorService {
     String saveAuthor(String name);
 
     Author getAuthorById(String id);
 
+    List<Author> getAuthorsByIds(Collection<String> ids);
+
     List<Author> getAuthorByName(String name);
 
     List<Author> getAll();
 
+    List<Author> getPage(String after, int limit);
+
+    Stream<Author> getAllAsStream();
+
     String updateAuthor(String id, String name);
 
     String deleteAuthor(String id);
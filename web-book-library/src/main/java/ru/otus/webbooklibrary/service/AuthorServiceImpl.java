@@ -1,53 +1,90 @@
 package ru.otus.webbooklibrary.service;
 
 import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.otus.webbooklibrary.domain.Author;
-import ru.otus.webbooklibrary.domain.Book;
 import ru.otus.webbooklibrary.repository.AuthorRepository;
 import ru.otus.webbooklibrary.repository.BookRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class AuthorServiceImpl implements AuthorService {
     private final AuthorRepository authorRepository;
     private final BookRepository bookRepository;
+    private final BookCascadeDeleter bookCascadeDeleter;
+    private final StaleResultCache staleResults;
+    private final RequestCollapser<Author> authorLookups;
 
-    public AuthorServiceImpl(AuthorRepository authorRepository, BookRepository bookRepository) {
+    public AuthorServiceImpl(AuthorRepository authorRepository, BookRepository bookRepository,
+                             BookCascadeDeleter bookCascadeDeleter, StaleResultCache staleResults,
+                             RequestCollapsers requestCollapsers) {
         this.authorRepository = authorRepository;
         this.bookRepository = bookRepository;
+        this.bookCascadeDeleter = bookCascadeDeleter;
+        this.staleResults = staleResults;
+        this.authorLookups = requestCollapsers.create("authors", authorRepository::findAllById, Author::getId);
     }
 
     @HystrixCommand(defaultFallback = "getEmptyStringResult")
     @Transactional
     @Override
     public String saveAuthor(String name) {
-        final Author author = new Author(name);
-        authorRepository.save(author);
+        final Author author = authorRepository.findOrCreateByName(name);
+        staleResults.forget("authors.", "search");
         return String.format("You successfully saved a %s to repository", author.getName());
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyAuthorResult")
+    @HystrixCommand(fallbackMethod = "getStaleAuthorById")
     @Transactional(readOnly = true)
     @Override
     public Author getAuthorById(String id) {
-        return authorRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Incorrect author id"));
+        return staleResults.store(authorLookups.load(id, () -> new IllegalArgumentException("Incorrect author id")),
+                "authors.byId", id);
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyAuthorListResult")
+    @HystrixCommand(fallbackMethod = "getStaleAuthorsByIds")
+    @Transactional(readOnly = true)
+    @Override
+    public List<Author> getAuthorsByIds(Collection<String> ids) {
+        return staleResults.store(RequestCollapser.inRequestOrder(ids,
+                authorRepository.findAllById(ids), Author::getId), "authors.byIds", ids);
+    }
+
+    @HystrixCommand(fallbackMethod = "getStaleAuthorByName")
     @Transactional(readOnly = true)
     @Override
     public List<Author> getAuthorByName(String name) {
-        return authorRepository.findByName(name);
+        return staleResults.store(authorRepository.findByName(name), "authors.byName", name);
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyAuthorListResult")
+    @HystrixCommand(fallbackMethod = "getStaleAll", threadPoolKey = "libraryScans")
     @Transactional(readOnly = true)
     @Override
     public List<Author> getAll() {
-        return authorRepository.findAll();
+        return staleResults.store(authorRepository.findAll(), "authors.all");
+    }
+
+    @HystrixCommand(fallbackMethod = "getStalePage", threadPoolKey = "libraryScans")
+    @Transactional(readOnly = true)
+    @Override
+    public List<Author> getPage(String after, int limit) {
+        final PageRequest page = PageRequest.of(0, limit, Sort.by("id"));
+
+        return staleResults.store(after == null ? authorRepository.findAllBy(page) :
+                authorRepository.findByIdGreaterThan(after, page), "authors.page", after, limit);
+    }
+
+    @HystrixCommand(defaultFallback = "getEmptyAuthorStreamResult", threadPoolKey = "libraryScans")
+    @Transactional(readOnly = true)
+    @Override
+    public Stream<Author> getAllAsStream() {
+        return authorRepository.streamAllBy();
     }
 
     @HystrixCommand(defaultFallback = "getEmptyStringResult")
@@ -56,16 +93,11 @@ public class AuthorServiceImpl implements AuthorService {
     public String updateAuthor(String id, String name) {
         final Author author = authorRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Incorrect author id"));
-        final String oldAuthorName = author.getName();
         author.setName(name);
 
-        final List<Book> bookList = bookRepository.findByAuthor_Name(oldAuthorName);
-
-        if (!bookList.isEmpty()) {
-            bookList.forEach(b -> b.setAuthor(author));
-            bookRepository.saveAll(bookList);
-        }
         authorRepository.save(author);
+        bookRepository.updateAuthorName(id, name);
+        staleResults.forget("authors.", "books.", "search");
 
         return String.format("%s was updated", name);
     }
@@ -78,11 +110,32 @@ public class AuthorServiceImpl implements AuthorService {
                 (() -> new IllegalArgumentException("Incorrect author id"));
 
         authorRepository.deleteById(id);
-        bookRepository.deleteByAuthor_Name(author.getName());
+        bookCascadeDeleter.deleteByAuthor(id, new DeletionJob("author", id, author.getName(), 0));
+        staleResults.forget("authors.", "books.", "search");
 
         return String.format("%s was deleted", author.getName());
     }
 
+    public Author getStaleAuthorById(String id, Throwable failure) {
+        return staleResults.recall(this::getEmptyAuthorResult, failure, "authors.byId", id);
+    }
+
+    public List<Author> getStaleAuthorsByIds(Collection<String> ids, Throwable failure) {
+        return staleResults.recall(this::getEmptyAuthorListResult, failure, "authors.byIds", ids);
+    }
+
+    public List<Author> getStaleAuthorByName(String name, Throwable failure) {
+        return staleResults.recall(this::getEmptyAuthorListResult, failure, "authors.byName", name);
+    }
+
+    public List<Author> getStaleAll(Throwable failure) {
+        return staleResults.recall(this::getEmptyAuthorListResult, failure, "authors.all");
+    }
+
+    public List<Author> getStalePage(String after, int limit, Throwable failure) {
+        return staleResults.recall(this::getEmptyAuthorListResult, failure, "authors.page", after, limit);
+    }
+
     public String getEmptyStringResult() {
         return "Operation can not be executed.";
     }
@@ -98,4 +151,8 @@ public class AuthorServiceImpl implements AuthorService {
     public List<Author> getEmptyAuthorListResult() {
         return List.of();
     }
+
+    public Stream<Author> getEmptyAuthorStreamResult() {
+        return Stream.empty();
+    }
 }
@@ -0,0 +1,43 @@
+package ru.otus.webbooklibrary.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.otus.webbooklibrary.repository.BookRepository;
+import ru.otus.webbooklibrary.repository.CommentRepository;
+
+import java.util.List;
+import java.util.function.IntFunction;
+
+@Component
+public class BookCascadeDeleter {
+    private final BookRepository bookRepository;
+    private final CommentRepository commentRepository;
+    private final int chunkSize;
+
+    public BookCascadeDeleter(BookRepository bookRepository, CommentRepository commentRepository,
+                              @Value("${library.cascade.chunk-size:1000}") int chunkSize) {
+        this.bookRepository = bookRepository;
+        this.commentRepository = commentRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    public void deleteByAuthor(String authorId, DeletionJob job) {
+        delete(limit -> bookRepository.findIdsByAuthorId(authorId, limit), job);
+    }
+
+    public void deleteByGenre(String genreId, DeletionJob job) {
+        delete(limit -> bookRepository.findIdsByGenreId(genreId, limit), job);
+    }
+
+    private void delete(IntFunction<List<String>> nextBookIds, DeletionJob job) {
+        List<String> bookIds = nextBookIds.apply(chunkSize);
+
+        while (!bookIds.isEmpty()) {
+            final long comments = commentRepository.deleteByBook_IdIn(bookIds);
+            final long books = bookRepository.deleteByIdIn(bookIds);
+            job.progress(books, comments);
+
+            bookIds = bookIds.size() < chunkSize ? List.of() : nextBookIds.apply(chunkSize);
+        }
+    }
+}
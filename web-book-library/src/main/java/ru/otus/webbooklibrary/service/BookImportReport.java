@@ -0,0 +1,78 @@
+package ru.otus.webbooklibrary.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class BookImportReport {
+    private final int maxReportedErrors;
+    private final List<RowError> errors = new ArrayList<>();
+    private long received;
+    private long imported;
+    private long failed;
+    private long elapsedMillis;
+
+    public BookImportReport(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? received : received * 1000 / elapsedMillis;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void received() {
+        received++;
+    }
+
+    public void imported(long count) {
+        imported += count;
+    }
+
+    public void failed(long row, String message) {
+        failed++;
+
+        if (errors.size() < maxReportedErrors)
+            errors.add(new RowError(row, message));
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public static class RowError {
+        private final long row;
+        private final String message;
+
+        public RowError(long row, String message) {
+            this.row = row;
+            this.message = message;
+        }
+
+        public long getRow() {
+            return row;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
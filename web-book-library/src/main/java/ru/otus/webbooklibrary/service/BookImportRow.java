@@ -0,0 +1,45 @@
+package ru.otus.webbooklibrary.service;
+
+public class BookImportRow {
+    private final long number;
+    private final String title;
+    private final String authorName;
+    private final String genreName;
+    private final String error;
+
+    private BookImportRow(long number, String title, String authorName, String genreName, String error) {
+        this.number = number;
+        this.title = title;
+        this.authorName = authorName;
+        this.genreName = genreName;
+        this.error = error;
+    }
+
+    public static BookImportRow of(long number, String title, String authorName, String genreName) {
+        return new BookImportRow(number, title, authorName, genreName, null);
+    }
+
+    public static BookImportRow failed(long number, String error) {
+        return new BookImportRow(number, null, null, null, error);
+    }
+
+    public long getNumber() {
+        return number;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public String getGenreName() {
+        return genreName;
+    }
+
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,7 @@
+package ru.otus.webbooklibrary.service;
+
+import java.util.Iterator;
+
+public interface BookImportService {
+    BookImportReport importBooks(Iterator<BookImportRow> rows);
+}
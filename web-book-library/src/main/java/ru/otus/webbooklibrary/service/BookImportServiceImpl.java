@@ -0,0 +1,142 @@
+package ru.otus.webbooklibrary.service;
+
+import com.mongodb.ErrorCategory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.Genre;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.mongodb.core.query.Criteria.where;
+import static org.springframework.data.mongodb.core.query.Query.query;
+
+@Service
+public class BookImportServiceImpl implements BookImportService {
+    private final MongoTemplate mongoTemplate;
+    private final CacheManager cacheManager;
+    private final StaleResultCache staleResults;
+    private final int batchSize;
+    private final int maxReportedErrors;
+
+    public BookImportServiceImpl(MongoTemplate mongoTemplate, CacheManager cacheManager, StaleResultCache staleResults,
+                                 @Value("${library.import.batch-size:1000}") int batchSize,
+                                 @Value("${library.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.mongoTemplate = mongoTemplate;
+        this.cacheManager = cacheManager;
+        this.staleResults = staleResults;
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public BookImportReport importBooks(Iterator<BookImportRow> rows) {
+        final long start = System.nanoTime();
+        final BookImportReport report = new BookImportReport(maxReportedErrors);
+        final List<BookImportRow> batch = new ArrayList<>(batchSize);
+
+        while (rows.hasNext()) {
+            final BookImportRow row = rows.next();
+            report.received();
+
+            if (row.getError() != null)
+                report.failed(row.getNumber(), row.getError());
+            else if (isBlank(row.getTitle()) || isBlank(row.getAuthorName()) || isBlank(row.getGenreName()))
+                report.failed(row.getNumber(), "title, authorName and genreName are required");
+            else {
+                batch.add(row);
+
+                if (batch.size() == batchSize) {
+                    writeBatch(batch, report);
+                    batch.clear();
+                }
+            }
+        }
+
+        if (!batch.isEmpty())
+            writeBatch(batch, report);
+
+        report.setElapsedMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return report;
+    }
+
+    private void writeBatch(List<BookImportRow> batch, BookImportReport report) {
+        final Map<String, Author> authors = resolveByName(Author.class, Author::getName,
+                batch.stream().map(BookImportRow::getAuthorName).collect(Collectors.toSet()),
+                "authorsByName", "allAuthors");
+        final Map<String, Genre> genres = resolveByName(Genre.class, Genre::getName,
+                batch.stream().map(BookImportRow::getGenreName).collect(Collectors.toSet()),
+                "genresByName", "allGenres");
+
+        final List<Book> books = batch.stream()
+                .map(row -> new Book(row.getTitle(), authors.get(row.getAuthorName()), genres.get(row.getGenreName())))
+                .collect(Collectors.toList());
+        books.forEach(book -> book.setVersion(0L));
+
+        try {
+            mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class).insert(books).execute();
+            report.imported(books.size());
+        } catch (BulkOperationException e) {
+            e.getErrors().forEach(error -> report.failed(batch.get(error.getIndex()).getNumber(), error.getMessage()));
+            report.imported(books.size() - e.getErrors().size());
+        } finally {
+            staleResults.forget("books.", "authors.", "genres.", "search");
+        }
+    }
+
+    private <T> Map<String, T> resolveByName(Class<T> type, Function<T, String> name, Set<String> names,
+                                             String... caches) {
+        final Map<String, T> resolved = findByName(type, name, names);
+        final List<String> missing = names.stream()
+                .filter(n -> !resolved.containsKey(n))
+                .collect(Collectors.toList());
+
+        if (missing.isEmpty())
+            return resolved;
+
+        final BulkOperations upserts = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, type);
+        missing.forEach(n -> upserts.upsert(query(where("name").is(n)), new Update().setOnInsert("name", n)));
+
+        try {
+            upserts.execute();
+        } catch (BulkOperationException e) {
+            if (e.getErrors().stream()
+                    .anyMatch(error -> ErrorCategory.fromErrorCode(error.getCode()) != ErrorCategory.DUPLICATE_KEY))
+                throw e;
+        }
+
+        for (String cache : caches) {
+            final Cache namedCache = cacheManager.getCache(cache);
+
+            if (namedCache != null)
+                namedCache.clear();
+        }
+
+        resolved.putAll(findByName(type, name, missing));
+        return resolved;
+    }
+
+    private <T> Map<String, T> findByName(Class<T> type, Function<T, String> name, Collection<String> names) {
+        return mongoTemplate.find(query(where("name").in(names)), type).stream()
+                .collect(Collectors.toMap(name, Function.identity(), (first, second) -> first));
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
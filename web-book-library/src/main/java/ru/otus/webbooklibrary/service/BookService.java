@@ -1,14 +1,19 @@
 package ru.otus.webbooklibrary.service;
 
 import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.BookWithComments;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface BookService {
     void saveBook(String title, String authorNameParameter, String genreNameParameter);
 
     Book getBookById(String id);
 
+    List<Book> getBooksByIds(Collection<String> ids);
+
     List<Book> getBookByTitle(String title);
 
     List<Book> getBookByAuthor(String author);
@@ -17,9 +22,19 @@ public interface BookService {
 
     Book getBookByComment(String commentId);
 
+    BookWithComments getBookWithComments(String id);
+
     List<Book> getAll();
 
+    List<Book> getPage(String after, int limit);
+
+    List<Book> getProjection(Collection<String> fields, String after, int limit);
+
+    Stream<Book> getAllAsStream();
+
     void updateBook(String oldBookTitle, String title, String authorNameParameter, String genreNameParameter);
 
+    Book patchBook(String id, long version, String title, String authorName, String genreName);
+
     void deleteBook(String id);
 }
@@ -1,19 +1,25 @@
 package ru.otus.webbooklibrary.service;
 
 import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.otus.webbooklibrary.domain.Author;
 import ru.otus.webbooklibrary.domain.Book;
-import ru.otus.webbooklibrary.domain.Comment;
+import ru.otus.webbooklibrary.domain.BookWithComments;
 import ru.otus.webbooklibrary.domain.Genre;
 import ru.otus.webbooklibrary.repository.AuthorRepository;
 import ru.otus.webbooklibrary.repository.BookRepository;
 import ru.otus.webbooklibrary.repository.CommentRepository;
 import ru.otus.webbooklibrary.repository.GenreRepository;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 public class BookServiceImpl implements BookService {
@@ -21,13 +27,18 @@ public class BookServiceImpl implements BookService {
     private final AuthorRepository authorRepository;
     private final GenreRepository genreRepository;
     private final CommentRepository commentRepository;
+    private final StaleResultCache staleResults;
+    private final RequestCollapser<Book> bookLookups;
 
     public BookServiceImpl(BookRepository bookRepository, AuthorRepository authorRepository,
-                           GenreRepository genreRepository, CommentRepository commentRepository) {
+                           GenreRepository genreRepository, CommentRepository commentRepository,
+                           StaleResultCache staleResults, RequestCollapsers requestCollapsers) {
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
         this.genreRepository = genreRepository;
         this.commentRepository = commentRepository;
+        this.staleResults = staleResults;
+        this.bookLookups = requestCollapsers.create("books", bookRepository::findAllById, Book::getId);
     }
 
     @HystrixCommand
@@ -39,52 +50,96 @@ public class BookServiceImpl implements BookService {
         final Book book = new Book(title, author, genre);
 
         bookRepository.save(book);
+        staleResults.forget("books.", "authors.", "genres.", "search");
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyBookResult")
+    @HystrixCommand(fallbackMethod = "getStaleBookById")
     @Transactional(readOnly = true)
     @Override
     public Book getBookById(String id) {
-        return bookRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Incorrect book id"));
+        return staleResults.store(bookLookups.load(id, () -> new IllegalArgumentException("Incorrect book id")),
+                "books.byId", id);
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyBookListResult")
+    @HystrixCommand(fallbackMethod = "getStaleBooksByIds")
+    @Transactional(readOnly = true)
+    @Override
+    public List<Book> getBooksByIds(Collection<String> ids) {
+        return staleResults.store(RequestCollapser.inRequestOrder(ids,
+                bookRepository.findAllById(ids), Book::getId), "books.byIds", ids);
+    }
+
+    @HystrixCommand(fallbackMethod = "getStaleBookByTitle")
     @Transactional(readOnly = true)
     @Override
     public List<Book> getBookByTitle(String title) {
-        return bookRepository.findByTitle(title);
+        return staleResults.store(bookRepository.findByTitle(title), "books.byTitle", title);
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyBookListResult")
+    @HystrixCommand(fallbackMethod = "getStaleBookByAuthor")
     @Transactional(readOnly = true)
     @Override
     public List<Book> getBookByAuthor(String author) {
-        return bookRepository.findByAuthor_Name(author);
+        return staleResults.store(bookRepository.findByAuthor_Name(author), "books.byAuthor", author);
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyBookListResult")
+    @HystrixCommand(fallbackMethod = "getStaleBookByGenre")
     @Transactional(readOnly = true)
     @Override
     public List<Book> getBookByGenre(String genre) {
-        return bookRepository.findByGenre_Name(genre);
+        return staleResults.store(bookRepository.findByGenre_Name(genre), "books.byGenre", genre);
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyBookResult")
+    @HystrixCommand(fallbackMethod = "getStaleBookByComment")
     @Transactional(readOnly = true)
     @Override
     public Book getBookByComment(String commentId) {
-        return bookRepository.findByTitle(commentRepository.findById(commentId)
-                .orElseThrow(() -> new IllegalArgumentException("Incorrect comment id")).getBook().getTitle()).get(0);
+        return staleResults.store(bookRepository.findByCommentId(commentId)
+                        .orElseThrow(() -> new IllegalArgumentException("Incorrect comment id")),
+                "books.byComment", commentId);
+    }
+
+    @HystrixCommand(fallbackMethod = "getStaleBookWithComments")
+    @Transactional(readOnly = true)
+    @Override
+    public BookWithComments getBookWithComments(String id) {
+        return staleResults.store(bookRepository.findWithCommentsById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Incorrect book id")), "books.withComments", id);
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyBookListResult")
+    @HystrixCommand(fallbackMethod = "getStaleAll", threadPoolKey = "libraryScans")
     @Transactional(readOnly = true)
     @Override
     public List<Book> getAll() {
-        return bookRepository.findAll();
+        return staleResults.store(bookRepository.findAll(), "books.all");
     }
 
-    @HystrixCommand
+    @HystrixCommand(fallbackMethod = "getStalePage", threadPoolKey = "libraryScans")
+    @Transactional(readOnly = true)
+    @Override
+    public List<Book> getPage(String after, int limit) {
+        final PageRequest page = PageRequest.of(0, limit, Sort.by("id"));
+
+        return staleResults.store(after == null ? bookRepository.findAllBy(page) :
+                bookRepository.findByIdGreaterThan(after, page), "books.page", after, limit);
+    }
+
+    @HystrixCommand(fallbackMethod = "getStaleProjection", threadPoolKey = "libraryScans")
+    @Transactional(readOnly = true)
+    @Override
+    public List<Book> getProjection(Collection<String> fields, String after, int limit) {
+        return staleResults.store(bookRepository.findProjected(fields, after, limit), "books.projection",
+                fields, after, limit);
+    }
+
+    @HystrixCommand(defaultFallback = "getEmptyBookStreamResult", threadPoolKey = "libraryScans")
+    @Transactional(readOnly = true)
+    @Override
+    public Stream<Book> getAllAsStream() {
+        return bookRepository.streamAllBy();
+    }
+
+    @HystrixCommand(ignoreExceptions = VersionConflictException.class)
     @Transactional
     @Override
     public void updateBook(String id, String title, String authorNameParameter,
@@ -98,21 +153,88 @@ public class BookServiceImpl implements BookService {
         book.setGenre(genre);
         book.setTitle(title);
 
-        bookRepository.save(book);
+        try {
+            bookRepository.save(book);
+        } catch (OptimisticLockingFailureException e) {
+            throw new VersionConflictException("Book " + id + " was modified concurrently");
+        }
+
+        if (!oldBookTitle.equals(title))
+            commentRepository.updateBookTitle(id, title);
+        staleResults.forget("books.", "comments.", "search");
+    }
+
+    @HystrixCommand(ignoreExceptions = VersionConflictException.class)
+    @Transactional
+    @Override
+    public Book patchBook(String id, long version, String title, String authorName, String genreName) {
+        final Map<String, Object> fields = new LinkedHashMap<>();
+        if (title != null)
+            fields.put("title", title);
+        if (authorName != null)
+            fields.put("author", getAuthor(authorName));
+        if (genreName != null)
+            fields.put("genre", getGenre(genreName));
 
-        final List<Comment> commentList = commentRepository.findByBook_Title(oldBookTitle);
+        final Book book = bookRepository.patch(id, version, fields).orElseThrow(() -> bookRepository.existsById(id)
+                ? new VersionConflictException("Book " + id + " was modified concurrently")
+                : new IllegalArgumentException("Incorrect book id"));
 
-        commentList.forEach(c -> c.setBook(title));
-        commentRepository.saveAll(commentList);
+        if (title != null)
+            commentRepository.updateBookTitle(id, title);
+        staleResults.forget("books.", "comments.", "search");
+
+        return book;
     }
 
     @HystrixCommand
     @Transactional
     @Override
     public void deleteBook(String id) {
-        commentRepository.deleteByBook_Title(bookRepository.findById(id).orElseThrow
-                (() -> new IllegalArgumentException("Incorrect book id")).getTitle());
-        bookRepository.deleteById(id);
+        commentRepository.deleteByBook_Id(id);
+        if (bookRepository.deleteByIdIn(List.of(id)) == 0)
+            throw new IllegalArgumentException("Incorrect book id");
+        staleResults.forget("books.", "comments.", "search");
+    }
+
+    public Book getStaleBookById(String id, Throwable failure) {
+        return staleResults.recall(this::getEmptyBookResult, failure, "books.byId", id);
+    }
+
+    public List<Book> getStaleBooksByIds(Collection<String> ids, Throwable failure) {
+        return staleResults.recall(this::getEmptyBookListResult, failure, "books.byIds", ids);
+    }
+
+    public List<Book> getStaleBookByTitle(String title, Throwable failure) {
+        return staleResults.recall(this::getEmptyBookListResult, failure, "books.byTitle", title);
+    }
+
+    public List<Book> getStaleBookByAuthor(String author, Throwable failure) {
+        return staleResults.recall(this::getEmptyBookListResult, failure, "books.byAuthor", author);
+    }
+
+    public List<Book> getStaleBookByGenre(String genre, Throwable failure) {
+        return staleResults.recall(this::getEmptyBookListResult, failure, "books.byGenre", genre);
+    }
+
+    public Book getStaleBookByComment(String commentId, Throwable failure) {
+        return staleResults.recall(this::getEmptyBookResult, failure, "books.byComment", commentId);
+    }
+
+    public BookWithComments getStaleBookWithComments(String id, Throwable failure) {
+        return staleResults.recall(this::getEmptyBookWithCommentsResult, failure, "books.withComments", id);
+    }
+
+    public List<Book> getStaleAll(Throwable failure) {
+        return staleResults.recall(this::getEmptyBookListResult, failure, "books.all");
+    }
+
+    public List<Book> getStalePage(String after, int limit, Throwable failure) {
+        return staleResults.recall(this::getEmptyBookListResult, failure, "books.page", after, limit);
+    }
+
+    public List<Book> getStaleProjection(Collection<String> fields, String after, int limit, Throwable failure) {
+        return staleResults.recall(this::getEmptyBookListResult, failure, "books.projection", fields, after, limit);
     }
 
     public Book getEmptyBookResult(){
@@ -124,29 +246,23 @@ public class BookServiceImpl implements BookService {
 
         return book;
     }
+    public BookWithComments getEmptyBookWithCommentsResult() {
+        return new BookWithComments(getEmptyBookResult(), List.of());
+    }
+
     public List<Book> getEmptyBookListResult(){
         return List.of();
     }
 
-    private Author getAuthor(String authorName) {
-        final List<Author> authors = authorRepository.findByName(authorName);
+    public Stream<Book> getEmptyBookStreamResult() {
+        return Stream.empty();
+    }
 
-        if (authors.isEmpty()) {
-            final Author author = new Author(authorName);
-            authorRepository.save(author);
-            return author;
-        } else
-            return authors.get(0);
+    private Author getAuthor(String authorName) {
+        return authorRepository.findOrCreateByName(authorName);
     }
 
     private Genre getGenre(String genreName) {
-        final Optional<Genre> optionalGenre = genreRepository.findByName(genreName);
-
-        if (optionalGenre.isEmpty()) {
-            final Genre genre = new Genre(genreName);
-            genreRepository.save(genre);
-            return genre;
-        } else
-            return optionalGenre.get();
+        return genreRepository.findOrCreateByName(genreName);
     }
 }
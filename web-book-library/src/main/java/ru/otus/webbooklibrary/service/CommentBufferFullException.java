@@ -0,0 +1,11 @@
+package ru.otus.webbooklibrary.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.TOO_MANY_REQUESTS, reason = "Comment buffer is full, retry later")
+public class CommentBufferFullException extends RuntimeException {
+    public CommentBufferFullException() {
+        super("Comment buffer is full");
+    }
+}
@@ -0,0 +1,40 @@
+package ru.otus.webbooklibrary.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.otus.webbooklibrary.repository.BookRepository;
+
+import java.util.List;
+
+@Component
+public class CommentCountReconciler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CommentCountReconciler.class);
+
+    private final BookRepository bookRepository;
+    private final int chunkSize;
+
+    public CommentCountReconciler(BookRepository bookRepository,
+                                  @Value("${library.comment-counts.chunk-size:1000}") int chunkSize) {
+        this.bookRepository = bookRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    @Scheduled(cron = "${library.comment-counts.reconcile-cron:0 0 3 * * *}")
+    public long reconcile() {
+        long corrected = 0;
+        List<String> bookIds = bookRepository.findIdsAfter(null, chunkSize);
+
+        while (!bookIds.isEmpty()) {
+            corrected += bookRepository.reconcileCommentCounts(bookIds);
+
+            bookIds = bookIds.size() < chunkSize ? List.of() :
+                    bookRepository.findIdsAfter(bookIds.get(bookIds.size() - 1), chunkSize);
+        }
+
+        LOGGER.info("Comment count reconciliation corrected {} books", corrected);
+        return corrected;
+    }
+}
@@ -2,20 +2,32 @@ package ru.otus.webbooklibrary.service;
 
 import ru.otus.webbooklibrary.domain.Comment;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CommentService {
     String saveComment(String bookTitle, String commentContent);
 
     Comment getCommentById(String id);
 
+    List<Comment> getCommentsByIds(Collection<String> ids);
+
     List<Comment> getCommentByContent(String content);
 
     List<Comment> getCommentsByBook(String bookTitle);
 
     List<Comment> getAll();
 
+    List<Comment> getPage(String after, int limit);
+
+    List<Comment> getProjection(Collection<String> fields, String after, int limit);
+
+    Stream<Comment> getAllAsStream();
+
     String updateComment(String id, String commentContent);
 
+    Comment patchComment(String id, long version, String content);
+
     String deleteComment(String id);
 }
@@ -1,65 +1,126 @@
 package ru.otus.webbooklibrary.service;
 
 import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.otus.webbooklibrary.domain.Book;
 import ru.otus.webbooklibrary.domain.Comment;
 import ru.otus.webbooklibrary.repository.BookRepository;
 import ru.otus.webbooklibrary.repository.CommentRepository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
 
 @Service
 public class CommentServiceImpl implements CommentService {
     private final CommentRepository commentRepository;
     private final BookRepository bookRepository;
+    private final ObjectProvider<CommentWriteBehindBuffer> writeBehindBuffer;
+    private final StaleResultCache staleResults;
+    private final RequestCollapser<Comment> commentLookups;
 
-    public CommentServiceImpl(CommentRepository commentRepository, BookRepository bookRepository) {
+    public CommentServiceImpl(CommentRepository commentRepository, BookRepository bookRepository,
+                              ObjectProvider<CommentWriteBehindBuffer> writeBehindBuffer,
+                              StaleResultCache staleResults, RequestCollapsers requestCollapsers) {
         this.commentRepository = commentRepository;
         this.bookRepository = bookRepository;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.staleResults = staleResults;
+        this.commentLookups = requestCollapsers.create("comments", commentRepository::findAllById, Comment::getId);
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyStringResult")
+    @HystrixCommand(defaultFallback = "getEmptyStringResult", ignoreExceptions = CommentBufferFullException.class)
     @Transactional
     @Override
     public String saveComment(String bookTitle, String commentContent) {
-        final Comment comment = new Comment(commentContent, bookTitle);
-
-        commentRepository.save(comment);
+        final Book book = bookRepository.findByTitle(bookTitle).stream().findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Incorrect book title"));
+        final Comment comment = new Comment(commentContent, book);
+
+        final CommentWriteBehindBuffer buffer = writeBehindBuffer.getIfAvailable();
+        if (buffer == null) {
+            commentRepository.save(comment);
+            bookRepository.incrementCommentCount(book.getId(), 1, Instant.now());
+            staleResults.forget("comments.", "books.", "search");
+        } else {
+            comment.setId(new ObjectId().toHexString());
+            buffer.offer(comment);
+        }
 
         return "You successfully added a comment to " + bookTitle;
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyCommentResult")
+    @HystrixCommand(fallbackMethod = "getStaleCommentById")
     @Transactional(readOnly = true)
     @Override
     public Comment getCommentById(String id){
-        return commentRepository.findById(id).orElseThrow
-                (() -> new IllegalArgumentException("Incorrect comment id"));
+        return staleResults.store(commentLookups.load(id, () -> new IllegalArgumentException("Incorrect comment id")),
+                "comments.byId", id);
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyCommentListResult")
+    @HystrixCommand(fallbackMethod = "getStaleCommentsByIds")
+    @Transactional(readOnly = true)
+    @Override
+    public List<Comment> getCommentsByIds(Collection<String> ids) {
+        return staleResults.store(RequestCollapser.inRequestOrder(ids,
+                commentRepository.findAllById(ids), Comment::getId), "comments.byIds", ids);
+    }
+
+    @HystrixCommand(fallbackMethod = "getStaleCommentByContent")
     @Transactional(readOnly = true)
     @Override
     public List<Comment> getCommentByContent(String content) {
-        return commentRepository.findByContent(content);
+        return staleResults.store(commentRepository.findByContent(content), "comments.byContent", content);
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyCommentListResult")
+    @HystrixCommand(fallbackMethod = "getStaleCommentsByBook")
     @Transactional(readOnly = true)
     @Override
     public List<Comment> getCommentsByBook(String bookTitle) {
-        return commentRepository.findByBook_Title(bookTitle);
+        return staleResults.store(commentRepository.findByBook_Title(bookTitle), "comments.byBook", bookTitle);
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyCommentListResult")
+    @HystrixCommand(fallbackMethod = "getStaleAll", threadPoolKey = "libraryScans")
     @Transactional(readOnly = true)
     @Override
     public List<Comment> getAll() {
-        return commentRepository.findAll();
+        return staleResults.store(commentRepository.findAll(), "comments.all");
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyStringResult")
+    @HystrixCommand(fallbackMethod = "getStalePage", threadPoolKey = "libraryScans")
+    @Transactional(readOnly = true)
+    @Override
+    public List<Comment> getPage(String after, int limit) {
+        final PageRequest page = PageRequest.of(0, limit, Sort.by("id"));
+
+        return staleResults.store(after == null ? commentRepository.findAllBy(page) :
+                commentRepository.findByIdGreaterThan(after, page), "comments.page", after, limit);
+    }
+
+    @HystrixCommand(fallbackMethod = "getStaleProjection", threadPoolKey = "libraryScans")
+    @Transactional(readOnly = true)
+    @Override
+    public List<Comment> getProjection(Collection<String> fields, String after, int limit) {
+        return staleResults.store(commentRepository.findProjected(fields, after, limit), "comments.projection",
+                fields, after, limit);
+    }
+
+    @HystrixCommand(defaultFallback = "getEmptyCommentStreamResult", threadPoolKey = "libraryScans")
+    @Transactional(readOnly = true)
+    @Override
+    public Stream<Comment> getAllAsStream() {
+        return commentRepository.streamAllBy();
+    }
+
+    @HystrixCommand(defaultFallback = "getEmptyStringResult", ignoreExceptions = VersionConflictException.class)
     @Transactional
     @Override
     public String updateComment(String id, String commentContent) {
@@ -69,11 +130,30 @@ public class CommentServiceImpl implements CommentService {
         comment.setContent(commentContent);
         comment.setBook(comment.getBook().getTitle());
 
-        commentRepository.save(comment);
+        try {
+            commentRepository.save(comment);
+        } catch (OptimisticLockingFailureException e) {
+            throw new VersionConflictException("Comment " + id + " was modified concurrently");
+        }
+
+        staleResults.forget("comments.", "books.withComments", "books.byComment", "search");
 
         return comment.getBook().getTitle() + " comment was updated";
     }
 
+    @HystrixCommand(ignoreExceptions = VersionConflictException.class)
+    @Transactional
+    @Override
+    public Comment patchComment(String id, long version, String content) {
+        final Comment comment = commentRepository.patch(id, version, Map.of("content", content)).orElseThrow(() ->
+                commentRepository.existsById(id)
+                        ? new VersionConflictException("Comment " + id + " was modified concurrently")
+                        : new IllegalArgumentException("Incorrect comment id"));
+        staleResults.forget("comments.", "books.withComments", "books.byComment", "search");
+
+        return comment;
+    }
+
     @HystrixCommand(defaultFallback = "getEmptyStringResult")
     @Transactional
     @Override
@@ -82,10 +162,42 @@ public class CommentServiceImpl implements CommentService {
                 .orElseThrow(() -> new IllegalArgumentException("Incorrect comment id"));
 
         commentRepository.deleteById(id);
+        if (comment.getBook().getId() != null)
+            bookRepository.incrementCommentCount(comment.getBook().getId(), -1, null);
+        staleResults.forget("comments.", "books.withComments", "books.byComment", "search");
 
         return comment.getBook().getTitle() + " comment was deleted";
     }
 
+    public Comment getStaleCommentById(String id, Throwable failure) {
+        return staleResults.recall(this::getEmptyCommentResult, failure, "comments.byId", id);
+    }
+
+    public List<Comment> getStaleCommentsByIds(Collection<String> ids, Throwable failure) {
+        return staleResults.recall(this::getEmptyCommentListResult, failure, "comments.byIds", ids);
+    }
+
+    public List<Comment> getStaleCommentByContent(String content, Throwable failure) {
+        return staleResults.recall(this::getEmptyCommentListResult, failure, "comments.byContent", content);
+    }
+
+    public List<Comment> getStaleCommentsByBook(String bookTitle, Throwable failure) {
+        return staleResults.recall(this::getEmptyCommentListResult, failure, "comments.byBook", bookTitle);
+    }
+
+    public List<Comment> getStaleAll(Throwable failure) {
+        return staleResults.recall(this::getEmptyCommentListResult, failure, "comments.all");
+    }
+
+    public List<Comment> getStalePage(String after, int limit, Throwable failure) {
+        return staleResults.recall(this::getEmptyCommentListResult, failure, "comments.page", after, limit);
+    }
+
+    public List<Comment> getStaleProjection(Collection<String> fields, String after, int limit, Throwable failure) {
+        return staleResults.recall(this::getEmptyCommentListResult, failure, "comments.projection",
+                fields, after, limit);
+    }
+
     public String getEmptyStringResult() {
         return "Operation can not be executed.";
     }
@@ -102,4 +214,8 @@ public class CommentServiceImpl implements CommentService {
     public List<Comment> getEmptyCommentListResult() {
         return List.of();
     }
+
+    public Stream<Comment> getEmptyCommentStreamResult() {
+        return Stream.empty();
+    }
 }
@@ -0,0 +1,355 @@
+package ru.otus.webbooklibrary.service;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.bulk.BulkWriteError;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MongoConverter;
+import org.springframework.stereotype.Component;
+import ru.otus.webbooklibrary.domain.Comment;
+import ru.otus.webbooklibrary.repository.BookRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Component
+@ConditionalOnProperty(prefix = "library.comments.write-behind", name = "enabled", havingValue = "true")
+public class CommentWriteBehindBuffer implements DisposableBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CommentWriteBehindBuffer.class);
+
+    private final MongoTemplate mongoTemplate;
+    private final BookRepository bookRepository;
+    private final MongoConverter converter;
+    private final StaleResultCache staleResults;
+    private final BlockingQueue<Comment> queue;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final Path journal;
+    private final Path replay;
+    private final Path deadLetters;
+    private final long maxJournalBytes;
+    private final int maxAttempts;
+    private final Timer flushTimer;
+    private final Counter rejectedCounter;
+    private final Counter deadLetterCounter;
+    private final Thread flusher;
+    private final Object journalLock = new Object();
+    private final Set<String> insertedBeforeRetry = ConcurrentHashMap.newKeySet();
+    private BufferedWriter journalWriter;
+    private volatile boolean running = true;
+
+    public CommentWriteBehindBuffer(MongoTemplate mongoTemplate, BookRepository bookRepository,
+                                    StaleResultCache staleResults, MeterRegistry meterRegistry,
+                                    @Value("${library.comments.write-behind.capacity:10000}") int capacity,
+                                    @Value("${library.comments.write-behind.batch-size:500}") int batchSize,
+                                    @Value("${library.comments.write-behind.flush-interval:200ms}")
+                                            Duration flushInterval,
+                                    @Value("${library.comments.write-behind.journal:comments.journal}") Path journal,
+                                    @Value("${library.comments.write-behind.max-journal-bytes:67108864}")
+                                            long maxJournalBytes,
+                                    @Value("${library.comments.write-behind.max-attempts:8}") int maxAttempts)
+            throws IOException {
+        this.mongoTemplate = mongoTemplate;
+        this.bookRepository = bookRepository;
+        this.converter = mongoTemplate.getConverter();
+        this.staleResults = staleResults;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = flushInterval.toNanos();
+        this.journal = journal.toAbsolutePath();
+        this.replay = this.journal.resolveSibling(this.journal.getFileName() + ".replay");
+        this.deadLetters = this.journal.resolveSibling(this.journal.getFileName() + ".dead");
+        this.maxJournalBytes = maxJournalBytes;
+        this.maxAttempts = maxAttempts;
+        this.flushTimer = Timer.builder("library.comments.buffer.flush").register(meterRegistry);
+        this.rejectedCounter = Counter.builder("library.comments.buffer.rejected").register(meterRegistry);
+        this.deadLetterCounter = Counter.builder("library.comments.buffer.dead-lettered").register(meterRegistry);
+        Gauge.builder("library.comments.buffer.size", queue, BlockingQueue::size).register(meterRegistry);
+        Gauge.builder("library.comments.buffer.remaining", queue, BlockingQueue::remainingCapacity)
+                .register(meterRegistry);
+
+        Files.createDirectories(this.journal.getParent());
+        moveJournalToReplay();
+        this.journalWriter = openJournal(StandardOpenOption.TRUNCATE_EXISTING);
+
+        this.flusher = new Thread(this::flushLoop, "comment-write-behind");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    public void offer(Comment comment) {
+        synchronized (journalLock) {
+            if (!running || queue.remainingCapacity() == 0) {
+                rejectedCounter.increment();
+                throw new CommentBufferFullException();
+            }
+
+            try {
+                journalWriter.write(toJson(comment));
+                journalWriter.newLine();
+                journalWriter.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Comment journal is not writable", e);
+            }
+            queue.add(comment);
+        }
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        synchronized (journalLock) {
+            running = false;
+        }
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(30));
+
+        final List<Comment> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty())
+            flush(remaining);
+
+        synchronized (journalLock) {
+            journalWriter.close();
+            if (queue.isEmpty())
+                Files.deleteIfExists(journal);
+        }
+    }
+
+    private void flushLoop() {
+        try {
+            replayJournal();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (RuntimeException | IOException e) {
+            LOGGER.error("Replay of journaled comments from {} failed, it is kept for the next start", replay, e);
+        }
+
+        final List<Comment> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                fill(batch);
+                if (!batch.isEmpty()) {
+                    deliver(batch);
+                    batch.clear();
+                    compactJournal();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queue.addAll(batch);
+                return;
+            } catch (IOException e) {
+                LOGGER.warn("Comment journal compaction failed", e);
+            }
+        }
+        queue.addAll(batch);
+    }
+
+    private void deliver(List<Comment> batch) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                flush(batch);
+                return;
+            } catch (RuntimeException e) {
+                if (attempt >= maxAttempts) {
+                    deadLetter(batch, e);
+                    return;
+                }
+
+                LOGGER.warn("Comment flush of {} comments failed (attempt {} of {}), retrying", batch.size(),
+                        attempt, maxAttempts, e);
+                TimeUnit.NANOSECONDS.sleep(flushIntervalNanos << Math.min(attempt - 1, 6));
+            }
+        }
+    }
+
+    private void fill(List<Comment> batch) throws InterruptedException {
+        final Comment first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first == null)
+            return;
+
+        batch.add(first);
+        final long deadline = System.nanoTime() + flushIntervalNanos;
+        while (batch.size() < batchSize) {
+            queue.drainTo(batch, batchSize - batch.size());
+            final long remaining = deadline - System.nanoTime();
+            if (batch.size() >= batchSize || remaining <= 0)
+                return;
+
+            final Comment next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null)
+                return;
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<Comment> batch) {
+        flushTimer.record(() -> {
+            batch.forEach(comment -> comment.setVersion(0L));
+            try {
+                mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Comment.class).insert(List.copyOf(batch))
+                        .execute();
+                countInserted(batch, Set.of());
+            } catch (BulkOperationException e) {
+                final Set<Integer> failed = e.getErrors().stream().map(BulkWriteError::getIndex)
+                        .collect(Collectors.toSet());
+                if (!e.getErrors().stream().allMatch(CommentWriteBehindBuffer::isDuplicate)) {
+                    rememberInserted(batch, failed);
+                    throw e;
+                }
+                countInserted(batch, failed);
+            }
+        });
+    }
+
+    private void deadLetter(List<Comment> batch, RuntimeException failure) {
+        final Set<Integer> failed = failure instanceof BulkOperationException
+                ? ((BulkOperationException) failure).getErrors().stream().map(BulkWriteError::getIndex)
+                .collect(Collectors.toSet())
+                : IntStream.range(0, batch.size()).boxed().collect(Collectors.toSet());
+        final Set<Integer> duplicates = failure instanceof BulkOperationException
+                ? ((BulkOperationException) failure).getErrors().stream().filter(CommentWriteBehindBuffer::isDuplicate)
+                .map(BulkWriteError::getIndex).collect(Collectors.toSet())
+                : Set.of();
+        final List<Comment> rejected = IntStream.range(0, batch.size())
+                .filter(index -> failed.contains(index) && !duplicates.contains(index))
+                .mapToObj(batch::get)
+                .filter(comment -> !insertedBeforeRetry.contains(comment.getId()))
+                .collect(Collectors.toList());
+
+        try {
+            Files.write(deadLetters, rejected.stream().map(this::toJson).collect(Collectors.toList()),
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            LOGGER.error("Gave up on {} comments after {} failed flush attempts, moved them to {}",
+                    rejected.size(), maxAttempts, deadLetters, failure);
+        } catch (IOException e) {
+            LOGGER.error("Gave up on {} comments after {} failed flush attempts and could not write them to {}, "
+                    + "dropping {}", rejected.size(), maxAttempts, deadLetters,
+                    rejected.stream().map(Comment::getId).collect(Collectors.toList()), e);
+        }
+        deadLetterCounter.increment(rejected.size());
+
+        try {
+            countInserted(batch, failed);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Comment counts of a dead-lettered batch were not updated, reconciliation will repair them",
+                    e);
+            batch.forEach(comment -> insertedBeforeRetry.remove(comment.getId()));
+        }
+    }
+
+    private void rememberInserted(List<Comment> batch, Set<Integer> failed) {
+        IntStream.range(0, batch.size())
+                .filter(index -> !failed.contains(index))
+                .forEach(index -> insertedBeforeRetry.add(batch.get(index).getId()));
+    }
+
+    private void countInserted(List<Comment> batch, Set<Integer> failed) {
+        rememberInserted(batch, failed);
+        final Map<String, Long> counts = batch.stream()
+                .filter(comment -> insertedBeforeRetry.contains(comment.getId()))
+                .map(comment -> comment.getBook().getId())
+                .filter(Objects::nonNull)
+                .collect(Collectors.groupingBy(Function.identity(), Collectors.counting()));
+        bookRepository.incrementCommentCounts(counts, Instant.now());
+        batch.forEach(comment -> insertedBeforeRetry.remove(comment.getId()));
+        staleResults.forget("comments.", "books.", "search");
+    }
+
+    private static boolean isDuplicate(BulkWriteError error) {
+        return ErrorCategory.fromErrorCode(error.getCode()) == ErrorCategory.DUPLICATE_KEY;
+    }
+
+    private void compactJournal() throws IOException {
+        synchronized (journalLock) {
+            if (queue.isEmpty()) {
+                journalWriter.close();
+                journalWriter = openJournal(StandardOpenOption.TRUNCATE_EXISTING);
+            } else if (Files.size(journal) > maxJournalBytes) {
+                final Path pending = journal.resolveSibling(journal.getFileName() + ".pending");
+                Files.write(pending, queue.stream().map(this::toJson).collect(Collectors.toList()),
+                        StandardCharsets.UTF_8);
+                journalWriter.close();
+                Files.move(pending, journal, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                journalWriter = openJournal(StandardOpenOption.APPEND);
+            }
+        }
+    }
+
+    private void moveJournalToReplay() throws IOException {
+        if (!Files.exists(journal))
+            return;
+
+        if (Files.exists(replay)) {
+            Files.write(replay, Files.readAllBytes(journal), StandardOpenOption.APPEND);
+            Files.delete(journal);
+        } else {
+            Files.move(journal, replay, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    private void replayJournal() throws IOException, InterruptedException {
+        if (!Files.exists(replay))
+            return;
+
+        final List<Comment> pending = Files.readAllLines(replay, StandardCharsets.UTF_8).stream()
+                .filter(line -> !line.isBlank())
+                .map(line -> converter.read(Comment.class, Document.parse(line)))
+                .collect(Collectors.toList());
+        int from = 0;
+        for (; from < pending.size() && running; from += batchSize)
+            deliver(pending.subList(from, Math.min(from + batchSize, pending.size())));
+        if (from < pending.size())
+            return;
+
+        Files.delete(replay);
+        if (!pending.isEmpty())
+            LOGGER.info("Replayed {} journaled comments from {}", pending.size(), replay);
+    }
+
+    private BufferedWriter openJournal(StandardOpenOption mode) throws IOException {
+        return Files.newBufferedWriter(journal, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, mode);
+    }
+
+    private String toJson(Comment comment) {
+        final Document document = new Document();
+        converter.write(comment, document);
+        return document.toJson();
+    }
+}
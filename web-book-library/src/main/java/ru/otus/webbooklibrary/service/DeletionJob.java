@@ -0,0 +1,100 @@
+package ru.otus.webbooklibrary.service;
+
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class DeletionJob {
+    private final String id;
+    private final String target;
+    private final String targetId;
+    private final String name;
+    private final long totalBooks;
+    private final Instant startedAt;
+    private final AtomicLong deletedBooks = new AtomicLong();
+    private final AtomicLong deletedComments = new AtomicLong();
+    private volatile Status status = Status.RUNNING;
+    private volatile String error;
+    private volatile Instant finishedAt;
+
+    public DeletionJob(String target, String targetId, String name, long totalBooks) {
+        this.id = UUID.randomUUID().toString();
+        this.target = target;
+        this.targetId = targetId;
+        this.name = name;
+        this.totalBooks = totalBooks;
+        this.startedAt = Instant.now();
+    }
+
+    public static DeletionJob rejected(String error) {
+        final DeletionJob job = new DeletionJob(null, null, null, 0);
+        job.status = Status.REJECTED;
+        job.error = error;
+        job.finishedAt = job.startedAt;
+        return job;
+    }
+
+    public void progress(long books, long comments) {
+        deletedBooks.addAndGet(books);
+        deletedComments.addAndGet(comments);
+    }
+
+    public void complete() {
+        finishedAt = Instant.now();
+        status = Status.COMPLETED;
+    }
+
+    public void fail(Throwable cause) {
+        error = cause.getMessage();
+        finishedAt = Instant.now();
+        status = Status.FAILED;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public String getTargetId() {
+        return targetId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getTotalBooks() {
+        return totalBooks;
+    }
+
+    public long getDeletedBooks() {
+        return deletedBooks.get();
+    }
+
+    public long getDeletedComments() {
+        return deletedComments.get();
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED, REJECTED
+    }
+}
@@ -0,0 +1,11 @@
+package ru.otus.webbooklibrary.service;
+
+import java.util.Optional;
+
+public interface DeletionJobService {
+    DeletionJob deleteAuthor(String id);
+
+    DeletionJob deleteGenre(String id);
+
+    Optional<DeletionJob> getJob(String id);
+}
@@ -0,0 +1,95 @@
+package ru.otus.webbooklibrary.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.domain.Genre;
+import ru.otus.webbooklibrary.repository.AuthorRepository;
+import ru.otus.webbooklibrary.repository.BookRepository;
+import ru.otus.webbooklibrary.repository.GenreRepository;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+@Service
+public class DeletionJobServiceImpl implements DeletionJobService {
+    private final AuthorRepository authorRepository;
+    private final GenreRepository genreRepository;
+    private final BookRepository bookRepository;
+    private final BookCascadeDeleter bookCascadeDeleter;
+    private final TaskExecutor taskExecutor;
+    private final StaleResultCache staleResults;
+    private final Cache<String, DeletionJob> jobs;
+
+    public DeletionJobServiceImpl(AuthorRepository authorRepository, GenreRepository genreRepository,
+                                  BookRepository bookRepository, BookCascadeDeleter bookCascadeDeleter,
+                                  TaskExecutor taskExecutor, StaleResultCache staleResults,
+                                  @Value("${library.cascade.job-retention:1h}") Duration jobRetention) {
+        this.authorRepository = authorRepository;
+        this.genreRepository = genreRepository;
+        this.bookRepository = bookRepository;
+        this.bookCascadeDeleter = bookCascadeDeleter;
+        this.taskExecutor = taskExecutor;
+        this.staleResults = staleResults;
+        this.jobs = Caffeine.newBuilder().expireAfterWrite(jobRetention).build();
+    }
+
+    @HystrixCommand(defaultFallback = "getRejectedJobResult")
+    @Transactional
+    @Override
+    public DeletionJob deleteAuthor(String id) {
+        final Author author = authorRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Incorrect author id"));
+        final DeletionJob job = new DeletionJob("author", id, author.getName(), bookRepository.countByAuthor_Id(id));
+
+        authorRepository.deleteById(id);
+        staleResults.forget("authors.", "search");
+
+        return submit(job, deletionJob -> bookCascadeDeleter.deleteByAuthor(id, deletionJob));
+    }
+
+    @HystrixCommand(defaultFallback = "getRejectedJobResult")
+    @Transactional
+    @Override
+    public DeletionJob deleteGenre(String id) {
+        final Genre genre = genreRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Incorrect genre id"));
+        final DeletionJob job = new DeletionJob("genre", id, genre.getName(), bookRepository.countByGenre_Id(id));
+
+        genreRepository.deleteById(id);
+        staleResults.forget("genres.");
+
+        return submit(job, deletionJob -> bookCascadeDeleter.deleteByGenre(id, deletionJob));
+    }
+
+    @Override
+    public Optional<DeletionJob> getJob(String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id));
+    }
+
+    public DeletionJob getRejectedJobResult() {
+        return DeletionJob.rejected("Operation can not be executed.");
+    }
+
+    private DeletionJob submit(DeletionJob job, Consumer<DeletionJob> cascade) {
+        jobs.put(job.getId(), job);
+        taskExecutor.execute(() -> {
+            try {
+                cascade.accept(job);
+                job.complete();
+            } catch (RuntimeException e) {
+                job.fail(e);
+            } finally {
+                staleResults.forget("books.", "comments.", "search");
+            }
+        });
+
+        return job;
+    }
+}
@@ -2,17 +2,25 @@ package ru.otus.webbooklibrary.service;
 
 import ru.otus.webbooklibrary.domain.Genre;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface GenreService {
     String saveGenre(String name);
 
     Genre getGenreById(String id);
 
+    List<Genre> getGenresByIds(Collection<String> ids);
+
     Genre getGenreByName(String name);
 
     List<Genre> getAll();
 
+    List<Genre> getPage(String after, int limit);
+
+    Stream<Genre> getAllAsStream();
+
     String updateGenre(String id, String name);
 
     String deleteGenre(String id);
@@ -1,55 +1,92 @@
 package ru.otus.webbooklibrary.service;
 
 import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.otus.webbooklibrary.domain.Book;
 import ru.otus.webbooklibrary.domain.Genre;
 import ru.otus.webbooklibrary.repository.BookRepository;
 import ru.otus.webbooklibrary.repository.GenreRepository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Service
 public class GenreServiceImpl implements GenreService {
     private final GenreRepository genreRepository;
     private final BookRepository bookRepository;
+    private final BookCascadeDeleter bookCascadeDeleter;
+    private final StaleResultCache staleResults;
+    private final RequestCollapser<Genre> genreLookups;
 
-    public GenreServiceImpl(GenreRepository genreRepository, BookRepository bookRepository) {
+    public GenreServiceImpl(GenreRepository genreRepository, BookRepository bookRepository,
+                            BookCascadeDeleter bookCascadeDeleter, StaleResultCache staleResults,
+                            RequestCollapsers requestCollapsers) {
         this.genreRepository = genreRepository;
         this.bookRepository = bookRepository;
+        this.bookCascadeDeleter = bookCascadeDeleter;
+        this.staleResults = staleResults;
+        this.genreLookups = requestCollapsers.create("genres", genreRepository::findAllById, Genre::getId);
     }
 
     @HystrixCommand(defaultFallback = "getEmptyStringResult")
     @Transactional
     @Override
     public String saveGenre(String name) {
-        final Genre genre = new Genre(name);
-        genreRepository.save(genre);
+        final Genre genre = genreRepository.findOrCreateByName(name);
+        staleResults.forget("genres.");
 
         return String.format("You successfully saved a %s to repository", genre.getName());
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyGenreResult")
+    @HystrixCommand(fallbackMethod = "getStaleGenreById")
     @Transactional(readOnly = true)
     @Override
     public Genre getGenreById(String id){
-        return genreRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("Incorrect genre id"));
+        return staleResults.store(genreLookups.load(id, () -> new IllegalArgumentException("Incorrect genre id")),
+                "genres.byId", id);
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyGenreResult")
+    @HystrixCommand(fallbackMethod = "getStaleGenresByIds")
+    @Transactional(readOnly = true)
+    @Override
+    public List<Genre> getGenresByIds(Collection<String> ids) {
+        return staleResults.store(RequestCollapser.inRequestOrder(ids,
+                genreRepository.findAllById(ids), Genre::getId), "genres.byIds", ids);
+    }
+
+    @HystrixCommand(fallbackMethod = "getStaleGenreByName")
     @Transactional(readOnly = true)
     @Override
     public Genre getGenreByName(String name) {
-        return genreRepository.findByName(name).orElseThrow
-                (() -> new IllegalArgumentException("Incorrect name"));
+        return staleResults.store(genreRepository.findByName(name).orElseThrow
+                (() -> new IllegalArgumentException("Incorrect name")), "genres.byName", name);
     }
 
-    @HystrixCommand(defaultFallback = "getEmptyGenreListResult")
+    @HystrixCommand(fallbackMethod = "getStaleAll", threadPoolKey = "libraryScans")
     @Transactional(readOnly = true)
     @Override
     public List<Genre> getAll() {
-        return genreRepository.findAll();
+        return staleResults.store(genreRepository.findAll(), "genres.all");
+    }
+
+    @HystrixCommand(fallbackMethod = "getStalePage", threadPoolKey = "libraryScans")
+    @Transactional(readOnly = true)
+    @Override
+    public List<Genre> getPage(String after, int limit) {
+        final PageRequest page = PageRequest.of(0, limit, Sort.by("id"));
+
+        return staleResults.store(after == null ? genreRepository.findAllBy(page) :
+                genreRepository.findByIdGreaterThan(after, page), "genres.page", after, limit);
+    }
+
+    @HystrixCommand(defaultFallback = "getEmptyGenreStreamResult", threadPoolKey = "libraryScans")
+    @Transactional(readOnly = true)
+    @Override
+    public Stream<Genre> getAllAsStream() {
+        return genreRepository.streamAllBy();
     }
 
     @HystrixCommand(defaultFallback = "getEmptyStringResult")
@@ -58,17 +95,11 @@ public class GenreServiceImpl implements GenreService {
     public String updateGenre(String id, String name) {
         final Genre genre = genreRepository.findById(id).orElseThrow
                 (() -> new IllegalArgumentException("Incorrect genre id"));
-        final String oldGenreName = genre.getName();
         genre.setName(name);
 
         genreRepository.save(genre);
-
-        final List<Book> bookList = bookRepository.findByGenre_Name(oldGenreName);
-
-        if (!bookList.isEmpty()) {
-            bookList.forEach(b -> b.setGenre(genre));
-            bookRepository.saveAll(bookList);
-        }
+        bookRepository.updateGenreName(id, name);
+        staleResults.forget("genres.", "books.", "search");
 
         return String.format("%s was updated", name);
     }
@@ -80,11 +111,32 @@ public class GenreServiceImpl implements GenreService {
         final Genre genre = genreRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Incorrect genre id"));
         genreRepository.deleteById(id);
-        bookRepository.deleteByGenre_Name(genre.getName());
+        bookCascadeDeleter.deleteByGenre(id, new DeletionJob("genre", id, genre.getName(), 0));
+        staleResults.forget("genres.", "books.", "search");
 
         return String.format("%s was deleted", genre.getName());
     }
 
+    public Genre getStaleGenreById(String id, Throwable failure) {
+        return staleResults.recall(this::getEmptyGenreResult, failure, "genres.byId", id);
+    }
+
+    public List<Genre> getStaleGenresByIds(Collection<String> ids, Throwable failure) {
+        return staleResults.recall(this::getEmptyGenreListResult, failure, "genres.byIds", ids);
+    }
+
+    public Genre getStaleGenreByName(String name, Throwable failure) {
+        return staleResults.recall(this::getEmptyGenreResult, failure, "genres.byName", name);
+    }
+
+    public List<Genre> getStaleAll(Throwable failure) {
+        return staleResults.recall(this::getEmptyGenreListResult, failure, "genres.all");
+    }
+
+    public List<Genre> getStalePage(String after, int limit, Throwable failure) {
+        return staleResults.recall(this::getEmptyGenreListResult, failure, "genres.page", after, limit);
+    }
+
     public String getEmptyStringResult() {
         return "Operation can not be executed.";
     }
@@ -100,4 +152,8 @@ public class GenreServiceImpl implements GenreService {
     public List<Genre> getEmptyGenreListResult() {
         return List.of();
     }
+
+    public Stream<Genre> getEmptyGenreStreamResult() {
+        return Stream.empty();
+    }
 }
@@ -0,0 +1,25 @@
+package ru.otus.webbooklibrary.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Author;
+
+import java.util.Collection;
+
+public interface ReactiveAuthorService {
+    Mono<String> saveAuthor(String name);
+
+    Mono<Author> getAuthorById(String id);
+
+    Flux<Author> getAuthorByName(String name);
+
+    Flux<Author> getAuthorsByIds(Collection<String> ids);
+
+    Flux<Author> getAll();
+
+    Flux<Author> getPage(String after, int limit);
+
+    Mono<String> updateAuthor(String id, String name);
+
+    Mono<String> deleteAuthor(String id);
+}
@@ -0,0 +1,109 @@
+package ru.otus.webbooklibrary.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.repository.ReactiveAuthorRepository;
+import ru.otus.webbooklibrary.repository.ReactiveBookRepository;
+
+import java.time.Duration;
+import java.util.Collection;
+
+@Profile("reactive")
+@Service
+public class ReactiveAuthorServiceImpl implements ReactiveAuthorService {
+    private final ReactiveAuthorRepository authorRepository;
+    private final ReactiveBookRepository bookRepository;
+    private final ReactiveBookCascadeDeleter bookCascadeDeleter;
+    private final Duration timeout;
+
+    public ReactiveAuthorServiceImpl(ReactiveAuthorRepository authorRepository, ReactiveBookRepository bookRepository,
+                                     ReactiveBookCascadeDeleter bookCascadeDeleter,
+                                     @Value("${library.reactive.timeout:3s}") Duration timeout) {
+        this.authorRepository = authorRepository;
+        this.bookRepository = bookRepository;
+        this.bookCascadeDeleter = bookCascadeDeleter;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Mono<String> saveAuthor(String name) {
+        return withStringFallback(authorRepository.findOrCreateByName(name)
+                .map(author -> String.format("You successfully saved a %s to repository", author.getName())));
+    }
+
+    @Override
+    public Mono<Author> getAuthorById(String id) {
+        return authorRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Incorrect author id")))
+                .timeout(timeout)
+                .onErrorResume(e -> Mono.fromSupplier(this::getEmptyAuthorResult));
+    }
+
+    @Override
+    public Flux<Author> getAuthorByName(String name) {
+        return withListFallback(authorRepository.findByName(name));
+    }
+
+    @Override
+    public Flux<Author> getAuthorsByIds(Collection<String> ids) {
+        return withListFallback(authorRepository.findAllById(ids).collectList()
+                .flatMapIterable(authors -> RequestCollapser.inRequestOrder(ids, authors, Author::getId)));
+    }
+
+    @Override
+    public Flux<Author> getAll() {
+        return withListFallback(authorRepository.findAll());
+    }
+
+    @Override
+    public Flux<Author> getPage(String after, int limit) {
+        final PageRequest page = PageRequest.of(0, limit, Sort.by("id"));
+
+        return withListFallback(after == null ? authorRepository.findAllBy(page) :
+                authorRepository.findByIdGreaterThan(after, page));
+    }
+
+    @Override
+    public Mono<String> updateAuthor(String id, String name) {
+        return withStringFallback(authorRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Incorrect author id")))
+                .flatMap(author -> {
+                    author.setName(name);
+
+                    return authorRepository.save(author)
+                            .then(bookRepository.updateAuthorName(id, name));
+                })
+                .thenReturn(String.format("%s was updated", name)));
+    }
+
+    @Override
+    public Mono<String> deleteAuthor(String id) {
+        return withStringFallback(authorRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Incorrect author id")))
+                .flatMap(author -> authorRepository.deleteById(id)
+                        .then(bookCascadeDeleter.deleteByAuthor(id))
+                        .thenReturn(String.format("%s was deleted", author.getName()))));
+    }
+
+    private Author getEmptyAuthorResult() {
+        Author author = new Author();
+        author.setId("N/A");
+        author.setName("N/A");
+
+        return author;
+    }
+
+    private Mono<String> withStringFallback(Mono<String> result) {
+        return result.timeout(timeout).onErrorReturn("Operation can not be executed.");
+    }
+
+    private Flux<Author> withListFallback(Flux<Author> authors) {
+        return authors.timeout(timeout).onErrorResume(e -> Flux.empty());
+    }
+}
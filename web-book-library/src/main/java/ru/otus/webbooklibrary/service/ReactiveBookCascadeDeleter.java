@@ -0,0 +1,39 @@
+package ru.otus.webbooklibrary.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.repository.ReactiveBookRepository;
+import ru.otus.webbooklibrary.repository.ReactiveCommentRepository;
+
+@Profile("reactive")
+@Component
+public class ReactiveBookCascadeDeleter {
+    private final ReactiveBookRepository bookRepository;
+    private final ReactiveCommentRepository commentRepository;
+    private final int chunkSize;
+
+    public ReactiveBookCascadeDeleter(ReactiveBookRepository bookRepository,
+                                      ReactiveCommentRepository commentRepository,
+                                      @Value("${library.cascade.chunk-size:1000}") int chunkSize) {
+        this.bookRepository = bookRepository;
+        this.commentRepository = commentRepository;
+        this.chunkSize = chunkSize;
+    }
+
+    public Mono<Long> deleteByAuthor(String authorId) {
+        return delete(bookRepository.findIdsByAuthorId(authorId));
+    }
+
+    public Mono<Long> deleteByGenre(String genreId) {
+        return delete(bookRepository.findIdsByGenreId(genreId));
+    }
+
+    private Mono<Long> delete(Flux<String> bookIds) {
+        return bookIds.buffer(chunkSize)
+                .concatMap(ids -> commentRepository.deleteByBook_IdIn(ids).then(bookRepository.deleteByIdIn(ids)))
+                .reduce(0L, Long::sum);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.otus.webbooklibrary.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.BookWithComments;
+
+import java.util.Collection;
+
+public interface ReactiveBookService {
+    Mono<Void> saveBook(String title, String authorNameParameter, String genreNameParameter);
+
+    Mono<Book> getBookById(String id);
+
+    Mono<BookWithComments> getBookWithComments(String id);
+
+    Flux<Book> getBookByTitle(String title);
+
+    Flux<Book> getBookByAuthor(String author);
+
+    Flux<Book> getBookByGenre(String genre);
+
+    Flux<Book> getBooksByIds(Collection<String> ids);
+
+    Flux<Book> getAll();
+
+    Flux<Book> getPage(String after, int limit);
+
+    Flux<Book> getProjection(Collection<String> fields, String after, int limit);
+
+    Mono<Void> updateBook(String id, String title, String authorNameParameter, String genreNameParameter);
+
+    Mono<Book> patchBook(String id, long version, String title, String authorName, String genreName);
+
+    Mono<Void> deleteBook(String id);
+}
@@ -0,0 +1,184 @@
+package ru.otus.webbooklibrary.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.BookWithComments;
+import ru.otus.webbooklibrary.domain.Genre;
+import ru.otus.webbooklibrary.repository.ReactiveAuthorRepository;
+import ru.otus.webbooklibrary.repository.ReactiveBookRepository;
+import ru.otus.webbooklibrary.repository.ReactiveCommentRepository;
+import ru.otus.webbooklibrary.repository.ReactiveGenreRepository;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+@Profile("reactive")
+@Service
+public class ReactiveBookServiceImpl implements ReactiveBookService {
+    private final ReactiveBookRepository bookRepository;
+    private final ReactiveAuthorRepository authorRepository;
+    private final ReactiveGenreRepository genreRepository;
+    private final ReactiveCommentRepository commentRepository;
+    private final Duration timeout;
+
+    public ReactiveBookServiceImpl(ReactiveBookRepository bookRepository, ReactiveAuthorRepository authorRepository,
+                                   ReactiveGenreRepository genreRepository, ReactiveCommentRepository commentRepository,
+                                   @Value("${library.reactive.timeout:3s}") Duration timeout) {
+        this.bookRepository = bookRepository;
+        this.authorRepository = authorRepository;
+        this.genreRepository = genreRepository;
+        this.commentRepository = commentRepository;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Mono<Void> saveBook(String title, String authorNameParameter, String genreNameParameter) {
+        return Mono.zip(getAuthor(authorNameParameter), getGenre(genreNameParameter))
+                .flatMap(t -> bookRepository.save(new Book(title, t.getT1(), t.getT2())))
+                .timeout(timeout)
+                .then();
+    }
+
+    @Override
+    public Mono<Book> getBookById(String id) {
+        return bookRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Incorrect book id")))
+                .timeout(timeout)
+                .onErrorResume(e -> Mono.fromSupplier(this::getEmptyBookResult));
+    }
+
+    @Override
+    public Mono<BookWithComments> getBookWithComments(String id) {
+        return bookRepository.findWithCommentsById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Incorrect book id")))
+                .timeout(timeout)
+                .onErrorResume(e -> Mono.fromSupplier(() -> new BookWithComments(getEmptyBookResult(), List.of())));
+    }
+
+    @Override
+    public Flux<Book> getBookByTitle(String title) {
+        return withListFallback(bookRepository.findByTitle(title));
+    }
+
+    @Override
+    public Flux<Book> getBookByAuthor(String author) {
+        return withListFallback(bookRepository.findByAuthor_Name(author));
+    }
+
+    @Override
+    public Flux<Book> getBookByGenre(String genre) {
+        return withListFallback(bookRepository.findByGenre_Name(genre));
+    }
+
+    @Override
+    public Flux<Book> getBooksByIds(Collection<String> ids) {
+        return withListFallback(bookRepository.findAllById(ids).collectList()
+                .flatMapIterable(books -> RequestCollapser.inRequestOrder(ids, books, Book::getId)));
+    }
+
+    @Override
+    public Flux<Book> getAll() {
+        return withListFallback(bookRepository.findAll());
+    }
+
+    @Override
+    public Flux<Book> getPage(String after, int limit) {
+        final PageRequest page = PageRequest.of(0, limit, Sort.by("id"));
+
+        return withListFallback(after == null ? bookRepository.findAllBy(page) :
+                bookRepository.findByIdGreaterThan(after, page));
+    }
+
+    @Override
+    public Flux<Book> getProjection(Collection<String> fields, String after, int limit) {
+        return withListFallback(bookRepository.findProjected(fields, after, limit));
+    }
+
+    @Override
+    public Mono<Void> updateBook(String id, String title, String authorNameParameter, String genreNameParameter) {
+        return Mono.zip(getAuthor(authorNameParameter), getGenre(genreNameParameter), bookRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Incorrect book id"))))
+                .flatMap(t -> {
+                    final Book book = t.getT3();
+                    final String oldBookTitle = book.getTitle();
+                    book.setAuthor(t.getT1());
+                    book.setGenre(t.getT2());
+                    book.setTitle(title);
+
+                    return bookRepository.save(book)
+                            .onErrorMap(OptimisticLockingFailureException.class,
+                                    e -> new VersionConflictException("Book " + id + " was modified concurrently"))
+                            .then(oldBookTitle.equals(title) ? Mono.empty() :
+                                    commentRepository.updateBookTitle(id, title))
+                            .then();
+                })
+                .timeout(timeout);
+    }
+
+    @Override
+    public Mono<Book> patchBook(String id, long version, String title, String authorName, String genreName) {
+        return Mono.zip(
+                authorName == null ? Mono.just(Optional.<Author>empty()) : getAuthor(authorName).map(Optional::of),
+                genreName == null ? Mono.just(Optional.<Genre>empty()) : getGenre(genreName).map(Optional::of))
+                .flatMap(t -> {
+                    final Map<String, Object> fields = new LinkedHashMap<>();
+                    if (title != null)
+                        fields.put("title", title);
+                    t.getT1().ifPresent(author -> fields.put("author", author));
+                    t.getT2().ifPresent(genre -> fields.put("genre", genre));
+
+                    return bookRepository.patch(id, version, fields);
+                })
+                .switchIfEmpty(Mono.defer(() -> bookRepository.existsById(id)
+                        .flatMap(exists -> Mono.error(exists
+                                ? new VersionConflictException("Book " + id + " was modified concurrently")
+                                : new IllegalArgumentException("Incorrect book id")))))
+                .flatMap(book -> title == null ? Mono.just(book)
+                        : commentRepository.updateBookTitle(id, title).thenReturn(book))
+                .timeout(timeout);
+    }
+
+    @Override
+    public Mono<Void> deleteBook(String id) {
+        return commentRepository.deleteByBook_Id(id)
+                .then(bookRepository.deleteByIdIn(List.of(id)))
+                .filter(deleted -> deleted > 0)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Incorrect book id")))
+                .then()
+                .timeout(timeout);
+    }
+
+    private Book getEmptyBookResult() {
+        Book book = new Book();
+        book.setId("N/A");
+        book.setTitle("N/A");
+        book.setAuthor(new Author("N/A"));
+        book.setGenre(new Genre("N/A"));
+
+        return book;
+    }
+
+    private Flux<Book> withListFallback(Flux<Book> books) {
+        return books.timeout(timeout).onErrorResume(e -> Flux.empty());
+    }
+
+    private Mono<Author> getAuthor(String authorName) {
+        return authorRepository.findOrCreateByName(authorName);
+    }
+
+    private Mono<Genre> getGenre(String genreName) {
+        return genreRepository.findOrCreateByName(genreName);
+    }
+}
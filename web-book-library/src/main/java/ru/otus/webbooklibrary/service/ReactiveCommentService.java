@@ -0,0 +1,31 @@
+package ru.otus.webbooklibrary.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Comment;
+
+import java.util.Collection;
+
+public interface ReactiveCommentService {
+    Mono<String> saveComment(String bookTitle, String commentContent);
+
+    Mono<Comment> getCommentById(String id);
+
+    Flux<Comment> getCommentByContent(String content);
+
+    Flux<Comment> getCommentsByBook(String bookTitle);
+
+    Flux<Comment> getCommentsByIds(Collection<String> ids);
+
+    Flux<Comment> getAll();
+
+    Flux<Comment> getPage(String after, int limit);
+
+    Flux<Comment> getProjection(Collection<String> fields, String after, int limit);
+
+    Mono<String> updateComment(String id, String commentContent);
+
+    Mono<Comment> patchComment(String id, long version, String content);
+
+    Mono<String> deleteComment(String id);
+}
@@ -0,0 +1,134 @@
+package ru.otus.webbooklibrary.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Comment;
+import ru.otus.webbooklibrary.repository.ReactiveBookRepository;
+import ru.otus.webbooklibrary.repository.ReactiveCommentRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Map;
+
+@Profile("reactive")
+@Service
+public class ReactiveCommentServiceImpl implements ReactiveCommentService {
+    private final ReactiveCommentRepository commentRepository;
+    private final ReactiveBookRepository bookRepository;
+    private final Duration timeout;
+
+    public ReactiveCommentServiceImpl(ReactiveCommentRepository commentRepository,
+                                      ReactiveBookRepository bookRepository,
+                                      @Value("${library.reactive.timeout:3s}") Duration timeout) {
+        this.commentRepository = commentRepository;
+        this.bookRepository = bookRepository;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Mono<String> saveComment(String bookTitle, String commentContent) {
+        return withStringFallback(bookRepository.findByTitle(bookTitle).next()
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Incorrect book title")))
+                .flatMap(book -> commentRepository.save(new Comment(commentContent, book))
+                        .then(bookRepository.incrementCommentCount(book.getId(), 1, Instant.now())))
+                .thenReturn("You successfully added a comment to " + bookTitle));
+    }
+
+    @Override
+    public Mono<Comment> getCommentById(String id) {
+        return commentRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Incorrect comment id")))
+                .timeout(timeout)
+                .onErrorResume(e -> Mono.fromSupplier(this::getEmptyCommentResult));
+    }
+
+    @Override
+    public Flux<Comment> getCommentByContent(String content) {
+        return withListFallback(commentRepository.findByContent(content));
+    }
+
+    @Override
+    public Flux<Comment> getCommentsByBook(String bookTitle) {
+        return withListFallback(commentRepository.findByBook_Title(bookTitle));
+    }
+
+    @Override
+    public Flux<Comment> getCommentsByIds(Collection<String> ids) {
+        return withListFallback(commentRepository.findAllById(ids).collectList()
+                .flatMapIterable(comments -> RequestCollapser.inRequestOrder(ids, comments, Comment::getId)));
+    }
+
+    @Override
+    public Flux<Comment> getAll() {
+        return withListFallback(commentRepository.findAll());
+    }
+
+    @Override
+    public Flux<Comment> getPage(String after, int limit) {
+        final PageRequest page = PageRequest.of(0, limit, Sort.by("id"));
+
+        return withListFallback(after == null ? commentRepository.findAllBy(page) :
+                commentRepository.findByIdGreaterThan(after, page));
+    }
+
+    @Override
+    public Flux<Comment> getProjection(Collection<String> fields, String after, int limit) {
+        return withListFallback(commentRepository.findProjected(fields, after, limit));
+    }
+
+    @Override
+    public Mono<String> updateComment(String id, String commentContent) {
+        return withStringFallback(commentRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Incorrect comment id")))
+                .flatMap(comment -> {
+                    comment.setContent(commentContent);
+                    return commentRepository.save(comment);
+                })
+                .onErrorMap(OptimisticLockingFailureException.class,
+                        e -> new VersionConflictException("Comment " + id + " was modified concurrently"))
+                .map(comment -> comment.getBook().getTitle() + " comment was updated"));
+    }
+
+    @Override
+    public Mono<Comment> patchComment(String id, long version, String content) {
+        return commentRepository.patch(id, version, Map.of("content", content))
+                .switchIfEmpty(Mono.defer(() -> commentRepository.existsById(id)
+                        .flatMap(exists -> Mono.error(exists
+                                ? new VersionConflictException("Comment " + id + " was modified concurrently")
+                                : new IllegalArgumentException("Incorrect comment id")))))
+                .timeout(timeout);
+    }
+
+    @Override
+    public Mono<String> deleteComment(String id) {
+        return withStringFallback(commentRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Incorrect comment id")))
+                .flatMap(comment -> commentRepository.deleteById(id)
+                        .then(comment.getBook().getId() == null ? Mono.empty() :
+                                bookRepository.incrementCommentCount(comment.getBook().getId(), -1, null))
+                        .thenReturn(comment.getBook().getTitle() + " comment was deleted")));
+    }
+
+    private Comment getEmptyCommentResult() {
+        Comment comment = new Comment("N/A", "N/A");
+        comment.setId("N/A");
+
+        return comment;
+    }
+
+    private Mono<String> withStringFallback(Mono<String> result) {
+        return result.timeout(timeout).onErrorResume(e -> e instanceof VersionConflictException ? Mono.error(e)
+                : Mono.just("Operation can not be executed."));
+    }
+
+    private Flux<Comment> withListFallback(Flux<Comment> comments) {
+        return comments.timeout(timeout).onErrorResume(e -> Flux.empty());
+    }
+}
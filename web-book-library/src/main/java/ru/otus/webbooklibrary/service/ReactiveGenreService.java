@@ -0,0 +1,25 @@
+package ru.otus.webbooklibrary.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Genre;
+
+import java.util.Collection;
+
+public interface ReactiveGenreService {
+    Mono<String> saveGenre(String name);
+
+    Mono<Genre> getGenreById(String id);
+
+    Mono<Genre> getGenreByName(String name);
+
+    Flux<Genre> getGenresByIds(Collection<String> ids);
+
+    Flux<Genre> getAll();
+
+    Flux<Genre> getPage(String after, int limit);
+
+    Mono<String> updateGenre(String id, String name);
+
+    Mono<String> deleteGenre(String id);
+}
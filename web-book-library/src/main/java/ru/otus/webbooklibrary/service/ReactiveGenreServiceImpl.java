@@ -0,0 +1,112 @@
+package ru.otus.webbooklibrary.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.otus.webbooklibrary.domain.Genre;
+import ru.otus.webbooklibrary.repository.ReactiveBookRepository;
+import ru.otus.webbooklibrary.repository.ReactiveGenreRepository;
+
+import java.time.Duration;
+import java.util.Collection;
+
+@Profile("reactive")
+@Service
+public class ReactiveGenreServiceImpl implements ReactiveGenreService {
+    private final ReactiveGenreRepository genreRepository;
+    private final ReactiveBookRepository bookRepository;
+    private final ReactiveBookCascadeDeleter bookCascadeDeleter;
+    private final Duration timeout;
+
+    public ReactiveGenreServiceImpl(ReactiveGenreRepository genreRepository, ReactiveBookRepository bookRepository,
+                                    ReactiveBookCascadeDeleter bookCascadeDeleter,
+                                    @Value("${library.reactive.timeout:3s}") Duration timeout) {
+        this.genreRepository = genreRepository;
+        this.bookRepository = bookRepository;
+        this.bookCascadeDeleter = bookCascadeDeleter;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public Mono<String> saveGenre(String name) {
+        return withStringFallback(genreRepository.findOrCreateByName(name)
+                .map(genre -> String.format("You successfully saved a %s to repository", genre.getName())));
+    }
+
+    @Override
+    public Mono<Genre> getGenreById(String id) {
+        return withGenreFallback(genreRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Incorrect genre id"))));
+    }
+
+    @Override
+    public Mono<Genre> getGenreByName(String name) {
+        return withGenreFallback(genreRepository.findByName(name)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Incorrect name"))));
+    }
+
+    @Override
+    public Flux<Genre> getGenresByIds(Collection<String> ids) {
+        return withListFallback(genreRepository.findAllById(ids).collectList()
+                .flatMapIterable(genres -> RequestCollapser.inRequestOrder(ids, genres, Genre::getId)));
+    }
+
+    @Override
+    public Flux<Genre> getAll() {
+        return withListFallback(genreRepository.findAll());
+    }
+
+    @Override
+    public Flux<Genre> getPage(String after, int limit) {
+        final PageRequest page = PageRequest.of(0, limit, Sort.by("id"));
+
+        return withListFallback(after == null ? genreRepository.findAllBy(page) :
+                genreRepository.findByIdGreaterThan(after, page));
+    }
+
+    @Override
+    public Mono<String> updateGenre(String id, String name) {
+        return withStringFallback(genreRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Incorrect genre id")))
+                .flatMap(genre -> {
+                    genre.setName(name);
+
+                    return genreRepository.save(genre)
+                            .then(bookRepository.updateGenreName(id, name));
+                })
+                .thenReturn(String.format("%s was updated", name)));
+    }
+
+    @Override
+    public Mono<String> deleteGenre(String id) {
+        return withStringFallback(genreRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new IllegalArgumentException("Incorrect genre id")))
+                .flatMap(genre -> genreRepository.deleteById(id)
+                        .then(bookCascadeDeleter.deleteByGenre(id))
+                        .thenReturn(String.format("%s was deleted", genre.getName()))));
+    }
+
+    private Genre getEmptyGenreResult() {
+        Genre genre = new Genre();
+        genre.setId("N/A");
+        genre.setName("N/A");
+
+        return genre;
+    }
+
+    private Mono<Genre> withGenreFallback(Mono<Genre> genre) {
+        return genre.timeout(timeout).onErrorResume(e -> Mono.fromSupplier(this::getEmptyGenreResult));
+    }
+
+    private Mono<String> withStringFallback(Mono<String> result) {
+        return result.timeout(timeout).onErrorReturn("Operation can not be executed.");
+    }
+
+    private Flux<Genre> withListFallback(Flux<Genre> genres) {
+        return genres.timeout(timeout).onErrorResume(e -> Flux.empty());
+    }
+}
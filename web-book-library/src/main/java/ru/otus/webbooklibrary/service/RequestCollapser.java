@@ -0,0 +1,136 @@
+package ru.otus.webbooklibrary.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+public class RequestCollapser<T> {
+    private final Function<Collection<String>, Iterable<T>> loader;
+    private final Function<T, String> idOf;
+    private final ScheduledExecutorService scheduler;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final DistributionSummary batchSizes;
+    private final Object lock = new Object();
+    private Map<String, CompletableFuture<Optional<T>>> pending = new HashMap<>();
+    private int inFlight;
+
+    RequestCollapser(Function<Collection<String>, Iterable<T>> loader, Function<T, String> idOf,
+                     ScheduledExecutorService scheduler, Duration window, int maxBatchSize,
+                     DistributionSummary batchSizes) {
+        this.loader = loader;
+        this.idOf = idOf;
+        this.scheduler = scheduler;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.batchSizes = batchSizes;
+    }
+
+    static <T> List<T> inRequestOrder(Collection<String> ids, Iterable<T> found, Function<T, String> idOf) {
+        final Map<String, T> byId = StreamSupport.stream(found.spliterator(), false)
+                .collect(Collectors.toMap(idOf, Function.identity(), (first, second) -> first));
+
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
+    }
+
+    public T load(String id, Supplier<? extends RuntimeException> notFound) {
+        if (window.isZero())
+            return execute(List.of(id)).get(id).orElseThrow(notFound);
+
+        try {
+            return submit(id).get().orElseThrow(notFound);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a collapsed lookup", e);
+        }
+    }
+
+    private CompletableFuture<Optional<T>> submit(String id) {
+        final CompletableFuture<Optional<T>> future;
+        final Map<String, CompletableFuture<Optional<T>>> ready;
+        final boolean idle;
+
+        synchronized (lock) {
+            idle = inFlight == 0 && pending.isEmpty();
+            if (idle) {
+                future = new CompletableFuture<>();
+                ready = Map.of(id, future);
+            } else {
+                if (pending.isEmpty())
+                    scheduler.schedule(this::flush, window.toNanos(), TimeUnit.NANOSECONDS);
+
+                future = pending.computeIfAbsent(id, key -> new CompletableFuture<>());
+                ready = pending.size() >= maxBatchSize ? takePending() : null;
+            }
+            if (ready != null)
+                inFlight++;
+        }
+
+        if (idle)
+            complete(ready);
+        else if (ready != null)
+            scheduler.execute(() -> complete(ready));
+
+        return future;
+    }
+
+    private void flush() {
+        final Map<String, CompletableFuture<Optional<T>>> batch;
+        synchronized (lock) {
+            if (pending.isEmpty())
+                return;
+
+            batch = takePending();
+            inFlight++;
+        }
+
+        complete(batch);
+    }
+
+    private Map<String, CompletableFuture<Optional<T>>> takePending() {
+        final Map<String, CompletableFuture<Optional<T>>> batch = pending;
+        pending = new HashMap<>();
+        return batch;
+    }
+
+    private void complete(Map<String, CompletableFuture<Optional<T>>> batch) {
+        try {
+            final Map<String, Optional<T>> found = execute(List.copyOf(batch.keySet()));
+            batch.forEach((id, future) -> future.complete(found.get(id)));
+        } catch (RuntimeException e) {
+            batch.values().forEach(future -> future.completeExceptionally(e));
+        } finally {
+            synchronized (lock) {
+                inFlight--;
+            }
+        }
+    }
+
+    private Map<String, Optional<T>> execute(List<String> ids) {
+        batchSizes.record(ids.size());
+
+        final Map<String, T> found = StreamSupport.stream(loader.apply(ids).spliterator(), false)
+                .collect(Collectors.toMap(idOf, Function.identity(), (first, second) -> first));
+
+        return ids.stream().collect(Collectors.toMap(Function.identity(),
+                id -> Optional.ofNullable(found.get(id)), (first, second) -> first));
+    }
+}
@@ -0,0 +1,46 @@
+package ru.otus.webbooklibrary.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.function.Function;
+
+@Component
+public class RequestCollapsers implements DisposableBean {
+    private final MeterRegistry meterRegistry;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Duration window;
+    private final int maxBatchSize;
+
+    public RequestCollapsers(MeterRegistry meterRegistry,
+                             @Value("${library.collapser.window:2ms}") Duration window,
+                             @Value("${library.collapser.max-batch-size:100}") int maxBatchSize,
+                             @Value("${library.collapser.threads:4}") int threads) {
+        this.meterRegistry = meterRegistry;
+        this.window = window;
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = new ScheduledThreadPoolExecutor(threads, new CustomizableThreadFactory("request-collapser-"));
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    public <T> RequestCollapser<T> create(String name, Function<Collection<String>, Iterable<T>> loader,
+                                          Function<T, String> idOf) {
+        final DistributionSummary batchSizes = DistributionSummary.builder("library.collapser.batch.size")
+                .tag("collapser", name)
+                .register(meterRegistry);
+
+        return new RequestCollapser<>(loader, idOf, scheduler, window, maxBatchSize, batchSizes);
+    }
+
+    @Override
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,9 @@
+package ru.otus.webbooklibrary.service;
+
+import ru.otus.webbooklibrary.domain.SearchHit;
+
+import java.util.List;
+
+public interface SearchService {
+    List<SearchHit> search(String text, int offset, int limit);
+}
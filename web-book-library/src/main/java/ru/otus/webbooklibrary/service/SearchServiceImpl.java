@@ -0,0 +1,46 @@
+package ru.otus.webbooklibrary.service;
+
+import com.netflix.hystrix.contrib.javanica.annotation.HystrixCommand;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.otus.webbooklibrary.domain.SearchHit;
+import ru.otus.webbooklibrary.repository.SearchRepository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+@Service
+public class SearchServiceImpl implements SearchService {
+    private final SearchRepository searchRepository;
+    private final StaleResultCache staleResults;
+
+    public SearchServiceImpl(SearchRepository searchRepository, StaleResultCache staleResults) {
+        this.searchRepository = searchRepository;
+        this.staleResults = staleResults;
+    }
+
+    @HystrixCommand(fallbackMethod = "getStaleSearchResult", threadPoolKey = "libraryScans")
+    @Transactional(readOnly = true)
+    @Override
+    public List<SearchHit> search(String text, int offset, int limit) {
+        final int depth = offset + limit;
+
+        return staleResults.store(Stream.of(searchRepository.searchBooks(text, depth),
+                searchRepository.searchAuthors(text, depth), searchRepository.searchComments(text, depth))
+                .flatMap(List::stream)
+                .sorted(Comparator.comparingDouble(SearchHit::getScore).reversed())
+                .skip(offset)
+                .limit(limit)
+                .collect(Collectors.toList()), "search", text, offset, limit);
+    }
+
+    public List<SearchHit> getStaleSearchResult(String text, int offset, int limit, Throwable failure) {
+        return staleResults.recall(this::getEmptySearchResult, failure, "search", text, offset, limit);
+    }
+
+    public List<SearchHit> getEmptySearchResult() {
+        return List.of();
+    }
+}
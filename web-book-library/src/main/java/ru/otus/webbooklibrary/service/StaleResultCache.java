@@ -0,0 +1,117 @@
+package ru.otus.webbooklibrary.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.otus.webbooklibrary.domain.BookWithComments;
+
+import javax.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+@Component
+public class StaleResultCache {
+    public static final String STALE_WARNING = "110 - \"Response is Stale\"";
+    public static final String DEGRADED_ATTRIBUTE = StaleResultCache.class.getName() + ".DEGRADED";
+
+    private final Cache<String, Object> results;
+    private final MeterRegistry meterRegistry;
+
+    public StaleResultCache(MeterRegistry meterRegistry,
+                            @Value("${library.stale-cache.max-documents:100000}") long maxDocuments,
+                            @Value("${library.stale-cache.ttl:30m}") Duration ttl) {
+        this.meterRegistry = meterRegistry;
+        this.results = Caffeine.newBuilder()
+                .maximumWeight(maxDocuments)
+                .weigher(StaleResultCache::weigh)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "staleResults");
+    }
+
+    public <T> T store(T result, String command, Object... args) {
+        if (result != null)
+            results.put(key(command, args), result);
+
+        return result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T recall(Supplier<T> fallback, Throwable failure, String command, Object... args) {
+        markDegraded();
+        if (failure instanceof IllegalArgumentException)
+            return fallback.get();
+
+        final T result = (T) results.getIfPresent(key(command, args));
+        if (result == null)
+            return fallback.get();
+
+        meterRegistry.counter("library.stale.served", "command", command).increment();
+        markStale();
+
+        return result;
+    }
+
+    public void forget(String... commands) {
+        results.asMap().keySet().removeIf(key -> Arrays.stream(commands).anyMatch(key::startsWith));
+    }
+
+    private static void markDegraded() {
+        final ServletRequestAttributes attributes = servletRequestAttributes();
+        if (attributes == null)
+            return;
+
+        attributes.setAttribute(DEGRADED_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        final HttpServletResponse response = attributes.getResponse();
+        if (response != null && !response.isCommitted())
+            response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+    }
+
+    private static void markStale() {
+        final ServletRequestAttributes attributes = servletRequestAttributes();
+        final HttpServletResponse response = attributes == null ? null : attributes.getResponse();
+        if (response != null && !response.isCommitted())
+            response.setHeader(HttpHeaders.WARNING, STALE_WARNING);
+    }
+
+    private static ServletRequestAttributes servletRequestAttributes() {
+        final RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        return attributes instanceof ServletRequestAttributes ? (ServletRequestAttributes) attributes : null;
+    }
+
+    private static String key(String command, Object... args) {
+        return command + Arrays.stream(args).map(StaleResultCache::keyPart)
+                .collect(Collectors.joining(",", "(", ")"));
+    }
+
+    private static String keyPart(Object arg) {
+        if (arg instanceof Collection)
+            return ((Collection<?>) arg).stream().map(String::valueOf).sorted()
+                    .collect(Collectors.joining(",", "[", "]"));
+
+        return String.valueOf(arg);
+    }
+
+    private static int weigh(String key, Object result) {
+        if (result instanceof Collection)
+            return ((Collection<?>) result).size();
+        if (result instanceof BookWithComments && ((BookWithComments) result).getComments() != null)
+            return 1 + ((BookWithComments) result).getComments().size();
+
+        return 1;
+    }
+}
@@ -0,0 +1,70 @@
+package ru.otus.webbooklibrary.actuator;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.Comment;
+import ru.otus.webbooklibrary.domain.Genre;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@DataMongoTest
+@Import(IndexCoverageEndpoint.class)
+class IndexCoverageEndpointTest {
+    @SpyBean
+    private MongoTemplate mongoTemplate;
+
+    @Autowired
+    private IndexCoverageEndpoint endpoint;
+
+    @Test
+    void shouldReportQueriesWithoutLeadingIndexField() {
+        stubIndexes(Book.class, index("title", "author.name"), index("author._id"));
+        stubIndexes(Author.class, index("name"));
+        stubIndexes(Genre.class);
+        stubIndexes(Comment.class);
+
+        final Map<String, List<String>> coverage = endpoint.indexCoverage();
+
+        assertThat(coverage.get("covered")).contains(
+                "BookRepository.findByTitle [title]",
+                "BookRepository.countByAuthor_Id [author._id]",
+                "AuthorRepository.findByName [name]",
+                "GenreRepository.findByIdGreaterThan [_id]");
+        assertThat(coverage.get("uncovered")).contains(
+                "BookRepository.findByGenre_Name [genre.name]",
+                "GenreRepository.findByName [name]",
+                "CommentRepository.findByBook_Title [book.title]");
+        assertThat(coverage.get("uncovered")).noneMatch(q -> q.contains("findAllBy") || q.contains("streamAllBy"));
+    }
+
+    private void stubIndexes(Class<?> type, IndexInfo... indexes) {
+        final IndexOperations indexOperations = mock(IndexOperations.class);
+        final List<IndexInfo> indexInfo = new ArrayList<>(List.of(indexes));
+        indexInfo.add(index("_id"));
+
+        when(indexOperations.getIndexInfo()).thenReturn(indexInfo);
+        doReturn(indexOperations).when(mongoTemplate).indexOps(type);
+    }
+
+    private IndexInfo index(String... keys) {
+        return new IndexInfo(Arrays.stream(keys).map(k -> IndexField.create(k, Sort.Direction.ASC))
+                .collect(Collectors.toList()), String.join("_", keys), false, false, null);
+    }
+}
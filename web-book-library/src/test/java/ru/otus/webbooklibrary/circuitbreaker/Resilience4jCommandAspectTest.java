@@ -0,0 +1,125 @@
+package ru.otus.webbooklibrary.circuitbreaker;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.Genre;
+import ru.otus.webbooklibrary.domain.SearchHit;
+import ru.otus.webbooklibrary.repository.BookRepository;
+import ru.otus.webbooklibrary.repository.CommentRepository;
+import ru.otus.webbooklibrary.repository.SearchRepository;
+import ru.otus.webbooklibrary.service.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class Resilience4jCommandAspectTest {
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+    private final TimeLimiterRegistry timeLimiterRegistry = TimeLimiterRegistry.of(TimeLimiterConfig.custom()
+            .timeoutDuration(Duration.ofMillis(200)).build());
+    private final SearchRepository searchRepository = mock(SearchRepository.class);
+    private final StaleResultCache staleResults = new StaleResultCache(new SimpleMeterRegistry(), 1000,
+            Duration.ofMinutes(1));
+
+    @Test
+    void shouldReturnDefaultFallbackAndRecordFailure() {
+        final SearchService service = proxy(new SearchServiceImpl(searchRepository, staleResults));
+
+        when(searchRepository.searchBooks(anyString(), anyInt())).thenThrow(new IllegalStateException());
+
+        assertThat(service.search("ulysses", 0, 10)).isEmpty();
+        assertEquals(1, circuitBreakerRegistry.circuitBreaker("SearchServiceImpl.search").getMetrics()
+                .getNumberOfFailedCalls());
+    }
+
+    @Test
+    void shouldNotCallServiceWhenCircuitIsOpen() {
+        final SearchService service = proxy(new SearchServiceImpl(searchRepository, staleResults));
+        final CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("SearchServiceImpl.search");
+        circuitBreaker.transitionToOpenState();
+
+        final List<SearchHit> hits = service.search("ulysses", 0, 10);
+
+        assertThat(hits).isEmpty();
+        verifyNoInteractions(searchRepository);
+        assertEquals(1, circuitBreaker.getMetrics().getNumberOfNotPermittedCalls());
+    }
+
+    @Test
+    void shouldServeLastKnownResultWhenCircuitIsOpen() {
+        final SearchService service = proxy(new SearchServiceImpl(searchRepository, staleResults));
+        final SearchHit ulysses = new SearchHit("book", "ulysses", "Ulysses", "James Joyce", 4.5);
+
+        when(searchRepository.searchBooks("ulysses", 10)).thenReturn(List.of(ulysses));
+        service.search("ulysses", 0, 10);
+        circuitBreakerRegistry.circuitBreaker("SearchServiceImpl.search").transitionToOpenState();
+
+        assertThat(service.search("ulysses", 0, 10)).containsExactly(ulysses);
+        assertThat(service.search("joyce", 0, 10)).isEmpty();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRethrowIgnoredExceptionsWithoutFallback() {
+        final BookRepository bookRepository = mock(BookRepository.class);
+        final CommentWriteBehindBuffer buffer = mock(CommentWriteBehindBuffer.class);
+        final ObjectProvider<CommentWriteBehindBuffer> bufferProvider = mock(ObjectProvider.class);
+        final CommentService service = proxy(new CommentServiceImpl(mock(CommentRepository.class), bookRepository,
+                bufferProvider, staleResults, new RequestCollapsers(new SimpleMeterRegistry(), Duration.ZERO, 100, 1)));
+
+        when(bookRepository.findByTitle("Ulysses")).thenReturn(List.of(new Book("Ulysses",
+                new Author("James Joyce"), new Genre("Modernist novel"))));
+        when(bufferProvider.getIfAvailable()).thenReturn(buffer);
+        doThrow(new CommentBufferFullException()).when(buffer).offer(any());
+
+        assertThatThrownBy(() -> service.saveComment("Ulysses", "Published in 1922"))
+                .isInstanceOf(CommentBufferFullException.class);
+        assertEquals(0, circuitBreakerRegistry.circuitBreaker("CommentServiceImpl.saveComment").getMetrics()
+                .getNumberOfFailedCalls());
+    }
+
+    @Test
+    void shouldFallBackWhenCallOutlivesTimeLimitAndHoldBulkheadUntilItFinishes() {
+        final SearchService service = proxy(new SearchServiceImpl(searchRepository, staleResults));
+        final CountDownLatch release = new CountDownLatch(1);
+        final Bulkhead bulkhead = bulkheadRegistry.bulkhead("libraryScans");
+
+        when(searchRepository.searchBooks(anyString(), anyInt())).thenAnswer(invocation -> {
+            release.await();
+            return List.of();
+        });
+
+        assertThat(service.search("ulysses", 0, 10)).isEmpty();
+        assertEquals(1, circuitBreakerRegistry.circuitBreaker("SearchServiceImpl.search").getMetrics()
+                .getNumberOfFailedCalls());
+        assertEquals(bulkhead.getBulkheadConfig().getMaxConcurrentCalls() - 1,
+                bulkhead.getMetrics().getAvailableConcurrentCalls());
+        release.countDown();
+    }
+
+    private <T> T proxy(T target) {
+        final AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new Resilience4jCommandAspect(circuitBreakerRegistry, bulkheadRegistry,
+                timeLimiterRegistry));
+        return factory.getProxy();
+    }
+}
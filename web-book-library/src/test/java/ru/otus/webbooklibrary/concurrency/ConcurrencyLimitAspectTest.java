@@ -0,0 +1,77 @@
+package ru.otus.webbooklibrary.concurrency;
+
+import com.netflix.concurrency.limits.limit.FixedLimit;
+import com.netflix.concurrency.limits.limiter.AbstractLimiter;
+import com.netflix.concurrency.limits.limiter.SimpleLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import ru.otus.webbooklibrary.domain.SearchHit;
+import ru.otus.webbooklibrary.repository.SearchRepository;
+import ru.otus.webbooklibrary.service.SearchService;
+import ru.otus.webbooklibrary.service.SearchServiceImpl;
+import ru.otus.webbooklibrary.service.StaleResultCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class ConcurrencyLimitAspectTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AbstractLimiter<Void> limiter = SimpleLimiter.newBuilder().limit(FixedLimit.of(1)).build();
+    private final SearchRepository searchRepository = mock(SearchRepository.class);
+    private final StaleResultCache staleResults = new StaleResultCache(meterRegistry, 1000, Duration.ofMinutes(1));
+
+    @Test
+    void shouldRejectCallsAboveTheLimit() throws Exception {
+        final SearchService service = proxy(new SearchServiceImpl(searchRepository, staleResults));
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        when(searchRepository.searchBooks(anyString(), anyInt())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return List.<SearchHit>of();
+        });
+
+        final CompletableFuture<List<SearchHit>> slow =
+                CompletableFuture.supplyAsync(() -> service.search("ulysses", 0, 10));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        assertThatThrownBy(() -> service.search("ulysses", 0, 10))
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+        assertEquals(1, meterRegistry.get("library.concurrency.inflight").gauge().value());
+
+        release.countDown();
+        slow.get(5, TimeUnit.SECONDS);
+
+        assertEquals(0, limiter.getInflight());
+        assertEquals(1, meterRegistry.get("library.concurrency.rejected").counter().count());
+    }
+
+    @Test
+    void shouldReleaseTheLimitWhenCallFails() {
+        final SearchService service = proxy(new SearchServiceImpl(searchRepository, staleResults));
+
+        when(searchRepository.searchBooks(anyString(), anyInt())).thenThrow(new IllegalStateException());
+
+        assertThatThrownBy(() -> service.search("ulysses", 0, 10)).isInstanceOf(IllegalStateException.class);
+        assertEquals(0, limiter.getInflight());
+    }
+
+    private <T> T proxy(T target) {
+        final AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.addAspect(new ConcurrencyLimitAspect(limiter, meterRegistry));
+        return factory.getProxy();
+    }
+}
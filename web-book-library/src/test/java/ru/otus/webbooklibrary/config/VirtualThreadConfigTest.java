@@ -0,0 +1,48 @@
+package ru.otus.webbooklibrary.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadConfigTest {
+
+    @Test
+    void shouldFailFastWithClearMessageBeforeJdk21() {
+        assumeTrue(Runtime.version().feature() < 21);
+
+        assertThatThrownBy(VirtualThreadConfig::new)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("JDK 21")
+                .hasCauseInstanceOf(NoSuchMethodException.class);
+    }
+
+    @Test
+    void shouldCreateVirtualThreadExecutorOnJdk21() {
+        assumeTrue(Runtime.version().feature() >= 21);
+
+        final ExecutorService executor = VirtualThreadConfig.newVirtualThreadPerTaskExecutor();
+        executor.shutdown();
+
+        assertThat(executor.isShutdown()).isTrue();
+    }
+
+    @Test
+    void shouldShutDownExecutorWhenContextCloses() {
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        final AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().setActiveProfiles("virtual");
+        context.registerBean(VirtualThreadConfig.class, () -> new VirtualThreadConfig(executor));
+        context.refresh();
+
+        assertThat(executor.isShutdown()).isFalse();
+        context.close();
+
+        assertThat(executor.isShutdown()).isTrue();
+    }
+}
@@ -0,0 +1,73 @@
+package ru.otus.webbooklibrary.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import ru.otus.webbooklibrary.repository.SearchRepository;
+import ru.otus.webbooklibrary.repository.SearchRepositoryImpl;
+import ru.otus.webbooklibrary.service.SearchService;
+import ru.otus.webbooklibrary.service.SearchServiceImpl;
+import ru.otus.webbooklibrary.service.StaleResultCache;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LibraryMetricsAspectTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void shouldTimeServiceMethodsAndTagExceptions() {
+        final SearchRepository searchRepository = mock(SearchRepository.class);
+        final SearchService service = proxy(new SearchServiceImpl(searchRepository,
+                new StaleResultCache(meterRegistry, 1000, Duration.ofMinutes(1))));
+
+        when(searchRepository.searchBooks(anyString(), anyInt())).thenReturn(List.of())
+                .thenThrow(new IllegalStateException());
+
+        service.search("ulysses", 0, 10);
+        assertThatThrownBy(() -> service.search("ulysses", 0, 10)).isInstanceOf(IllegalStateException.class);
+
+        assertEquals(1, meterRegistry.get("library.service").tag("service", "SearchServiceImpl")
+                .tag("method", "search").tag("exception", "none").timer().count());
+        assertEquals(1, meterRegistry.get("library.service").tag("exception", "IllegalStateException")
+                .timer().count());
+    }
+
+    @Test
+    void shouldRecordRepositoryTimingsAndResultSizes() {
+        final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+        final SearchRepository repository = proxy(new SearchRepositoryImpl(mongoTemplate));
+
+        when(mongoTemplate.find(any(Query.class), eq(Document.class), eq("authors"))).thenReturn(List.of(
+                new Document("_id", new ObjectId()).append("name", "James Joyce").append("score", 1.5),
+                new Document("_id", new ObjectId()).append("name", "James Joyce Jr").append("score", 0.7)));
+
+        repository.searchAuthors("joyce", 10);
+
+        assertEquals(1, meterRegistry.get("library.repository").tag("repository", "SearchRepository")
+                .tag("method", "searchAuthors").timer().count());
+        assertEquals(2, meterRegistry.get("library.repository.results").tag("method", "searchAuthors")
+                .summary().totalAmount());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T proxy(T target) {
+        final AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new LibraryMetricsAspect(meterRegistry));
+        return (T) proxyFactory.getProxy();
+    }
+}
@@ -0,0 +1,44 @@
+package ru.otus.webbooklibrary.metrics;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MongoCommandMetricsListenerTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MongoCommandMetricsListener listener = new MongoCommandMetricsListener(meterRegistry);
+    private final ConnectionDescription connection = new ConnectionDescription(
+            new ServerId(new ClusterId(), new ServerAddress()));
+
+    @Test
+    void shouldTagCommandsWithCollectionAndStatus() {
+        listener.commandStarted(new CommandStartedEvent(1, connection, "library", "find",
+                new BsonDocument("find", new BsonString("books"))));
+        listener.commandSucceeded(new CommandSucceededEvent(1, connection, "find", new BsonDocument(),
+                TimeUnit.MILLISECONDS.toNanos(3)));
+
+        listener.commandStarted(new CommandStartedEvent(2, connection, "library", "getMore",
+                new BsonDocument("getMore", new BsonInt64(42)).append("collection", new BsonString("comments"))));
+        listener.commandFailed(new CommandFailedEvent(2, connection, "getMore",
+                TimeUnit.MILLISECONDS.toNanos(5), new IllegalStateException()));
+
+        assertEquals(3, meterRegistry.get("mongodb.driver.commands").tag("command", "find")
+                .tag("collection", "books").tag("status", "SUCCESS").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, meterRegistry.get("mongodb.driver.commands").tag("command", "getMore")
+                .tag("collection", "comments").tag("status", "FAILED").timer().count());
+    }
+}
@@ -0,0 +1,66 @@
+package ru.otus.webbooklibrary.page;
+
+import org.junit.jupiter.api.Test;
+import ru.otus.webbooklibrary.domain.Genre;
+
+import java.io.Flushable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+class ChunkedRowsTest {
+    @SuppressWarnings("unchecked")
+    private final BiFunction<String, Integer, List<Genre>> loader = mock(BiFunction.class);
+    private final Flushable output = mock(Flushable.class);
+
+    @Test
+    void shouldLoadRowsChunkByChunkAndFlushBetweenChunks() throws Exception {
+        when(loader.apply(null, 2)).thenReturn(List.of(genre("g1"), genre("g2")));
+        when(loader.apply("g2", 2)).thenReturn(List.of(genre("g3"), genre("g4")));
+        when(loader.apply("g4", 2)).thenReturn(List.of(genre("g5"), genre("g6")));
+
+        final ChunkedRows<Genre> rows = new ChunkedRows<>(loader, Genre::getId, output, null, 5, 2);
+        final List<String> ids = new ArrayList<>();
+        rows.forEachRemaining(genre -> ids.add(genre.getId()));
+
+        assertThat(ids).containsExactly("g1", "g2", "g3", "g4", "g5");
+        verify(output, times(2)).flush();
+        assertEquals("g5", rows.getNextAfter());
+    }
+
+    @Test
+    void shouldNotOfferNextPageWhenLastChunkEndsTheCollection() {
+        when(loader.apply(null, 2)).thenReturn(List.of(genre("g1"), genre("g2")));
+        when(loader.apply("g2", 2)).thenReturn(List.of(genre("g3")));
+
+        final ChunkedRows<Genre> rows = new ChunkedRows<>(loader, Genre::getId, output, null, 3, 2);
+        final List<String> ids = new ArrayList<>();
+        rows.forEachRemaining(genre -> ids.add(genre.getId()));
+
+        assertThat(ids).containsExactly("g1", "g2", "g3");
+        assertNull(rows.getNextAfter());
+    }
+
+    @Test
+    void shouldStopWithoutNextPageWhenCollectionIsExhausted() {
+        when(loader.apply("g2", 2)).thenReturn(List.of(genre("g3")));
+
+        final ChunkedRows<Genre> rows = new ChunkedRows<>(loader, Genre::getId, output, "g2", 5, 2);
+        rows.forEachRemaining(genre -> { });
+
+        verify(loader, times(1)).apply(any(), any());
+        verifyNoInteractions(output);
+        assertNull(rows.getNextAfter());
+    }
+
+    private static Genre genre(String id) {
+        final Genre genre = new Genre(id);
+        genre.setId(id);
+        return genre;
+    }
+}
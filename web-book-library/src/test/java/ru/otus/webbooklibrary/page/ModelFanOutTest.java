@@ -0,0 +1,94 @@
+package ru.otus.webbooklibrary.page;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ui.ExtendedModelMap;
+import org.springframework.ui.Model;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ModelFanOutTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ModelFanOut fanOut = new ModelFanOut(meterRegistry, 4, 4, Duration.ofMillis(500));
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        fanOut.destroy();
+    }
+
+    @Test
+    void shouldLoadIndependentAttributesConcurrently() {
+        final CountDownLatch bothStarted = new CountDownLatch(2);
+        final Model model = new ExtendedModelMap();
+
+        fanOut.into(model)
+                .require("authors", () -> rendezvous(bothStarted, "Joyce"))
+                .require("genres", () -> rendezvous(bothStarted, "Modernist novel"))
+                .await();
+
+        assertEquals("Joyce", model.getAttribute("authors"));
+        assertEquals("Modernist novel", model.getAttribute("genres"));
+        assertEquals(false, model.getAttribute("partial"));
+    }
+
+    @Test
+    void shouldRenderPartialModelWhenOptionalAttributeIsLate() {
+        final Model model = new ExtendedModelMap();
+
+        fanOut.into(model)
+                .require("book", () -> "Ulysses")
+                .optional("authors", this::blocked, List::of)
+                .await();
+
+        assertEquals("Ulysses", model.getAttribute("book"));
+        assertEquals(List.of(), model.getAttribute("authors"));
+        assertEquals(true, model.getAttribute("partial"));
+        assertEquals(1, meterRegistry.get("library.pages.fan-out.partial").tag("attribute", "authors")
+                .counter().count());
+    }
+
+    @Test
+    void shouldFailPageWhenRequiredAttributeIsLate() {
+        final ModelFanOut.Loads loads = fanOut.into(new ExtendedModelMap()).require("book", this::blocked);
+
+        assertThatThrownBy(loads::await).isInstanceOf(PageBudgetExceededException.class);
+    }
+
+    @Test
+    void shouldPropagateRequiredAttributeFailure() {
+        final ModelFanOut.Loads loads = fanOut.into(new ExtendedModelMap()).require("book", () -> {
+            throw new IllegalArgumentException("Incorrect book id");
+        });
+
+        assertThatThrownBy(loads::await).isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Incorrect book id");
+    }
+
+    private String rendezvous(CountDownLatch latch, String value) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS) ? value : null;
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<String> blocked() {
+        try {
+            release.await();
+            return List.of("late");
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -4,17 +4,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.page.RowPager;
 import ru.otus.webbooklibrary.service.AuthorServiceImpl;
 
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AuthorPageController.class)
+@Import(RowPager.class)
 class AuthorPageControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -33,9 +38,10 @@ class AuthorPageControllerTest {
 
     @Test
     void testGetAllByCorrectStatus() throws Exception {
-        when(authorService.getAll()).thenReturn(List.of(new Author("James Joyce"), new Author("Author")));
+        when(authorService.getPage(null, 25)).thenReturn(List.of(new Author("James Joyce"), new Author("Author")));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/authors"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("James Joyce")));
     }
 }
@@ -1,24 +1,36 @@
 package ru.otus.webbooklibrary.page.controller;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.otus.webbooklibrary.domain.Author;
 import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.BookWithComments;
+import ru.otus.webbooklibrary.domain.Comment;
 import ru.otus.webbooklibrary.domain.Genre;
+import ru.otus.webbooklibrary.page.ModelFanOut;
+import ru.otus.webbooklibrary.page.RowPager;
+import ru.otus.webbooklibrary.rest.dto.BookSummary;
 import ru.otus.webbooklibrary.service.AuthorServiceImpl;
 import ru.otus.webbooklibrary.service.BookServiceImpl;
 import ru.otus.webbooklibrary.service.GenreServiceImpl;
 
 import java.util.List;
+import java.util.Set;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(BookPageController.class)
+@Import({RowPager.class, ModelFanOut.class, SimpleMeterRegistry.class})
 class BookPageControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -32,12 +44,13 @@ class BookPageControllerTest {
 
     @Test
     void testGetBookByIdByStatus() throws Exception {
-        when(bookService.getBookById("Book")).thenReturn(new Book("Book", new Author("Author"),
-                new Genre("Genre")));
+        when(bookService.getBookWithComments("Book")).thenReturn(new BookWithComments(new Book("Book",
+                new Author("Author"), new Genre("Genre")), List.of(new Comment("Comment", "Book"))));
 
         mockMvc.perform(get("/books/id")
                 .param("id", "Book"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"content\":\"Comment\"")));
     }
 
     @Test
@@ -70,11 +83,27 @@ class BookPageControllerTest {
 
     @Test
     void testGetAllByStatusByStatus() throws Exception {
-        when(bookService.getAll()).thenReturn(List.of
-                (new Book("Modernist novel", new Author("James Joyce"), new Genre("Modernist novel")),
+        when(bookService.getProjection(Set.copyOf(BookSummary.FIELDS.values()), null, 25)).thenReturn(List.of
+                (new Book("Ulysses", new Author("James Joyce"), new Genre("Modernist novel")),
                         new Book("Book", new Author("Author"), new Genre("Genre"))));
 
         mockMvc.perform(get("/books"))
-                .andExpect(status().isOk());
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("/books/author/James%20Joyce")));
+    }
+
+    @Test
+    void testEditPageByStatus() throws Exception {
+        when(bookService.getBookById("Book")).thenReturn(new Book("Ulysses", new Author("James Joyce"),
+                new Genre("Modernist novel")));
+        when(authorService.getAll()).thenReturn(List.of(new Author("Michel Foucault")));
+        when(genreService.getAll()).thenReturn(List.of(new Genre("Philosophy")));
+
+        mockMvc.perform(get("/books/edit")
+                .param("id", "Book"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Michel Foucault")))
+                .andExpect(content().string(containsString("Philosophy")))
+                .andExpect(content().string(not(containsString("temporarily unavailable"))));
     }
 }
@@ -4,18 +4,22 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.otus.webbooklibrary.domain.Comment;
+import ru.otus.webbooklibrary.page.RowPager;
 import ru.otus.webbooklibrary.service.BookServiceImpl;
 import ru.otus.webbooklibrary.service.CommentServiceImpl;
 
 import java.util.List;
+import java.util.Set;
 
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CommentPageController.class)
+@Import(RowPager.class)
 class CommentPageControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -46,7 +50,7 @@ class CommentPageControllerTest {
 
     @Test
     void testGetAllByStatus() throws Exception {
-        when(commentService.getAll()).thenReturn(List.of
+        when(commentService.getProjection(Set.of("content", "book.title"), null, 25)).thenReturn(List.of
                 (new Comment("Published in 1922", "Ulysses"),
                         new Comment("Comment", "Book")));
 
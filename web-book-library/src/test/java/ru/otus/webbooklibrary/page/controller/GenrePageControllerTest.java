@@ -4,17 +4,23 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.otus.webbooklibrary.domain.Genre;
+import ru.otus.webbooklibrary.page.RowPager;
 import ru.otus.webbooklibrary.service.GenreServiceImpl;
 
 import java.util.List;
 
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(GenrePageController.class)
+@Import(RowPager.class)
 class GenrePageControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -33,9 +39,31 @@ class GenrePageControllerTest {
 
     @Test
     void testGetAllByStatus() throws Exception {
-        when(genreService.getAll()).thenReturn(List.of(new Genre("Modernist novel"), new Genre("Genre")));
+        when(genreService.getPage(null, 25)).thenReturn(List.of(new Genre("Modernist novel"), new Genre("Genre")));
 
         mockMvc.perform(MockMvcRequestBuilders.get("/genres"))
                 .andExpect(status().isOk());
     }
+
+    @Test
+    void shouldLinkToNextPageWhenPageIsFull() throws Exception {
+        final Genre novel = new Genre("Modernist novel");
+        novel.setId("g1");
+        final Genre philosophy = new Genre("Philosophy");
+        philosophy.setId("g2");
+        final Genre poetry = new Genre("Poetry");
+        poetry.setId("g3");
+
+        when(genreService.getPage(null, 3)).thenReturn(List.of(novel, philosophy, poetry));
+        when(genreService.getPage("g2", 3)).thenReturn(List.of(poetry));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/genres").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Philosophy")))
+                .andExpect(content().string(containsString("/genres?after=g2&amp;limit=2")));
+        mockMvc.perform(MockMvcRequestBuilders.get("/genres").param("after", "g2").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("Poetry")))
+                .andExpect(content().string(not(containsString("Next page"))));
+    }
 }
@@ -0,0 +1,80 @@
+package ru.otus.webbooklibrary.repository;
+
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import ru.otus.webbooklibrary.domain.Book;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class BookRepositoryCustomImplTest {
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+    private final BookRepositoryCustomImpl repository = new BookRepositoryCustomImpl(mongoTemplate);
+    private final ObjectId bookId = new ObjectId();
+
+    @BeforeEach
+    void setUp() {
+        when(mongoTemplate.getConverter())
+                .thenReturn(mongoConverter());
+        when(mongoTemplate.getCollectionName(Book.class)).thenReturn("books");
+        when(mongoTemplate.updateFirst(any(Query.class), any(UpdateDefinition.class), anyString()))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        when(mongoTemplate.updateMulti(any(Query.class), any(UpdateDefinition.class), anyString()))
+                .thenReturn(UpdateResult.acknowledged(2, 2L, null));
+    }
+
+    @Test
+    void shouldIncrementCommentCountWithoutBumpingVersion() {
+        final Instant commentedAt = Instant.parse("2020-07-01T10:15:30Z");
+
+        assertEquals(1, repository.incrementCommentCount(bookId.toHexString(), 1, commentedAt));
+
+        verify(mongoTemplate).updateFirst(
+                argThat(query -> query.getQueryObject().equals(new Document("_id", bookId))),
+                argThat(update -> update.getUpdateObject().equals(new Document("$inc", new Document("commentCount", 1L))
+                        .append("$max", new Document("lastCommentAt", Date.from(commentedAt))))),
+                eq("books"));
+        verify(mongoTemplate, never()).updateFirst(any(Query.class), any(UpdateDefinition.class), eq(Book.class));
+    }
+
+    @Test
+    void shouldRenameAuthorInBooksWithoutBumpingVersion() {
+        final ObjectId authorId = new ObjectId();
+
+        assertEquals(2, repository.updateAuthorName(authorId.toHexString(), "James Joyce"));
+
+        verify(mongoTemplate).updateMulti(
+                argThat(query -> query.getQueryObject().equals(new Document("author._id", authorId))),
+                argThat(update -> update.getUpdateObject()
+                        .equals(new Document("$set", new Document("author.name", "James Joyce")))),
+                eq("books"));
+        verify(mongoTemplate, never()).updateMulti(any(Query.class), any(UpdateDefinition.class), eq(Book.class));
+    }
+
+    private static MappingMongoConverter mongoConverter() {
+        final MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        final MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        final MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
@@ -0,0 +1,178 @@
+package ru.otus.webbooklibrary.repository;
+
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.ReactiveMongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.Comment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NamedDocumentsTest {
+    private static final int WRITERS = 64;
+
+    private final MongoTemplate mongoTemplate = mock(MongoTemplate.class);
+
+    @Test
+    void shouldNotCreateDuplicateAuthorsUnderParallelWriters() throws Exception {
+        final Map<String, Author> authorsByName = new ConcurrentHashMap<>();
+        final AtomicInteger inserts = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService writers = Executors.newFixedThreadPool(WRITERS);
+
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Author.class))).thenAnswer(invocation -> {
+            final String name = invocation.<Query>getArgument(0).getQueryObject().getString("name");
+            final Author existing = authorsByName.get(name);
+            if (existing != null)
+                return existing;
+
+            final Author author = new Author(name);
+            author.setId(new ObjectId().toHexString());
+            Thread.yield();
+            if (authorsByName.putIfAbsent(name, author) != null)
+                throw new DuplicateKeyException("E11000 duplicate key error collection: library.authors");
+
+            inserts.incrementAndGet();
+            return author;
+        });
+
+        final List<CompletableFuture<Author>> results = IntStream.range(0, WRITERS)
+                .mapToObj(i -> CompletableFuture.supplyAsync(() -> {
+                    await(start);
+                    return NamedDocuments.findOrCreateByName(mongoTemplate, "James Joyce", Author.class);
+                }, writers))
+                .collect(Collectors.toList());
+        start.countDown();
+
+        final Set<String> ids = results.stream().map(CompletableFuture::join).map(Author::getId)
+                .collect(Collectors.toSet());
+        writers.shutdown();
+
+        assertEquals(1, ids.size());
+        assertEquals(1, inserts.get());
+        assertEquals(Set.of("James Joyce"), authorsByName.keySet());
+    }
+
+    @Test
+    void shouldResolveNameWithSingleUpsert() {
+        final Author joyce = new Author("James Joyce");
+
+        when(mongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Author.class))).thenReturn(joyce);
+
+        assertEquals(joyce, NamedDocuments.findOrCreateByName(mongoTemplate, "James Joyce", Author.class));
+
+        verify(mongoTemplate, times(1)).findAndModify(
+                argThat(query -> query.getQueryObject().equals(new Document("name", "James Joyce"))),
+                argThat(update -> update.getUpdateObject()
+                        .equals(new Document("$setOnInsert", new Document("name", "James Joyce")))),
+                argThat(options -> options.isUpsert() && options.isReturnNew()),
+                eq(Author.class));
+        verifyNoMoreInteractions(mongoTemplate);
+    }
+
+    @Test
+    void shouldRetryReactiveUpsertThatLostInsertRace() {
+        final ReactiveMongoTemplate reactiveMongoTemplate = mock(ReactiveMongoTemplate.class);
+        final Author joyce = new Author("James Joyce");
+
+        when(reactiveMongoTemplate.findAndModify(any(Query.class), any(Update.class), any(FindAndModifyOptions.class),
+                eq(Author.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("E11000 duplicate key error")), Mono.just(joyce));
+
+        StepVerifier.create(NamedDocuments.findOrCreateByName(reactiveMongoTemplate, "James Joyce", Author.class))
+                .expectNext(joyce)
+                .verifyComplete();
+
+        verify(reactiveMongoTemplate, times(2)).findAndModify(
+                argThat(query -> query.getQueryObject().equals(new Document("name", "James Joyce"))),
+                argThat(update -> update.getUpdateObject()
+                        .equals(new Document("$setOnInsert", new Document("name", "James Joyce")))),
+                argThat(options -> options.isUpsert() && options.isReturnNew()),
+                eq(Author.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldMergeDuplicateAuthorsIntoOldestDocument() {
+        final ObjectId survivorId = new ObjectId();
+        final List<ObjectId> losers = List.of(new ObjectId(), new ObjectId());
+        final Author survivor = new Author("James Joyce");
+        survivor.setId(survivorId.toHexString());
+
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(new AggregationResults<>(List.of(new Document("_id", "James Joyce")
+                        .append("ids", List.of(survivorId, losers.get(0), losers.get(1)))), new Document()));
+        when(mongoTemplate.findById(survivorId, Author.class)).thenReturn(survivor);
+        when(mongoTemplate.remove(any(Query.class), eq(Author.class))).thenReturn(DeleteResult.acknowledged(2));
+        when(mongoTemplate.getConverter())
+                .thenReturn(mongoConverter());
+        when(mongoTemplate.getCollectionName(Book.class)).thenReturn("books");
+        when(mongoTemplate.getCollectionName(Comment.class)).thenReturn("comments");
+
+        assertEquals(2, NamedDocuments.mergeDuplicateNames(mongoTemplate, Author.class, "author"));
+
+        verify(mongoTemplate).updateMulti(argThat(query -> query.getQueryObject()
+                        .equals(new Document("author._id", new Document("$in", losers)))),
+                argThat(update -> update.getUpdateObject().equals(new Document("$set",
+                        new Document("author", new Document("_id", survivorId).append("name", "James Joyce"))))),
+                eq("books"));
+        verify(mongoTemplate).updateMulti(argThat(query -> query.getQueryObject()
+                        .equals(new Document("book.author._id", new Document("$in", losers)))),
+                any(Update.class), eq("comments"));
+        verify(mongoTemplate).remove(argThat(query -> query.getQueryObject()
+                .equals(new Document("id", new Document("$in", losers)))), eq(Author.class));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MappingMongoConverter mongoConverter() {
+        final MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        final MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        final MappingMongoConverter converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+        return converter;
+    }
+}
@@ -0,0 +1,123 @@
+package ru.otus.webbooklibrary.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.test.util.AopTestUtils;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.domain.Genre;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@SpringJUnitConfig
+class RepositoryCacheTest {
+    @Configuration
+    @EnableCaching
+    static class CacheConfiguration {
+        @Bean
+        public CacheManager cacheManager() {
+            return new CaffeineCacheManager("authorsByName", "allAuthors", "genresByName", "allGenres");
+        }
+
+        @Bean
+        public AuthorRepository authorRepository() {
+            return mock(AuthorRepository.class);
+        }
+
+        @Bean
+        public GenreRepository genreRepository() {
+            return mock(GenreRepository.class);
+        }
+    }
+
+    @Autowired
+    private AuthorRepository authorRepository;
+    @Autowired
+    private GenreRepository genreRepository;
+    @Autowired
+    private CacheManager cacheManager;
+
+    private final Author jamesJoyce = new Author("James Joyce");
+    private final Genre novel = new Genre("Modernist novel");
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        reset(target(authorRepository), target(genreRepository));
+    }
+
+    @Test
+    void shouldReadAuthorsThroughCache() {
+        final AuthorRepository target = target(authorRepository);
+        when(target.findByName(jamesJoyce.getName())).thenReturn(List.of(jamesJoyce));
+        when(target.findAll()).thenReturn(List.of(jamesJoyce));
+
+        authorRepository.findByName(jamesJoyce.getName());
+        authorRepository.findAll();
+
+        assertEquals(List.of(jamesJoyce), authorRepository.findByName(jamesJoyce.getName()));
+        assertEquals(List.of(jamesJoyce), authorRepository.findAll());
+
+        verify(target, times(1)).findByName(jamesJoyce.getName());
+        verify(target, times(1)).findAll();
+    }
+
+    @Test
+    void shouldInvalidateAuthorsOnWrite() {
+        final AuthorRepository target = target(authorRepository);
+        when(target.findByName(jamesJoyce.getName())).thenReturn(List.of(jamesJoyce));
+
+        authorRepository.findByName(jamesJoyce.getName());
+        authorRepository.save(new Author("Michel Foucault"));
+        authorRepository.findByName(jamesJoyce.getName());
+        authorRepository.deleteById("id");
+        authorRepository.findByName(jamesJoyce.getName());
+
+        verify(target, times(3)).findByName(jamesJoyce.getName());
+    }
+
+    @Test
+    void shouldCacheMissingGenreUntilItIsSaved() {
+        final GenreRepository target = target(genreRepository);
+        when(target.findByName(novel.getName())).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(), genreRepository.findByName(novel.getName()));
+        assertEquals(Optional.empty(), genreRepository.findByName(novel.getName()));
+
+        when(target.findByName(novel.getName())).thenReturn(Optional.of(novel));
+        genreRepository.save(novel);
+
+        assertEquals(Optional.of(novel), genreRepository.findByName(novel.getName()));
+
+        verify(target, times(2)).findByName(novel.getName());
+    }
+
+    @Test
+    void shouldInvalidateMissingGenreWhenItIsUpserted() {
+        final GenreRepository target = target(genreRepository);
+        when(target.findByName(novel.getName())).thenReturn(Optional.empty());
+
+        assertEquals(Optional.empty(), genreRepository.findByName(novel.getName()));
+
+        when(target.findByName(novel.getName())).thenReturn(Optional.of(novel));
+        genreRepository.findOrCreateByName(novel.getName());
+
+        assertEquals(Optional.of(novel), genreRepository.findByName(novel.getName()));
+
+        verify(target, times(2)).findByName(novel.getName());
+    }
+
+    private static <T> T target(T repository) {
+        return AopTestUtils.getUltimateTargetObject(repository);
+    }
+}
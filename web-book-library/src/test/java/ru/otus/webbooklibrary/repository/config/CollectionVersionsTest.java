@@ -0,0 +1,53 @@
+package ru.otus.webbooklibrary.repository.config;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class CollectionVersionsTest {
+    private final CollectionVersions versions = new CollectionVersions();
+    private final ConnectionDescription connection = new ConnectionDescription(
+            new ServerId(new ClusterId(), new ServerAddress()));
+
+    @Test
+    void shouldChangeVersionOnlyOnWritesToTrackedCollection() {
+        final String books = versions.etag(List.of("books"));
+        final String genres = versions.etag(List.of("genres"));
+
+        execute(1, "find", "books");
+        assertEquals(books, versions.etag(List.of("books")));
+
+        execute(2, "update", "books");
+        assertNotEquals(books, versions.etag(List.of("books")));
+        assertEquals(genres, versions.etag(List.of("genres")));
+    }
+
+    @Test
+    void shouldChangeVersionWhenWriteFails() {
+        final String comments = versions.etag(List.of("books", "comments"));
+
+        versions.commandStarted(new CommandStartedEvent(1, connection, "library", "insert",
+                new BsonDocument("insert", new BsonString("comments"))));
+        versions.commandFailed(new CommandFailedEvent(1, connection, "insert", 0, new IllegalStateException()));
+
+        assertNotEquals(comments, versions.etag(List.of("books", "comments")));
+    }
+
+    private void execute(int requestId, String command, String collection) {
+        versions.commandStarted(new CommandStartedEvent(requestId, connection, "library", command,
+                new BsonDocument(command, new BsonString(collection))));
+        versions.commandSucceeded(new CommandSucceededEvent(requestId, connection, command, new BsonDocument(), 0));
+    }
+}
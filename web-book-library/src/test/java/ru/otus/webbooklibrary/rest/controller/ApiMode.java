@@ -0,0 +1,58 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+enum ApiMode {
+    BLOCKING {
+        @Override
+        ResultActions perform(MockMvc blocking, MockMvc reactive, RequestBuilder request) throws Exception {
+            return blocking.perform(request);
+        }
+    },
+    REACTIVE {
+        @Override
+        ResultActions perform(MockMvc blocking, MockMvc reactive, RequestBuilder request) throws Exception {
+            final ResultActions actions = reactive.perform(request);
+            final MvcResult result = actions.andReturn();
+
+            return result.getRequest().isAsyncStarted() ? reactive.perform(asyncDispatch(result)) : actions;
+        }
+    };
+
+    abstract ResultActions perform(MockMvc blocking, MockMvc reactive, RequestBuilder request) throws Exception;
+
+    static <S> MockMvc reactiveMockMvc(Class<S> reactiveService, Object blockingService,
+                                       Function<S, Object> controller) {
+        return MockMvcBuilders.standaloneSetup(controller.apply(mock(reactiveService, invocation -> {
+            final Method method = invocation.getMethod();
+            final boolean many = Flux.class.equals(method.getReturnType());
+            final Object result;
+            try {
+                result = blockingService.getClass().getMethod(method.getName(), method.getParameterTypes())
+                        .invoke(blockingService, invocation.getArguments());
+            } catch (InvocationTargetException e) {
+                return many ? Flux.error(e.getCause()) : Mono.error(e.getCause());
+            }
+
+            if (!many)
+                return Mono.justOrEmpty(result);
+            if (result instanceof Iterable)
+                return Flux.fromIterable((Iterable<?>) result);
+            return result == null ? Flux.empty() : Flux.fromIterable(List.of(result));
+        }))).build();
+    }
+}
@@ -3,19 +3,26 @@ package ru.otus.webbooklibrary.rest.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.otus.webbooklibrary.domain.Author;
 import ru.otus.webbooklibrary.rest.dto.AuthorRequest;
 import ru.otus.webbooklibrary.service.AuthorServiceImpl;
+import ru.otus.webbooklibrary.service.ReactiveAuthorService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Set;
 
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -31,8 +38,18 @@ class AuthorControllerTest {
     private static final MediaType APPLICATION_JSON_UTF8 = new MediaType(MediaType.APPLICATION_JSON.getType(),
             MediaType.APPLICATION_JSON.getSubtype(), StandardCharsets.UTF_8);
 
-    @Test
-    void testCreateByStatus() throws Exception {
+    private MockMvc reactiveMockMvc;
+
+    @BeforeEach
+    void setUp() {
+        reactiveMockMvc = ApiMode.reactiveMockMvc(ReactiveAuthorService.class, authorService, ReactiveAuthorController::new);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testCreateByStatus(ApiMode mode) throws Exception {
+        when(authorService.saveAuthor("Author")).thenReturn("You successfully saved a Author to repository");
+
         AuthorRequest authorRequest = new AuthorRequest();
         authorRequest.setAuthor("Author");
         ObjectMapper mapper = new ObjectMapper();
@@ -40,39 +57,62 @@ class AuthorControllerTest {
         ObjectWriter ow = mapper.writer().withDefaultPrettyPrinter();
         String requestJson = ow.writeValueAsString(authorRequest);
 
-        mockMvc.perform(MockMvcRequestBuilders.post("/api/authors").contentType(APPLICATION_JSON_UTF8)
+        perform(mode, MockMvcRequestBuilders.post("/api/authors").contentType(APPLICATION_JSON_UTF8)
                 .content(requestJson))
                 .andExpect(status().isCreated());
     }
 
-    @Test
-    void testGetAuthorByIdByStatus() throws Exception {
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void shouldPreferIdsOverLimit(ApiMode mode) throws Exception {
+        when(authorService.getAuthorsByIds(Set.of("id"))).thenReturn(List.of(new Author("Author")));
+
+        perform(mode, MockMvcRequestBuilders.get("/api/authors")
+                .param("ids", "id").param("limit", "1"))
+                .andExpect(status().isOk());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetAuthorByIdByStatus(ApiMode mode) throws Exception {
         when(authorService.getAuthorById("id")).thenReturn(new Author("Author"));
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/authors/id")
+        perform(mode, MockMvcRequestBuilders.get("/api/authors/id")
                 .param("id", "id"))
                 .andExpect(status().isOk());
     }
 
-    @Test
-    void testGetAuthorByNameByStatus() throws Exception {
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetAuthorByNameByStatus(ApiMode mode) throws Exception {
         when(authorService.getAuthorByName("Author")).thenReturn(List.of(new Author("Author")));
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/authors/Author"))
+        perform(mode, MockMvcRequestBuilders.get("/api/authors/Author"))
                 .andExpect(status().isOk());
     }
 
-    @Test
-    void testGetAllByStatus() throws Exception {
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetAllByStatus(ApiMode mode) throws Exception {
         when(authorService.getAll()).thenReturn(List.of(new Author("James Joyce"),
                 new Author("Author")));
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/authors"))
+        perform(mode, MockMvcRequestBuilders.get("/api/authors"))
                 .andExpect(status().isOk());
     }
 
-    @Test
-    void testEditByStatus() throws Exception {
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetPageByStatus(ApiMode mode) throws Exception {
+        when(authorService.getPage(null, 2)).thenReturn(List.of(new Author("Author")));
+
+        perform(mode, MockMvcRequestBuilders.get("/api/authors").param("limit", "2"))
+                .andExpect(status().isOk());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testEditByStatus(ApiMode mode) throws Exception {
         when(authorService.updateAuthor("id", "Author"))
                 .thenReturn("Author was updated");
 
@@ -84,13 +124,14 @@ class AuthorControllerTest {
         ObjectWriter ow = mapper.writer().withDefaultPrettyPrinter();
         String requestJson = ow.writeValueAsString(authorRequest);
 
-        mockMvc.perform(MockMvcRequestBuilders.put("/api/authors").contentType(APPLICATION_JSON_UTF8)
+        perform(mode, MockMvcRequestBuilders.put("/api/authors").contentType(APPLICATION_JSON_UTF8)
                 .content(requestJson))
                 .andExpect(status().isOk());
     }
 
-    @Test
-    void testDeleteByNameByStatus() throws Exception {
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testDeleteByNameByStatus(ApiMode mode) throws Exception {
         when(authorService.deleteAuthor("Author")).thenReturn("Author was deleted");
 
         AuthorRequest authorRequest = new AuthorRequest();
@@ -100,8 +141,12 @@ class AuthorControllerTest {
         ObjectWriter ow = mapper.writer().withDefaultPrettyPrinter();
         String requestJson = ow.writeValueAsString(authorRequest);
 
-        mockMvc.perform(MockMvcRequestBuilders.delete("/api/authors").contentType(APPLICATION_JSON_UTF8)
+        perform(mode, MockMvcRequestBuilders.delete("/api/authors").contentType(APPLICATION_JSON_UTF8)
                 .content(requestJson))
                 .andExpect(status().isOk());
     }
+
+    private ResultActions perform(ApiMode mode, RequestBuilder request) throws Exception {
+        return mode.perform(mockMvc, reactiveMockMvc, request);
+    }
 }
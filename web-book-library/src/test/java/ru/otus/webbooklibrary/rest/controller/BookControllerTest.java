@@ -3,25 +3,38 @@ package ru.otus.webbooklibrary.rest.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.otus.webbooklibrary.domain.Author;
 import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.BookWithComments;
+import ru.otus.webbooklibrary.domain.Comment;
 import ru.otus.webbooklibrary.domain.Genre;
 import ru.otus.webbooklibrary.rest.dto.BookRequest;
 import ru.otus.webbooklibrary.service.BookServiceImpl;
+import ru.otus.webbooklibrary.service.ReactiveBookService;
+import ru.otus.webbooklibrary.service.VersionConflictException;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import static org.hamcrest.Matchers.matchesPattern;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(BookController.class)
 class BookControllerTest {
@@ -34,8 +47,16 @@ class BookControllerTest {
     private static final MediaType APPLICATION_JSON_UTF8 = new MediaType(MediaType.APPLICATION_JSON.getType(),
             MediaType.APPLICATION_JSON.getSubtype(), StandardCharsets.UTF_8);
 
-    @Test
-    void testCreateByStatus() throws Exception {
+    private MockMvc reactiveMockMvc;
+
+    @BeforeEach
+    void setUp() {
+        reactiveMockMvc = ApiMode.reactiveMockMvc(ReactiveBookService.class, bookService, ReactiveBookController::new);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testCreateByStatus(ApiMode mode) throws Exception {
         final Book book = new Book("Modernist novel",
                 new Author("James Joyce"), new Genre("Modernist novel"));
 
@@ -48,32 +69,182 @@ class BookControllerTest {
         ObjectWriter ow = mapper.writer().withDefaultPrettyPrinter();
         String requestJson = ow.writeValueAsString(bookRequest);
 
-        mockMvc.perform(post("/api/books").contentType(APPLICATION_JSON_UTF8)
+        perform(mode, post("/api/books").contentType(APPLICATION_JSON_UTF8)
                 .content(requestJson))
                 .andExpect(status().isCreated());
     }
 
-    @Test
-    void testGetBookByTitleByStatus() throws Exception {
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetBookByTitleByStatus(ApiMode mode) throws Exception {
         when(bookService.getBookByTitle("Book")).thenReturn(List.of(new Book("Book", new Author("Author"),
                 new Genre("Genre"))));
 
-        mockMvc.perform(get("/api/books/title/Book"))
+        perform(mode, get("/api/books/title/Book"))
                 .andExpect(status().isOk());
     }
 
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetBookWithCommentsByContent(ApiMode mode) throws Exception {
+        final Book book = new Book("Ulysses", new Author("James Joyce"), new Genre("Modernist novel"));
+
+        when(bookService.getBookWithComments("id")).thenReturn(new BookWithComments(book,
+                List.of(new Comment("Published in 1922", book))));
+
+        perform(mode, get("/api/books/id/comments").param("id", "id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Ulysses"))
+                .andExpect(jsonPath("$.comments[0].content").value("Published in 1922"));
+    }
+
     @Test
-    void testGetAllByStatus() throws Exception {
+    void testGetBookByCommentByStatus() throws Exception {
+        when(bookService.getBookByComment("Comment")).thenReturn(new Book("Book", new Author("Author"),
+                new Genre("Genre")));
+
+        mockMvc.perform(get("/api/books/comment").param("comment", "Comment"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Book"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetAllByStatus(ApiMode mode) throws Exception {
         when(bookService.getAll()).thenReturn(List.of(new Book("Modernist novel",
                         new Author("James Joyce"), new Genre("Modernist novel")),
                 new Book("Book", new Author("Author"), new Genre("Genre"))));
 
-        mockMvc.perform(get("/api/books"))
+        perform(mode, get("/api/books"))
                 .andExpect(status().isOk());
     }
 
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void shouldReturnBooksByIdsWithoutDuplicates(ApiMode mode) throws Exception {
+        final Book book = new Book("Ulysses", new Author("James Joyce"), new Genre("Modernist novel"));
+        book.setId("5f1e9e5bb7b1a23f0c3d1e01");
+
+        when(bookService.getBooksByIds(Set.of(book.getId(), "5f1e9e5bb7b1a23f0c3d1e02")))
+                .thenReturn(List.of(book));
+
+        perform(mode, get("/api/books")
+                .param("ids", "5f1e9e5bb7b1a23f0c3d1e01, 5f1e9e5bb7b1a23f0c3d1e02,5f1e9e5bb7b1a23f0c3d1e01"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(book.getId()))
+                .andExpect(jsonPath("$[1]").doesNotExist());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void shouldPreferIdsOverLimitAndFields(ApiMode mode) throws Exception {
+        final Book book = new Book("Ulysses", new Author("James Joyce"), new Genre("Modernist novel"));
+        book.setId("5f1e9e5bb7b1a23f0c3d1e01");
+
+        when(bookService.getBooksByIds(Set.of(book.getId()))).thenReturn(List.of(book));
+
+        perform(mode, get("/api/books").param("ids", book.getId()).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(book.getId()));
+        perform(mode, get("/api/books").param("ids", book.getId()).param("fields", "title"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(book.getId()));
+        perform(mode, get("/api/books").param("ids", book.getId()).param("fields", "title").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(book.getId()));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void shouldRejectBlankIds(ApiMode mode) throws Exception {
+        perform(mode, get("/api/books").param("ids", " , "))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
-    void testUpdateByStatus() throws Exception {
+    void testGetPageByStatusAndCursor() throws Exception {
+        final Book book = new Book("Ulysses", new Author("James Joyce"), new Genre("Modernist novel"));
+        book.setId("5f1e9e5bb7b1a23f0c3d1e01");
+
+        when(bookService.getPage(null, 1)).thenReturn(List.of(book));
+        when(bookService.getPage(book.getId(), 1)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/books").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].title").value("Ulysses"))
+                .andExpect(jsonPath("$.next").value("NWYxZTllNWJiN2IxYTIzZjBjM2QxZTAx"));
+
+        mockMvc.perform(get("/api/books").param("limit", "1").param("after", "NWYxZTllNWJiN2IxYTIzZjBjM2QxZTAx"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty())
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void shouldReturnSparseBookSummaries(ApiMode mode) throws Exception {
+        final Book book = new Book("Ulysses", new Author("James Joyce"), null);
+        book.setId("5f1e9e5bb7b1a23f0c3d1e01");
+
+        when(bookService.getProjection(Set.of("title", "author.name"), null, Pagination.MAX_LIMIT))
+                .thenReturn(List.of(book));
+
+        perform(mode, get("/api/books").param("fields", "title, author"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("5f1e9e5bb7b1a23f0c3d1e01"))
+                .andExpect(jsonPath("$[0].title").value("Ulysses"))
+                .andExpect(jsonPath("$[0].author").value("James Joyce"))
+                .andExpect(jsonPath("$[0].genre").doesNotExist())
+                .andExpect(jsonPath("$[0].commentCount").doesNotExist());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void shouldPageBookSummaries(ApiMode mode) throws Exception {
+        final Book book = new Book("Ulysses", null, null);
+        book.setId("5f1e9e5bb7b1a23f0c3d1e01");
+
+        when(bookService.getProjection(Set.of("commentCount"), null, 1)).thenReturn(List.of(book));
+
+        perform(mode, get("/api/books").param("fields", "commentCount").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].commentCount").value(0))
+                .andExpect(jsonPath("$.items[0].title").doesNotExist())
+                .andExpect(jsonPath("$.next").value("NWYxZTllNWJiN2IxYTIzZjBjM2QxZTAx"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetSummariesWithUnknownFieldByStatus(ApiMode mode) throws Exception {
+        perform(mode, get("/api/books").param("fields", "title,isbn"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetPageWithIncorrectCursorByStatus() throws Exception {
+        mockMvc.perform(get("/api/books").param("limit", "10").param("after", "not a cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testStreamByContent() throws Exception {
+        when(bookService.getAllAsStream()).thenReturn(Stream.of(new Book("Modernist novel",
+                        new Author("James Joyce"), new Genre("Modernist novel")),
+                new Book("Book", new Author("Author"), new Genre("Genre"))));
+
+        final MvcResult result = mockMvc.perform(get("/api/books/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(matchesPattern("(\\{.*}\n){2}")));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testUpdateByStatus(ApiMode mode) throws Exception {
         final Book book = new Book("Book",
                 new Author("Author"), new Genre("Genre"));
 
@@ -89,13 +260,49 @@ class BookControllerTest {
         ObjectWriter ow = mapper.writer().withDefaultPrettyPrinter();
         String requestJson = ow.writeValueAsString(bookRequest);
 
-        mockMvc.perform(put("/api/books").contentType(APPLICATION_JSON_UTF8)
+        perform(mode, put("/api/books").contentType(APPLICATION_JSON_UTF8)
                 .content(requestJson))
                 .andExpect(status().isOk());
     }
 
-    @Test
-    void testDeleteByStatus() throws Exception {
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void shouldPatchOnlyChangedFields(ApiMode mode) throws Exception {
+        final Book book = new Book("Dubliners", new Author("James Joyce"), new Genre("Modernist novel"));
+        book.setId("5f1e9e5bb7b1a23f0c3d1e01");
+        book.setVersion(4L);
+
+        when(bookService.patchBook(book.getId(), 3, "Dubliners", null, null)).thenReturn(book);
+
+        perform(mode, patch("/api/books").contentType(APPLICATION_JSON_UTF8)
+                .content("{\"id\":\"5f1e9e5bb7b1a23f0c3d1e01\",\"version\":3,\"title\":\"Dubliners\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Dubliners"))
+                .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void shouldReturnConflictWhenPatchingStaleVersion(ApiMode mode) throws Exception {
+        when(bookService.patchBook("5f1e9e5bb7b1a23f0c3d1e01", 3, "Dubliners", null, null))
+                .thenThrow(new VersionConflictException("Book 5f1e9e5bb7b1a23f0c3d1e01 was modified concurrently"));
+
+        perform(mode, patch("/api/books").contentType(APPLICATION_JSON_UTF8)
+                .content("{\"id\":\"5f1e9e5bb7b1a23f0c3d1e01\",\"version\":3,\"title\":\"Dubliners\"}"))
+                .andExpect(status().isConflict());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void shouldRejectPatchWithoutVersion(ApiMode mode) throws Exception {
+        perform(mode, patch("/api/books").contentType(APPLICATION_JSON_UTF8)
+                .content("{\"id\":\"5f1e9e5bb7b1a23f0c3d1e01\",\"title\":\"Dubliners\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testDeleteByStatus(ApiMode mode) throws Exception {
         final Book book = new Book("Book",
                 new Author("Author"), new Genre("Genre"));
 
@@ -110,8 +317,12 @@ class BookControllerTest {
         ObjectWriter ow = mapper.writer().withDefaultPrettyPrinter();
         String requestJson = ow.writeValueAsString(bookRequest);
 
-        mockMvc.perform(delete("/api/books").contentType(APPLICATION_JSON_UTF8)
+        perform(mode, delete("/api/books").contentType(APPLICATION_JSON_UTF8)
                 .content(requestJson))
                 .andExpect(status().isOk());
     }
+
+    private ResultActions perform(ApiMode mode, RequestBuilder request) throws Exception {
+        return mode.perform(mockMvc, reactiveMockMvc, request);
+    }
 }
@@ -0,0 +1,94 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.otus.webbooklibrary.service.BookImportReport;
+import ru.otus.webbooklibrary.service.BookImportRow;
+import ru.otus.webbooklibrary.service.BookImportServiceImpl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BookImportController.class)
+class BookImportControllerTest {
+    @Autowired
+    private MockMvc mvc;
+    @MockBean
+    private BookImportServiceImpl bookImportService;
+
+    private final List<BookImportRow> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(bookImportService.importBooks(any())).thenAnswer(invocation -> {
+            final Iterator<BookImportRow> iterator = invocation.getArgument(0);
+            final BookImportReport report = new BookImportReport(10);
+
+            iterator.forEachRemaining(row -> {
+                rows.add(row);
+                report.received();
+            });
+            return report;
+        });
+    }
+
+    @Test
+    void testImportJsonArrayByContent() throws Exception {
+        mvc.perform(post("/api/books/import").contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"title\":\"Ulysses\",\"authorName\":\"James Joyce\",\"genreName\":\"Modernist novel\"}," +
+                        "{\"title\":[1,2],\"authorName\":\"James Joyce\",\"genreName\":\"Modernist novel\"}," +
+                        "{\"title\":\"Dubliners\",\"authorName\":\"James Joyce\",\"genreName\":\"Short stories\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(3));
+
+        assertThat(rows).extracting(BookImportRow::getTitle).containsExactly("Ulysses", null, "Dubliners");
+        assertThat(rows.get(1).getError()).isNotBlank();
+    }
+
+    @Test
+    void testImportNdJsonByContent() throws Exception {
+        mvc.perform(post("/api/books/import").contentType(NdJson.APPLICATION_NDJSON)
+                .content("{\"title\":\"Ulysses\",\"authorName\":\"James Joyce\",\"genreName\":\"Modernist novel\"}\n" +
+                        "{\"title\":\"Dubliners\",\"authorName\":\"James Joyce\",\"genreName\":\"Short stories\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2));
+
+        assertThat(rows).extracting(BookImportRow::getNumber).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testImportCsvByContent() throws Exception {
+        mvc.perform(post("/api/books/import").contentType(BookImportController.TEXT_CSV_VALUE)
+                .content("title,authorName,genreName\n" +
+                        "Ulysses,James Joyce,Modernist novel\n" +
+                        "\"Discipline and Punish\",\"Michel Foucault\",Philosophy\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.received").value(2));
+
+        assertThat(rows).extracting(BookImportRow::getAuthorName).containsExactly("James Joyce", "Michel Foucault");
+    }
+
+    @Test
+    void testImportMalformedJsonStopsWithRowError() throws Exception {
+        mvc.perform(post("/api/books/import").contentType(NdJson.APPLICATION_NDJSON)
+                .content("{\"title\":\"Ulysses\",\"authorName\":\"James Joyce\",\"genreName\":\"Modernist novel\"}\n" +
+                        "{\"title\":\"Dubl\n"))
+                .andExpect(status().isOk());
+
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(1).getError()).startsWith("Malformed input");
+    }
+}
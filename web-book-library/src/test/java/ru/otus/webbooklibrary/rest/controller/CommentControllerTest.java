@@ -3,24 +3,40 @@ package ru.otus.webbooklibrary.rest.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
+import ru.otus.webbooklibrary.config.WireFormatConfig;
 import ru.otus.webbooklibrary.domain.Comment;
 import ru.otus.webbooklibrary.rest.dto.CommentRequest;
+import ru.otus.webbooklibrary.service.CommentBufferFullException;
 import ru.otus.webbooklibrary.service.CommentServiceImpl;
+import ru.otus.webbooklibrary.service.ReactiveCommentService;
 
 import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(CommentController.class)
+@Import(WireFormatConfig.class)
 class CommentControllerTest {
     @Autowired
     private MockMvc mockMvc;
@@ -31,8 +47,18 @@ class CommentControllerTest {
     private static final MediaType APPLICATION_JSON_UTF8 = new MediaType(MediaType.APPLICATION_JSON.getType(),
             MediaType.APPLICATION_JSON.getSubtype(), StandardCharsets.UTF_8);
 
-    @Test
-    void testSaveByStatus() throws Exception {
+    private MockMvc reactiveMockMvc;
+
+    @BeforeEach
+    void setUp() {
+        reactiveMockMvc = ApiMode.reactiveMockMvc(ReactiveCommentService.class, commentService, ReactiveCommentController::new);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testSaveByStatus(ApiMode mode) throws Exception {
+        when(commentService.saveComment("Book", "Comment")).thenReturn("You successfully added a comment to Book");
+
         final CommentRequest commentRequest = new CommentRequest();
         commentRequest.setBook("Book");
         commentRequest.setContent("Comment");
@@ -41,42 +67,98 @@ class CommentControllerTest {
         ObjectWriter ow = mapper.writer().withDefaultPrettyPrinter();
         String requestJson = ow.writeValueAsString(commentRequest);
 
-        mockMvc.perform(post("/api/comments").contentType(APPLICATION_JSON_UTF8)
+        perform(mode, post("/api/comments").contentType(APPLICATION_JSON_UTF8)
                 .content(requestJson))
                 .andExpect(status().isCreated());
     }
 
-    @Test
-    void testGetCommentByContentByStatus() throws Exception {
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testSaveWhenBufferIsFullByStatus(ApiMode mode) throws Exception {
+        when(commentService.saveComment("Book", "Comment")).thenThrow(new CommentBufferFullException());
+
+        perform(mode, post("/api/comments").contentType(APPLICATION_JSON_UTF8)
+                .content("{\"book\":\"Book\",\"content\":\"Comment\"}"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetCommentByContentByStatus(ApiMode mode) throws Exception {
         when(commentService.getCommentByContent("Comment")).thenReturn
                 (List.of((new Comment("Comment", "Book"))));
 
-        mockMvc.perform(get("/api/comments/Comment"))
+        perform(mode, get("/api/comments/Comment"))
                 .andExpect(status().isOk());
     }
 
-    @Test
-    void testGetCommentByBookTitleByStatus() throws Exception {
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetCommentByBookTitleByStatus(ApiMode mode) throws Exception {
         when(commentService.getCommentsByBook("Book")).thenReturn(List.of
                 (new Comment("Published in 1922", "Book"),
                         new Comment("Comment", "Book")));
 
-        mockMvc.perform(get("/api/comments/book/Book"))
+        perform(mode, get("/api/comments/book/Book"))
                 .andExpect(status().isOk());
     }
 
-    @Test
-    void testGetAllByStatus() throws Exception {
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetAllByStatus(ApiMode mode) throws Exception {
         when(commentService.getAll()).thenReturn(List.of
                 (new Comment("Published in 1922", "Ulysses"),
                         new Comment("Comment", "Book")));
-        mockMvc.perform(get("/api/comments"))
+        perform(mode, get("/api/comments"))
                 .andExpect(status().isOk());
 
     }
 
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void shouldReturnSparseCommentSummaries(ApiMode mode) throws Exception {
+        final Comment comment = new Comment("Published in 1922", "Ulysses");
+        comment.setId("5f1e9e5bb7b1a23f0c3d1e01");
+
+        when(commentService.getProjection(Set.of("book.title"), null, Pagination.MAX_LIMIT))
+                .thenReturn(List.of(comment));
+
+        perform(mode, get("/api/comments").param("fields", "bookTitle"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("5f1e9e5bb7b1a23f0c3d1e01"))
+                .andExpect(jsonPath("$[0].bookTitle").value("Ulysses"))
+                .andExpect(jsonPath("$[0].content").doesNotExist());
+    }
+
     @Test
-    void testEditByStatus() throws Exception {
+    void shouldNegotiateBinaryFormats() throws Exception {
+        when(commentService.getAll()).thenReturn(List.of(new Comment("Published in 1922", "Ulysses")));
+
+        final byte[] cbor = mockMvc.perform(get("/api/comments").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        final byte[] smile = mockMvc.perform(get("/api/comments")
+                .accept(new MediaType("application", "x-jackson-smile")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+
+        assertEquals("Published in 1922", new CBORMapper().readTree(cbor).get(0).get("content").asText());
+        assertEquals("Ulysses", new SmileMapper().readTree(smile).get(0).get("book").get("title").asText());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetPageByStatus(ApiMode mode) throws Exception {
+        when(commentService.getPage(null, 2)).thenReturn(List.of(new Comment("Comment", "Book")));
+
+        perform(mode, get("/api/comments").param("limit", "2"))
+                .andExpect(status().isOk());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testEditByStatus(ApiMode mode) throws Exception {
         when(commentService.updateComment("Comment", "Published in 1922"))
                 .thenReturn("Comment was updated");
 
@@ -87,13 +169,29 @@ class CommentControllerTest {
         ObjectWriter ow = mapper.writer().withDefaultPrettyPrinter();
         String requestJson = ow.writeValueAsString(commentRequest);
 
-        mockMvc.perform(put("/api/comments").contentType(APPLICATION_JSON_UTF8)
+        perform(mode, put("/api/comments").contentType(APPLICATION_JSON_UTF8)
                 .content(requestJson))
                 .andExpect(status().isOk());
     }
 
-    @Test
-    void testDeleteByContentByStatus() throws Exception {
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void shouldPatchCommentContent(ApiMode mode) throws Exception {
+        final Comment comment = new Comment("Published in 1922", "Ulysses");
+        comment.setVersion(1L);
+
+        when(commentService.patchComment("5f1e9e5bb7b1a23f0c3d1e01", 0, "Published in 1922"))
+                .thenReturn(comment);
+
+        perform(mode, patch("/api/comments").contentType(APPLICATION_JSON_UTF8)
+                .content("{\"id\":\"5f1e9e5bb7b1a23f0c3d1e01\",\"version\":0,\"content\":\"Published in 1922\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testDeleteByContentByStatus(ApiMode mode) throws Exception {
         when(commentService.deleteComment("Comment")).thenReturn("Comment was deleted");
 
         final CommentRequest commentRequest = new CommentRequest();
@@ -103,8 +201,12 @@ class CommentControllerTest {
         ObjectWriter ow = mapper.writer().withDefaultPrettyPrinter();
         String requestJson = ow.writeValueAsString(commentRequest);
 
-        mockMvc.perform(delete("/api/comments").contentType(APPLICATION_JSON_UTF8)
+        perform(mode, delete("/api/comments").contentType(APPLICATION_JSON_UTF8)
                 .content(requestJson))
                 .andExpect(status().isOk());
     }
+
+    private ResultActions perform(ApiMode mode, RequestBuilder request) throws Exception {
+        return mode.perform(mockMvc, reactiveMockMvc, request);
+    }
 }
@@ -0,0 +1,71 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.otus.webbooklibrary.service.DeletionJob;
+import ru.otus.webbooklibrary.service.DeletionJobServiceImpl;
+
+import java.util.Optional;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(DeletionJobController.class)
+class DeletionJobControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private DeletionJobServiceImpl deletionJobService;
+
+    @Test
+    void testDeleteAuthorAsyncByStatusAndLocation() throws Exception {
+        final DeletionJob job = new DeletionJob("author", "author", "James Joyce", 50000);
+
+        when(deletionJobService.deleteAuthor("author")).thenReturn(job);
+
+        mockMvc.perform(delete("/api/authors").param("async", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":\"author\"}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/deletions/" + job.getId()))
+                .andExpect(jsonPath("$.status").value("RUNNING"))
+                .andExpect(jsonPath("$.totalBooks").value(50000));
+    }
+
+    @Test
+    void testDeleteGenreAsyncRejectedByStatus() throws Exception {
+        when(deletionJobService.deleteGenre("genre"))
+                .thenReturn(DeletionJob.rejected("Operation can not be executed."));
+
+        mockMvc.perform(delete("/api/genres").param("async", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":\"genre\"}"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("REJECTED"));
+    }
+
+    @Test
+    void testGetJobByStatus() throws Exception {
+        final DeletionJob job = new DeletionJob("genre", "genre", "Philosophy", 2);
+        job.progress(2, 7);
+        job.complete();
+
+        when(deletionJobService.getJob(job.getId())).thenReturn(Optional.of(job));
+        when(deletionJobService.getJob("unknown")).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/deletions/" + job.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.deletedComments").value(7));
+
+        mockMvc.perform(get("/api/deletions/unknown"))
+                .andExpect(status().isNotFound());
+    }
+}
@@ -3,21 +3,33 @@ package ru.otus.webbooklibrary.rest.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.ResultActions;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import ru.otus.webbooklibrary.domain.Genre;
+import ru.otus.webbooklibrary.repository.config.CollectionVersions;
 import ru.otus.webbooklibrary.rest.dto.GenreRequest;
 import ru.otus.webbooklibrary.service.GenreServiceImpl;
+import ru.otus.webbooklibrary.service.ReactiveGenreService;
+import ru.otus.webbooklibrary.service.StaleResultCache;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(GenreController.class)
@@ -28,11 +40,25 @@ class GenreControllerTest {
     @MockBean
     private GenreServiceImpl genreService;
 
+    @Autowired
+    private CollectionVersions collectionVersions;
+
     private static final MediaType APPLICATION_JSON_UTF8 = new MediaType(MediaType.APPLICATION_JSON.getType(),
             MediaType.APPLICATION_JSON.getSubtype(), StandardCharsets.UTF_8);
 
-    @Test
-    void testCreateByStatus() throws Exception {
+    private MockMvc reactiveMockMvc;
+
+    @BeforeEach
+    void setUp() {
+        reactiveMockMvc = ApiMode.reactiveMockMvc(ReactiveGenreService.class, genreService, ReactiveGenreController::new);
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testCreateByStatus(ApiMode mode) throws Exception {
+        when(genreService.saveGenre("Modernist novel"))
+                .thenReturn("You successfully saved a Modernist novel to repository");
+
         GenreRequest genreRequest = new GenreRequest();
         genreRequest.setGenre("Modernist novel");
         ObjectMapper mapper = new ObjectMapper();
@@ -40,39 +66,84 @@ class GenreControllerTest {
         ObjectWriter ow = mapper.writer().withDefaultPrettyPrinter();
         String requestJson = ow.writeValueAsString(genreRequest);
 
-        mockMvc.perform(MockMvcRequestBuilders.post("/api/genres").contentType(APPLICATION_JSON_UTF8)
+        perform(mode, MockMvcRequestBuilders.post("/api/genres").contentType(APPLICATION_JSON_UTF8)
                 .content(requestJson))
                 .andExpect(status().isCreated());
     }
 
     @Test
-    void testGetGenreByIdByStatus() throws Exception {
+    void shouldAnswerNotModifiedUntilGenresChange() throws Exception {
+        when(genreService.getAll()).thenReturn(List.of(new Genre("Genre")));
+
+        final String etag = mockMvc.perform(MockMvcRequestBuilders.get("/api/genres"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/genres").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+        verify(genreService, times(1)).getAll();
+
+        collectionVersions.changed("genres");
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/genres").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+        verify(genreService, times(2)).getAll();
+    }
+
+    @Test
+    void shouldNotSendValidatorsWithFallbackResult() throws Exception {
+        final StaleResultCache staleResults = new StaleResultCache(new SimpleMeterRegistry(), 10, Duration.ofMinutes(1));
+        when(genreService.getAll()).thenAnswer(invocation ->
+                staleResults.recall(List::of, new IllegalStateException("Mongo is down"), "genres.all"));
+
+        mockMvc.perform(MockMvcRequestBuilders.get("/api/genres"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-store"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetGenreByIdByStatus(ApiMode mode) throws Exception {
         when(genreService.getGenreById("Id")).thenReturn(new Genre("Genre"));
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/genres/id")
+        perform(mode, MockMvcRequestBuilders.get("/api/genres/id")
                 .param("id", "id"))
                 .andExpect(status().isOk());
     }
 
-    @Test
-    void testGetGenreByNameByStatus() throws Exception {
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetGenreByNameByStatus(ApiMode mode) throws Exception {
         when(genreService.getGenreByName("Genre")).thenReturn(new Genre("Genre"));
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/genres/Genre"))
+        perform(mode, MockMvcRequestBuilders.get("/api/genres/Genre"))
                 .andExpect(status().isOk());
     }
 
-    @Test
-    void testGetAllByStatus() throws Exception {
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetAllByStatus(ApiMode mode) throws Exception {
         when(genreService.getAll()).thenReturn(List.of(new Genre("Modernist novel"),
                 new Genre("Genre")));
 
-        mockMvc.perform(MockMvcRequestBuilders.get("/api/genres"))
+        perform(mode, MockMvcRequestBuilders.get("/api/genres"))
                 .andExpect(status().isOk());
     }
 
-    @Test
-    void testEditByStatus() throws Exception {
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testGetPageByStatus(ApiMode mode) throws Exception {
+        when(genreService.getPage(null, 2)).thenReturn(List.of(new Genre("Genre")));
+
+        perform(mode, MockMvcRequestBuilders.get("/api/genres").param("limit", "2"))
+                .andExpect(status().isOk());
+    }
+
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testEditByStatus(ApiMode mode) throws Exception {
         when(genreService.updateGenre("id", "Genre"))
                 .thenReturn("Genre was updated");
 
@@ -84,13 +155,14 @@ class GenreControllerTest {
         ObjectWriter ow = mapper.writer().withDefaultPrettyPrinter();
         String requestJson = ow.writeValueAsString(genreRequest);
 
-        mockMvc.perform(MockMvcRequestBuilders.put("/api/genres").contentType(APPLICATION_JSON_UTF8)
+        perform(mode, MockMvcRequestBuilders.put("/api/genres").contentType(APPLICATION_JSON_UTF8)
                 .content(requestJson))
                 .andExpect(status().isOk());
     }
 
-    @Test
-    void testDeleteByNameByStatus() throws Exception {
+    @ParameterizedTest
+    @EnumSource(ApiMode.class)
+    void testDeleteByNameByStatus(ApiMode mode) throws Exception {
         when(genreService.deleteGenre("Modernist novel")).thenReturn("Modernist novel was deleted");
 
         GenreRequest genreRequest = new GenreRequest();
@@ -100,8 +172,12 @@ class GenreControllerTest {
         ObjectWriter ow = mapper.writer().withDefaultPrettyPrinter();
         String requestJson = ow.writeValueAsString(genreRequest);
 
-        mockMvc.perform(MockMvcRequestBuilders.delete("/api/genres").contentType(APPLICATION_JSON_UTF8)
+        perform(mode, MockMvcRequestBuilders.delete("/api/genres").contentType(APPLICATION_JSON_UTF8)
                 .content(requestJson))
                 .andExpect(status().isOk());
     }
+
+    private ResultActions perform(ApiMode mode, RequestBuilder request) throws Exception {
+        return mode.perform(mockMvc, reactiveMockMvc, request);
+    }
 }
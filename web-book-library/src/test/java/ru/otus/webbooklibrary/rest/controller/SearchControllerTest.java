@@ -0,0 +1,52 @@
+package ru.otus.webbooklibrary.rest.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.otus.webbooklibrary.domain.SearchHit;
+import ru.otus.webbooklibrary.service.SearchServiceImpl;
+
+import java.util.List;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SearchController.class)
+class SearchControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SearchServiceImpl searchService;
+
+    @Test
+    void testSearchByContentAndCursor() throws Exception {
+        when(searchService.search("ulysses", 0, 1)).thenReturn(List.of(new SearchHit("book", "id", "Ulysses",
+                "James Joyce", 1.5)));
+        when(searchService.search("ulysses", 1, 1)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/search").param("q", "ulysses").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].type").value("book"))
+                .andExpect(jsonPath("$.items[0].details").value("James Joyce"))
+                .andExpect(jsonPath("$.next").value("MQ"));
+
+        mockMvc.perform(get("/api/search").param("q", "ulysses").param("limit", "1").param("after", "MQ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty())
+                .andExpect(jsonPath("$.next").doesNotExist());
+    }
+
+    @Test
+    void testSearchWithIncorrectParametersByStatus() throws Exception {
+        mockMvc.perform(get("/api/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(get("/api/search").param("q", "ulysses").param("limit", "10").param("after", "OTk5"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.test.annotation.DirtiesContext;
 import ru.otus.webbooklibrary.domain.Author;
 import ru.otus.webbooklibrary.repository.AuthorRepository;
 import ru.otus.webbooklibrary.repository.BookRepository;
+import ru.otus.webbooklibrary.repository.CommentRepository;
 
 import java.util.List;
 import java.util.Optional;
@@ -16,6 +17,9 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -24,6 +28,8 @@ class AuthorServiceImplTest {
     private AuthorRepository authorRepository;
     @MockBean
     private BookRepository bookRepository;
+    @MockBean
+    private CommentRepository commentRepository;
 
     @Autowired
     private AuthorServiceImpl service;
@@ -35,7 +41,7 @@ class AuthorServiceImplTest {
     void testSaveByComparing() {
         final Author foucault = new Author("Michel Foucault");
 
-        when(authorRepository.save(foucault)).thenReturn(foucault);
+        when(authorRepository.findOrCreateByName(foucault.getName())).thenReturn(foucault);
         when(authorRepository.findByName(foucault.getName())).thenReturn(List.of(foucault));
 
         service.saveAuthor(foucault.getName());
@@ -45,7 +51,7 @@ class AuthorServiceImplTest {
         assertNotNull(actual);
         assertEquals(foucault.getName(), actual.getName());
 
-        verify(authorRepository, times(1)).save(foucault);
+        verify(authorRepository, times(1)).findOrCreateByName(foucault.getName());
     }
 
     @Test
@@ -67,7 +73,7 @@ class AuthorServiceImplTest {
         when(authorRepository.findById(jamesJoyce.getName())).thenReturn(Optional.of(jamesJoyce));
         when(authorRepository.findByName(author.getName())).thenReturn(List.of(author));
         when(authorRepository.save(author)).thenReturn(author);
-        when(bookRepository.findByAuthor_Name(author.getName())).thenReturn(List.of());
+        when(bookRepository.updateAuthorName("James Joyce", author.getName())).thenReturn(1L);
 
         service.updateAuthor(jamesJoyce.getName(), "Author");
 
@@ -76,10 +82,11 @@ class AuthorServiceImplTest {
         assertThat(actualAuthor).isNotNull().matches(s -> !s.getName().isBlank())
                 .matches(s -> s.getName().equals("Author"));
 
-        final InOrder inOrder = inOrder(authorRepository, bookRepository);
+        final InOrder inOrder = inOrder(authorRepository, bookRepository, commentRepository);
         inOrder.verify(authorRepository).findById("James Joyce");
-        inOrder.verify(bookRepository).findByAuthor_Name("James Joyce");
         inOrder.verify(authorRepository).save(author);
+        inOrder.verify(bookRepository).updateAuthorName("James Joyce", "Author");
+        verify(bookRepository, never()).saveAll(anyIterable());
     }
 
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
@@ -87,16 +94,21 @@ class AuthorServiceImplTest {
     void authorShouldBeDeletedCorrectly() {
         when(authorRepository.findById(jamesJoyce.getName())).thenReturn(Optional.of(jamesJoyce));
         doNothing().when(authorRepository).deleteById(jamesJoyce.getName());
-        doNothing().when(bookRepository).deleteByAuthor_Name(jamesJoyce.getName());
+        when(bookRepository.findIdsByAuthorId(jamesJoyce.getName(), 1000)).thenReturn(List.of("first", "second"));
+        when(commentRepository.deleteByBook_IdIn(List.of("first", "second"))).thenReturn(3L);
+        when(bookRepository.deleteByIdIn(List.of("first", "second"))).thenReturn(2L);
 
         final String expected = "James Joyce was deleted";
         final String actual = service.deleteAuthor("James Joyce");
 
         assertEquals(expected, actual);
 
-        final InOrder inOrder = inOrder(authorRepository, bookRepository);
+        final InOrder inOrder = inOrder(authorRepository, bookRepository, commentRepository);
         inOrder.verify(authorRepository).findById(jamesJoyce.getName());
         inOrder.verify(authorRepository).deleteById(jamesJoyce.getName());
-        inOrder.verify(bookRepository).deleteByAuthor_Name(jamesJoyce.getName());
+        inOrder.verify(bookRepository).findIdsByAuthorId(jamesJoyce.getName(), 1000);
+        inOrder.verify(commentRepository).deleteByBook_IdIn(List.of("first", "second"));
+        inOrder.verify(bookRepository).deleteByIdIn(List.of("first", "second"));
+        verify(bookRepository, times(1)).findIdsByAuthorId(anyString(), anyInt());
     }
 }
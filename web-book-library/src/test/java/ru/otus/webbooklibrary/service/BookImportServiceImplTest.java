@@ -0,0 +1,106 @@
+package ru.otus.webbooklibrary.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.Genre;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookImportServiceImplTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private BulkOperations authorOperations;
+    @Mock
+    private BulkOperations bookOperations;
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager("authorsByName", "allAuthors");
+
+    private final StaleResultCache staleResults = new StaleResultCache(new SimpleMeterRegistry(), 100,
+            Duration.ofMinutes(1));
+    private BookImportServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new BookImportServiceImpl(mongoTemplate, cacheManager, staleResults, 2, 10);
+
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Author.class))
+                .thenReturn(authorOperations);
+        lenient().when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Book.class)).thenReturn(bookOperations);
+        lenient().when(authorOperations.upsert(any(Query.class), any(Update.class))).thenReturn(authorOperations);
+        lenient().when(bookOperations.insert(anyList())).thenReturn(bookOperations);
+    }
+
+    @Test
+    void shouldResolveAuthorsAndGenresOncePerBatch() {
+        final Author joyce = new Author("James Joyce");
+        final Author foucault = new Author("Michel Foucault");
+        final Genre novel = new Genre("Modernist novel");
+
+        when(mongoTemplate.find(any(Query.class), eq(Author.class)))
+                .thenReturn(List.of(joyce), List.of(foucault), List.of(joyce));
+        when(mongoTemplate.find(any(Query.class), eq(Genre.class))).thenReturn(List.of(novel));
+        cacheManager.getCache("authorsByName").put("Michel Foucault", List.of());
+        staleResults.store(List.of(joyce), "authors.all");
+
+        final BookImportReport report = service.importBooks(List.of(
+                BookImportRow.of(1, "Ulysses", "James Joyce", "Modernist novel"),
+                BookImportRow.of(2, "Discipline and Punish", "Michel Foucault", "Modernist novel"),
+                BookImportRow.of(3, "Dubliners", "James Joyce", "Modernist novel")).iterator());
+
+        assertEquals(3, report.getReceived());
+        assertEquals(3, report.getImported());
+        assertEquals(0, report.getFailed());
+        assertThat(cacheManager.getCache("authorsByName").get("Michel Foucault")).isNull();
+        assertThat(staleResults.<List<Author>>recall(List::of, new IllegalStateException(), "authors.all")).isEmpty();
+
+        verify(authorOperations, times(1)).upsert(any(Query.class), any(Update.class));
+        verify(mongoTemplate, never()).bulkOps(BulkOperations.BulkMode.UNORDERED, Genre.class);
+        verify(bookOperations, times(2)).execute();
+
+        @SuppressWarnings("unchecked")
+        final ArgumentCaptor<List<Book>> books = ArgumentCaptor.forClass(List.class);
+        verify(bookOperations, times(2)).insert(books.capture());
+        assertThat(books.getAllValues().get(0)).extracting(b -> b.getAuthor().getName())
+                .containsExactly("James Joyce", "Michel Foucault");
+    }
+
+    @Test
+    void shouldReportInvalidRowsWithoutWritingThem() {
+        when(mongoTemplate.find(any(Query.class), eq(Author.class))).thenReturn(List.of(new Author("James Joyce")));
+        when(mongoTemplate.find(any(Query.class), eq(Genre.class))).thenReturn(List.of(new Genre("Modernist novel")));
+
+        final BookImportReport report = service.importBooks(List.of(
+                BookImportRow.of(1, "Ulysses", "James Joyce", "Modernist novel"),
+                BookImportRow.of(2, " ", "James Joyce", "Modernist novel"),
+                BookImportRow.failed(3, "Unrecognized token")).iterator());
+
+        assertEquals(3, report.getReceived());
+        assertEquals(1, report.getImported());
+        assertEquals(2, report.getFailed());
+        assertThat(report.getErrors()).extracting(BookImportReport.RowError::getRow).containsExactly(2L, 3L);
+
+        verify(authorOperations, never()).execute();
+        verify(bookOperations, times(1)).execute();
+    }
+}
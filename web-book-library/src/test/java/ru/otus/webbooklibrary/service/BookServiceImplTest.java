@@ -1,13 +1,18 @@
 package ru.otus.webbooklibrary.service;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.otus.webbooklibrary.domain.Author;
 import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.BookWithComments;
+import ru.otus.webbooklibrary.domain.Comment;
 import ru.otus.webbooklibrary.domain.Genre;
 import ru.otus.webbooklibrary.repository.AuthorRepository;
 import ru.otus.webbooklibrary.repository.BookRepository;
@@ -15,10 +20,14 @@ import ru.otus.webbooklibrary.repository.CommentRepository;
 import ru.otus.webbooklibrary.repository.GenreRepository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -34,6 +43,10 @@ class BookServiceImplTest {
 
     @Autowired
     private BookServiceImpl service;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private StaleResultCache staleResults;
 
     private final Book expectedUlysses = new Book("Ulysses", new Author("James Joyce"),
             new Genre("Modernist novel"));
@@ -45,13 +58,16 @@ class BookServiceImplTest {
         final Genre genre = new Genre("Philosophy");
         final Book book = new Book("Discipline and Punish", author, genre);
 
-        when(authorRepository.findByName(author.getName())).thenReturn(List.of(author));
-        when(genreRepository.findByName(genre.getName())).thenReturn(Optional.of(genre));
+        when(authorRepository.findOrCreateByName(author.getName())).thenReturn(author);
+        when(genreRepository.findOrCreateByName(genre.getName())).thenReturn(genre);
         when(bookRepository.save(book)).thenReturn(book);
         when(bookRepository.findByTitle(book.getTitle())).thenReturn(List.of(book));
+        staleResults.store(List.of(), "books.byTitle", "Discipline and Punish");
 
         service.saveBook("Discipline and Punish", "Michel Foucault",
                 "Philosophy");
+        assertThat(staleResults.<List<Book>>recall(() -> null, new IllegalStateException(), "books.byTitle",
+                "Discipline and Punish")).isNull();
 
         final Book actualBook = service.getBookByTitle("Discipline and Punish").get(0);
         assertThat(actualBook).isNotNull().matches(s -> !s.getTitle().equals(""))
@@ -60,8 +76,8 @@ class BookServiceImplTest {
                 .matches(s -> s.getGenre().getName().equals("Philosophy"));
 
         final InOrder inOrder = inOrder(bookRepository, authorRepository, genreRepository);
-        inOrder.verify(authorRepository).findByName(author.getName());
-        inOrder.verify(genreRepository).findByName(genre.getName());
+        inOrder.verify(authorRepository).findOrCreateByName(author.getName());
+        inOrder.verify(genreRepository).findOrCreateByName(genre.getName());
         inOrder.verify(bookRepository).save(book);
     }
 
@@ -72,8 +88,8 @@ class BookServiceImplTest {
         final Genre genre = new Genre("Modernist novel");
         final Book book = new Book("A Portrait of the Artist as a Young Man", author, genre);
 
-        when(authorRepository.findByName(author.getName())).thenReturn(List.of(author));
-        when(genreRepository.findByName(genre.getName())).thenReturn(Optional.of(genre));
+        when(authorRepository.findOrCreateByName(author.getName())).thenReturn(author);
+        when(genreRepository.findOrCreateByName(genre.getName())).thenReturn(genre);
         when(bookRepository.save(book)).thenReturn(book);
         when(bookRepository.findByTitle(book.getTitle())).thenReturn(List.of(book));
 
@@ -87,8 +103,8 @@ class BookServiceImplTest {
                 .matches(s -> s.getGenre().getName().equals("Modernist novel"));
 
         final InOrder inOrder = inOrder(bookRepository, authorRepository, genreRepository);
-        inOrder.verify(authorRepository).findByName(author.getName());
-        inOrder.verify(genreRepository).findByName(genre.getName());
+        inOrder.verify(authorRepository).findOrCreateByName(author.getName());
+        inOrder.verify(genreRepository).findOrCreateByName(genre.getName());
         inOrder.verify(bookRepository).save(book);
     }
 
@@ -107,6 +123,27 @@ class BookServiceImplTest {
         verify(bookRepository, times(1)).findByTitle(book.getTitle());
     }
 
+    @Test
+    void shouldTimeServiceCallsAroundHystrixFallback() {
+        when(bookRepository.findAllById(List.of("unknown"))).thenReturn(List.of());
+
+        assertEquals("N/A", service.getBookById("unknown").getId());
+
+        assertThat(meterRegistry.get("library.service").tag("service", "BookServiceImpl")
+                .tag("method", "getBookById").timer().count()).isPositive();
+    }
+
+    @Test
+    void shouldNotServeDeletedBookFromStaleResults() {
+        expectedUlysses.setId("deleted");
+
+        when(bookRepository.findAllById(List.of("deleted"))).thenReturn(List.of(expectedUlysses));
+        assertEquals(expectedUlysses, service.getBookById("deleted"));
+
+        when(bookRepository.findAllById(List.of("deleted"))).thenReturn(List.of());
+        assertEquals("N/A", service.getBookById("deleted").getId());
+    }
+
     @Test
     void shouldReturnCorrectBookByGenre() {
         final Author author = new Author("James Joyce");
@@ -139,6 +176,61 @@ class BookServiceImplTest {
         verify(bookRepository, times(1)).findAll();
     }
 
+    @Test
+    void shouldReturnBooksInRequestedOrderSkippingUnknownIds() {
+        final Book book = new Book("Discipline And Punish", new Author("Michel Foucault"), new Genre("Philosophy"));
+        book.setId("punish");
+        expectedUlysses.setId("ulysses");
+        final List<String> ids = List.of("ulysses", "unknown", "punish");
+
+        when(bookRepository.findAllById(ids)).thenReturn(List.of(book, expectedUlysses));
+
+        assertEquals(List.of(expectedUlysses, book), service.getBooksByIds(ids));
+
+        verify(bookRepository, times(1)).findAllById(ids);
+    }
+
+    @Test
+    void shouldPatchTitleWithoutResolvingAuthorOrGenre() {
+        expectedUlysses.setVersion(5L);
+
+        when(bookRepository.patch("id", 4, Map.of("title", "Ulysses"))).thenReturn(Optional.of(expectedUlysses));
+
+        assertEquals(expectedUlysses, service.patchBook("id", 4, "Ulysses", null, null));
+
+        verify(bookRepository, never()).findById(anyString());
+        verify(bookRepository, never()).save(any());
+        verifyNoInteractions(authorRepository, genreRepository);
+        verify(commentRepository, times(1)).updateBookTitle("id", "Ulysses");
+    }
+
+    @Test
+    void shouldReportConflictForStaleBookVersion() {
+        final Author author = new Author("James Joyce");
+
+        when(authorRepository.findOrCreateByName(author.getName())).thenReturn(author);
+        when(bookRepository.patch("id", 4, Map.of("author", author))).thenReturn(Optional.empty());
+        when(bookRepository.existsById("id")).thenReturn(true);
+
+        assertThatThrownBy(() -> service.patchBook("id", 4, null, author.getName(), null))
+                .isInstanceOf(VersionConflictException.class);
+        verify(commentRepository, never()).updateBookTitle(anyString(), anyString());
+    }
+
+    @Test
+    void shouldReturnPageAfterCursor() {
+        final PageRequest page = PageRequest.of(0, 1, Sort.by("id"));
+
+        when(bookRepository.findAllBy(page)).thenReturn(List.of(expectedUlysses));
+        when(bookRepository.findByIdGreaterThan("id", page)).thenReturn(List.of());
+
+        assertEquals(List.of(expectedUlysses), service.getPage(null, 1));
+        assertThat(service.getPage("id", 1)).isEmpty();
+
+        verify(bookRepository, times(1)).findAllBy(page);
+        verify(bookRepository, times(1)).findByIdGreaterThan("id", page);
+    }
+
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.BEFORE_METHOD)
     @Test
     void testUpdateBookMethodWithParameters() {
@@ -146,11 +238,11 @@ class BookServiceImplTest {
         final Genre genre = new Genre("Philosophy");
         final Book book = new Book("Ulysses", author, genre);
 
-        when(authorRepository.findByName(author.getName())).thenReturn(List.of(author));
-        when(genreRepository.findByName(genre.getName())).thenReturn(Optional.of(genre));
+        when(authorRepository.findOrCreateByName(author.getName())).thenReturn(author);
+        when(genreRepository.findOrCreateByName(genre.getName())).thenReturn(genre);
         when(bookRepository.save(new Book("Discipline and Punish", author, genre))).thenReturn(book);
         when(bookRepository.findById(book.getTitle())).thenReturn(Optional.of(book));
-        when(commentRepository.findByBook_Title(book.getTitle())).thenReturn(List.of());
+        when(commentRepository.updateBookTitle("Ulysses", "Discipline and Punish")).thenReturn(1L);
         when(bookRepository.findByTitle("Discipline and Punish")).thenReturn
                 (List.of(new Book("Discipline and Punish", author, genre)));
 
@@ -164,10 +256,12 @@ class BookServiceImplTest {
                 .matches(s -> s.getGenre().getName().equals("Philosophy"));
 
         final InOrder inOrder = inOrder(bookRepository, authorRepository, genreRepository, commentRepository);
-        inOrder.verify(authorRepository).findByName(author.getName());
-        inOrder.verify(genreRepository).findByName(genre.getName());
+        inOrder.verify(authorRepository).findOrCreateByName(author.getName());
+        inOrder.verify(genreRepository).findOrCreateByName(genre.getName());
         inOrder.verify(bookRepository).findById("Ulysses");
         inOrder.verify(bookRepository).save(book);
+        inOrder.verify(commentRepository).updateBookTitle("Ulysses", "Discipline and Punish");
+        verify(commentRepository, never()).saveAll(anyIterable());
     }
 
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
@@ -177,11 +271,12 @@ class BookServiceImplTest {
         final Genre genre = new Genre("Modernist novel");
         final Book book = new Book("Ulysses", author, genre);
 
-        when(authorRepository.findByName(author.getName())).thenReturn(List.of(author));
-        when(genreRepository.findByName(genre.getName())).thenReturn(Optional.of(genre));
+        when(authorRepository.findOrCreateByName(author.getName())).thenReturn(author);
+        when(genreRepository.findOrCreateByName(genre.getName())).thenReturn(genre);
         when(bookRepository.save(new Book("Discipline and Punish", author, genre))).thenReturn(book);
         when(bookRepository.findById(book.getTitle())).thenReturn(Optional.of(book));
-        when(commentRepository.findByBook_Title(book.getTitle())).thenReturn(List.of());
+        when(commentRepository.updateBookTitle("Ulysses", "A Portrait of the Artist as a Young Man"))
+                .thenReturn(1L);
         when(bookRepository.findByTitle("A Portrait of the Artist as a Young Man")).thenReturn
                 (List.of(new Book("A Portrait of the Artist as a Young Man", author, genre)));
 
@@ -195,9 +290,57 @@ class BookServiceImplTest {
                 .matches(s -> s.getGenre().getName().equals("Modernist novel"));
 
         final InOrder inOrder = inOrder(bookRepository, authorRepository, genreRepository, commentRepository);
-        inOrder.verify(authorRepository).findByName(author.getName());
-        inOrder.verify(genreRepository).findByName(genre.getName());
+        inOrder.verify(authorRepository).findOrCreateByName(author.getName());
+        inOrder.verify(genreRepository).findOrCreateByName(genre.getName());
         inOrder.verify(bookRepository).findById("Ulysses");
         inOrder.verify(bookRepository).save(book);
+        inOrder.verify(commentRepository).updateBookTitle("Ulysses", "A Portrait of the Artist as a Young Man");
+    }
+
+    @Test
+    void shouldReturnBookReferencedByComment() {
+        when(bookRepository.findByCommentId("comment")).thenReturn(Optional.of(expectedUlysses));
+
+        assertEquals(expectedUlysses, service.getBookByComment("comment"));
+
+        verify(bookRepository, never()).findByTitle(anyString());
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void shouldReturnBookWithItsComments() {
+        final BookWithComments expected = new BookWithComments(expectedUlysses,
+                List.of(new Comment("Published in 1922", expectedUlysses)));
+
+        when(bookRepository.findWithCommentsById("id")).thenReturn(Optional.of(expected));
+
+        assertEquals(expected, service.getBookWithComments("id"));
+
+        verify(bookRepository, times(1)).findWithCommentsById("id");
+        verify(bookRepository, never()).findById(anyString());
+    }
+
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    @Test
+    void shouldDeleteCommentsByBookId() {
+        when(bookRepository.deleteByIdIn(List.of("id"))).thenReturn(1L);
+
+        service.deleteBook("id");
+
+        final InOrder inOrder = inOrder(bookRepository, commentRepository);
+        inOrder.verify(commentRepository).deleteByBook_Id("id");
+        inOrder.verify(bookRepository).deleteByIdIn(List.of("id"));
+        verify(bookRepository, never()).findById(anyString());
+    }
+
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    @Test
+    void shouldRejectDeleteOfMissingBookWithoutLookingItUp() {
+        when(bookRepository.deleteByIdIn(List.of("id"))).thenReturn(0L);
+
+        assertThatThrownBy(() -> service.deleteBook("id"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Incorrect book id");
+        verify(bookRepository, never()).findById(anyString());
     }
 }
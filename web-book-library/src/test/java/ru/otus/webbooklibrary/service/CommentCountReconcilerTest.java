@@ -0,0 +1,35 @@
+package ru.otus.webbooklibrary.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.otus.webbooklibrary.repository.BookRepository;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CommentCountReconcilerTest {
+    @Mock
+    private BookRepository bookRepository;
+
+    @Test
+    void shouldReconcileCommentCountsInChunks() {
+        when(bookRepository.findIdsAfter(null, 2)).thenReturn(List.of("first", "second"));
+        when(bookRepository.findIdsAfter("second", 2)).thenReturn(List.of("third"));
+        when(bookRepository.reconcileCommentCounts(List.of("first", "second"))).thenReturn(1L);
+        when(bookRepository.reconcileCommentCounts(List.of("third"))).thenReturn(1L);
+
+        final long corrected = new CommentCountReconciler(bookRepository, 2).reconcile();
+
+        assertEquals(2, corrected);
+        final InOrder inOrder = inOrder(bookRepository);
+        inOrder.verify(bookRepository).reconcileCommentCounts(List.of("first", "second"));
+        inOrder.verify(bookRepository).reconcileCommentCounts(List.of("third"));
+        inOrder.verifyNoMoreInteractions();
+    }
+}
@@ -1,5 +1,6 @@
 package ru.otus.webbooklibrary.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,14 +16,17 @@ import ru.otus.webbooklibrary.repository.BookRepository;
 import ru.otus.webbooklibrary.repository.CommentRepository;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
 @DataMongoTest
-@Import(CommentServiceImpl.class)
+@Import({CommentServiceImpl.class, StaleResultCache.class, RequestCollapsers.class, SimpleMeterRegistry.class})
 class CommentServiceImplTest {
     @MockBean
     private CommentRepository commentRepository;
@@ -134,6 +138,28 @@ class CommentServiceImplTest {
         inOrder.verify(commentRepository).save(comment);
     }
 
+    @Test
+    void shouldPatchContentWithoutReadingComment() {
+        final Comment patched = new Comment("Comment", ulysses.getTitle());
+        patched.setVersion(3L);
+
+        when(commentRepository.patch("id", 2, Map.of("content", "Comment"))).thenReturn(Optional.of(patched));
+
+        assertEquals(patched, commentService.patchComment("id", 2, "Comment"));
+
+        verify(commentRepository, never()).findById(anyString());
+        verify(commentRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldReportConflictForStaleCommentVersion() {
+        when(commentRepository.patch("id", 2, Map.of("content", "Comment"))).thenReturn(Optional.empty());
+        when(commentRepository.existsById("id")).thenReturn(true);
+
+        assertThatThrownBy(() -> commentService.patchComment("id", 2, "Comment"))
+                .isInstanceOf(VersionConflictException.class);
+    }
+
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
     @Test
     void testDeleteByIdMethodByResultStringComparing() {
@@ -149,5 +175,26 @@ class CommentServiceImplTest {
         final InOrder inOrder = inOrder(bookRepository, commentRepository);
         inOrder.verify(commentRepository).findById(ulyssesComment.getContent());
         inOrder.verify(commentRepository).deleteById(ulyssesComment.getContent());
+        verify(bookRepository, never()).incrementCommentCount(any(), anyLong(), any());
+    }
+
+    @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
+    @Test
+    void shouldMaintainBookCommentCount() {
+        final Book book = new Book("Dubliners", new Author("James Joyce"), new Genre("Short stories"));
+        book.setId("dubliners");
+        final Comment comment = new Comment("Published in 1914", book);
+
+        when(bookRepository.findByTitle(book.getTitle())).thenReturn(List.of(book));
+        when(commentRepository.findById("comment")).thenReturn(Optional.of(comment));
+
+        commentService.saveComment(book.getTitle(), comment.getContent());
+        commentService.deleteComment("comment");
+
+        final InOrder inOrder = inOrder(bookRepository, commentRepository);
+        inOrder.verify(commentRepository).save(comment);
+        inOrder.verify(bookRepository).incrementCommentCount(eq("dubliners"), eq(1L), notNull());
+        inOrder.verify(commentRepository).deleteById("comment");
+        inOrder.verify(bookRepository).incrementCommentCount("dubliners", -1, null);
     }
 }
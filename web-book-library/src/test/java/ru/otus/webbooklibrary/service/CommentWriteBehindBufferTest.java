@@ -0,0 +1,213 @@
+package ru.otus.webbooklibrary.service;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bson.BsonDocument;
+import org.bson.types.ObjectId;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.convert.DbRefResolver;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.Comment;
+import ru.otus.webbooklibrary.repository.BookRepository;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class CommentWriteBehindBufferTest {
+    @Mock
+    private MongoTemplate mongoTemplate;
+    @Mock
+    private BulkOperations bulkOperations;
+    @Mock
+    private BookRepository bookRepository;
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StaleResultCache staleResults = new StaleResultCache(meterRegistry, 100, Duration.ofMinutes(1));
+    private CommentWriteBehindBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        final MongoCustomConversions conversions = new MongoCustomConversions(List.of());
+        final MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(conversions.getSimpleTypeHolder());
+        mappingContext.afterPropertiesSet();
+        final MappingMongoConverter converter = new MappingMongoConverter(mock(DbRefResolver.class), mappingContext);
+        converter.setCustomConversions(conversions);
+        converter.afterPropertiesSet();
+
+        when(mongoTemplate.getConverter()).thenReturn(converter);
+        when(mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Comment.class)).thenReturn(bulkOperations);
+        when(bulkOperations.insert(anyList())).thenReturn(bulkOperations);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (buffer != null)
+            buffer.destroy();
+    }
+
+    @Test
+    void shouldFlushCommentsInBatches() throws Exception {
+        buffer = buffer(100, 2, Duration.ofSeconds(5));
+        staleResults.store(List.of(comment("stale")), "comments.all");
+
+        buffer.offer(comment("first"));
+        buffer.offer(comment("second"));
+
+        verify(bulkOperations, timeout(2000)).execute();
+        buffer.destroy();
+        buffer = null;
+
+        final ArgumentCaptor<List<Comment>> batch = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations).insert(batch.capture());
+        assertThat(batch.getValue()).extracting(Comment::getContent).containsExactly("first", "second");
+        assertThat(meterRegistry.get("library.comments.buffer.flush").timer().count()).isEqualTo(1);
+        verify(bookRepository).incrementCommentCounts(eq(Map.of("ulysses", 2L)), any());
+        assertThat(staleResults.<List<Comment>>recall(List::of, new IllegalStateException(), "comments.all")).isEmpty();
+    }
+
+    @Test
+    void shouldCountCommentsInsertedBeforeRetriedFlush() throws Exception {
+        when(bulkOperations.execute())
+                .thenThrow(bulkFailure(new BulkWriteError(11600, "interrupted at shutdown", new BsonDocument(), 1)))
+                .thenThrow(bulkFailure(new BulkWriteError(11000, "E11000 duplicate key error", new BsonDocument(), 0)))
+                .thenReturn(null);
+        buffer = buffer(100, 2, Duration.ofMillis(10));
+
+        buffer.offer(comment("first"));
+        buffer.offer(comment("second"));
+
+        verify(bookRepository, timeout(2000)).incrementCommentCounts(eq(Map.of("ulysses", 2L)), any());
+        verify(bulkOperations, times(2)).execute();
+    }
+
+    @Test
+    void shouldRejectCommentsWhenQueueIsFull() throws Exception {
+        final CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            release.await();
+            return null;
+        }).when(bulkOperations).execute();
+        buffer = buffer(1, 1, Duration.ofMillis(10));
+
+        buffer.offer(comment("first"));
+        verify(bulkOperations, timeout(2000)).insert(anyList());
+        buffer.offer(comment("second"));
+
+        assertThatThrownBy(() -> buffer.offer(comment("third"))).isInstanceOf(CommentBufferFullException.class);
+        assertEquals(1, meterRegistry.get("library.comments.buffer.rejected").counter().count());
+        release.countDown();
+    }
+
+    @Test
+    void shouldReplayJournaledCommentsOnStartup() throws Exception {
+        final Comment comment = comment("journaled");
+        Files.writeString(directory.resolve("comments.journal"),
+                "{\"_id\": {\"$oid\": \"" + comment.getId() + "\"}, \"content\": \"journaled\", "
+                        + "\"book\": {\"title\": \"Ulysses\"}}\n");
+
+        buffer = buffer(100, 10, Duration.ofSeconds(5));
+
+        verify(bookRepository, timeout(2000)).incrementCommentCounts(any(), any());
+        buffer.destroy();
+        buffer = null;
+
+        final ArgumentCaptor<List<Comment>> batch = ArgumentCaptor.forClass(List.class);
+        verify(bulkOperations).insert(batch.capture());
+        assertThat(batch.getValue()).extracting(Comment::getId).containsExactly(comment.getId());
+        assertThat(directory.resolve("comments.journal.replay")).doesNotExist();
+    }
+
+    @Test
+    void shouldStartWhileMongoIsDownAndReplayJournalOnceItRecovers() throws Exception {
+        Files.writeString(directory.resolve("comments.journal"),
+                "{\"_id\": {\"$oid\": \"" + new ObjectId() + "\"}, \"content\": \"journaled\", "
+                        + "\"book\": {\"_id\": \"ulysses\", \"title\": \"Ulysses\"}}\n");
+        when(bulkOperations.execute())
+                .thenThrow(new DataAccessResourceFailureException("Mongo is down"))
+                .thenReturn(null);
+
+        buffer = buffer(100, 10, Duration.ofMillis(10));
+
+        verify(bookRepository, timeout(2000)).incrementCommentCounts(eq(Map.of("ulysses", 1L)), any());
+        verify(bulkOperations, times(2)).execute();
+    }
+
+    @Test
+    void shouldDeadLetterRejectedCommentsAfterMaxAttempts() throws Exception {
+        when(bulkOperations.execute())
+                .thenThrow(bulkFailure(new BulkWriteError(121, "Document failed validation", new BsonDocument(), 1)));
+        buffer = buffer(100, 2, Duration.ofMillis(100), 3);
+
+        buffer.offer(comment("first"));
+        final Comment rejected = comment("second");
+        buffer.offer(rejected);
+
+        verify(bookRepository, timeout(2000)).incrementCommentCounts(eq(Map.of("ulysses", 1L)), any());
+        verify(bulkOperations, times(3)).execute();
+        assertEquals(1, meterRegistry.get("library.comments.buffer.dead-lettered").counter().count());
+        assertThat(Files.readAllLines(directory.resolve("comments.journal.dead")))
+                .hasSize(1).allMatch(line -> line.contains(rejected.getId()));
+    }
+
+    private CommentWriteBehindBuffer buffer(int capacity, int batchSize, Duration flushInterval) throws Exception {
+        return buffer(capacity, batchSize, flushInterval, 8);
+    }
+
+    private CommentWriteBehindBuffer buffer(int capacity, int batchSize, Duration flushInterval, int maxAttempts)
+            throws Exception {
+        return new CommentWriteBehindBuffer(mongoTemplate, bookRepository, staleResults, meterRegistry, capacity,
+                batchSize, flushInterval, directory.resolve("comments.journal"), 1024 * 1024, maxAttempts);
+    }
+
+    private static BulkOperationException bulkFailure(BulkWriteError error) {
+        return new BulkOperationException(error.getMessage(), new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(), List.of(error), null, new ServerAddress()));
+    }
+
+    private static Comment comment(String content) {
+        final Book book = new Book();
+        book.setId("ulysses");
+        book.setTitle("Ulysses");
+        final Comment comment = new Comment(content, book);
+        comment.setId(new ObjectId().toHexString());
+
+        return comment;
+    }
+}
@@ -0,0 +1,101 @@
+package ru.otus.webbooklibrary.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SyncTaskExecutor;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.Genre;
+import ru.otus.webbooklibrary.repository.AuthorRepository;
+import ru.otus.webbooklibrary.repository.BookRepository;
+import ru.otus.webbooklibrary.repository.CommentRepository;
+import ru.otus.webbooklibrary.repository.GenreRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DeletionJobServiceImplTest {
+    @Mock
+    private AuthorRepository authorRepository;
+    @Mock
+    private GenreRepository genreRepository;
+    @Mock
+    private BookRepository bookRepository;
+    @Mock
+    private CommentRepository commentRepository;
+
+    private final StaleResultCache staleResults = new StaleResultCache(new SimpleMeterRegistry(), 100,
+            Duration.ofMinutes(1));
+    private DeletionJobServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        service = new DeletionJobServiceImpl(authorRepository, genreRepository, bookRepository,
+                new BookCascadeDeleter(bookRepository, commentRepository, 2), new SyncTaskExecutor(), staleResults,
+                Duration.ofHours(1));
+    }
+
+    @Test
+    void shouldDeleteAuthorBooksAndCommentsInChunks() {
+        final Author author = new Author("James Joyce");
+
+        when(authorRepository.findById("author")).thenReturn(Optional.of(author));
+        when(bookRepository.countByAuthor_Id("author")).thenReturn(3L);
+        when(bookRepository.findIdsByAuthorId("author", 2))
+                .thenReturn(List.of("first", "second"), List.of("third"));
+        when(commentRepository.deleteByBook_IdIn(anyCollection())).thenReturn(5L, 1L);
+        when(bookRepository.deleteByIdIn(anyCollection())).thenReturn(2L, 1L);
+        staleResults.store(List.of(author), "authors.all");
+        staleResults.store(List.of(new Book()), "books.all");
+
+        final DeletionJob job = service.deleteAuthor("author");
+
+        assertEquals(DeletionJob.Status.COMPLETED, job.getStatus());
+        assertEquals("James Joyce", job.getName());
+        assertEquals(3L, job.getTotalBooks());
+        assertEquals(3L, job.getDeletedBooks());
+        assertEquals(6L, job.getDeletedComments());
+        assertThat(job.getFinishedAt()).isNotNull();
+        assertThat(service.getJob(job.getId())).containsSame(job);
+
+        final InOrder inOrder = inOrder(authorRepository, bookRepository, commentRepository);
+        inOrder.verify(authorRepository).deleteById("author");
+        inOrder.verify(commentRepository).deleteByBook_IdIn(List.of("first", "second"));
+        inOrder.verify(bookRepository).deleteByIdIn(List.of("first", "second"));
+        inOrder.verify(commentRepository).deleteByBook_IdIn(List.of("third"));
+        inOrder.verify(bookRepository).deleteByIdIn(List.of("third"));
+        verify(bookRepository, times(2)).findIdsByAuthorId("author", 2);
+        assertThat(staleResults.<List<Author>>recall(List::of, new IllegalStateException(), "authors.all")).isEmpty();
+        assertThat(staleResults.<List<Book>>recall(List::of, new IllegalStateException(), "books.all")).isEmpty();
+    }
+
+    @Test
+    void shouldReportFailedGenreCascade() {
+        when(genreRepository.findById("genre")).thenReturn(Optional.of(new Genre("Philosophy")));
+        when(bookRepository.findIdsByGenreId("genre", 2)).thenThrow(new IllegalStateException("Mongo is down"));
+
+        final DeletionJob job = service.deleteGenre("genre");
+
+        assertEquals(DeletionJob.Status.FAILED, job.getStatus());
+        assertEquals("Mongo is down", job.getError());
+        verify(genreRepository).deleteById("genre");
+        verifyNoInteractions(commentRepository);
+    }
+
+    @Test
+    void shouldNotFindUnknownJob() {
+        assertThat(service.getJob("unknown")).isEmpty();
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.annotation.DirtiesContext;
 import ru.otus.webbooklibrary.domain.Genre;
 import ru.otus.webbooklibrary.repository.BookRepository;
+import ru.otus.webbooklibrary.repository.CommentRepository;
 import ru.otus.webbooklibrary.repository.GenreRepository;
 
 import java.util.List;
@@ -15,6 +16,9 @@ import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyIterable;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
 @SpringBootTest
@@ -23,6 +27,8 @@ class GenreServiceImplTest {
     private GenreRepository genreRepository;
     @MockBean
     private BookRepository bookRepository;
+    @MockBean
+    private CommentRepository commentRepository;
 
     @Autowired
     private GenreServiceImpl service;
@@ -34,7 +40,7 @@ class GenreServiceImplTest {
     void testSaveByComparing() {
         final Genre philosophy = new Genre("Philosophy");
 
-        when(genreRepository.save(philosophy)).thenReturn(philosophy);
+        when(genreRepository.findOrCreateByName(philosophy.getName())).thenReturn(philosophy);
         when(genreRepository.findByName(philosophy.getName())).thenReturn(java.util.Optional.of(philosophy));
 
         service.saveGenre(philosophy.getName());
@@ -43,7 +49,7 @@ class GenreServiceImplTest {
 
         assertEquals(philosophy.getName(), actual.getName());
 
-        verify(genreRepository, times(1)).save(philosophy);
+        verify(genreRepository, times(1)).findOrCreateByName(philosophy.getName());
     }
 
     @Test
@@ -74,7 +80,7 @@ class GenreServiceImplTest {
         final Genre philosophy = new Genre("Philosophy");
         final List<Genre> expected = List.of(expectedNovel, philosophy);
 
-        when(genreRepository.save(philosophy)).thenReturn(philosophy);
+        when(genreRepository.findOrCreateByName(philosophy.getName())).thenReturn(philosophy);
         when(genreRepository.findAll()).thenReturn(expected);
 
         service.saveGenre(philosophy.getName());
@@ -96,7 +102,7 @@ class GenreServiceImplTest {
         when(genreRepository.findById(expectedNovel.getName())).thenReturn(Optional.of(expectedNovel));
         when(genreRepository.findByName(genre.getName())).thenReturn(Optional.of(genre));
         when(genreRepository.save(genre)).thenReturn(genre);
-        when(bookRepository.findByGenre_Name(expectedNovel.getName())).thenReturn(List.of());
+        when(bookRepository.updateGenreName("Modernist novel", genre.getName())).thenReturn(1L);
 
         service.updateGenre("Modernist novel", "Genre");
 
@@ -105,10 +111,11 @@ class GenreServiceImplTest {
         assertThat(actualGenre).isNotNull().matches(s -> !s.getName().isBlank())
                 .matches(s -> s.getName().equals("Genre"));
 
-        final InOrder inOrder = inOrder(genreRepository, bookRepository);
+        final InOrder inOrder = inOrder(genreRepository, bookRepository, commentRepository);
         inOrder.verify(genreRepository).findById("Modernist novel");
         inOrder.verify(genreRepository).save(genre);
-        inOrder.verify(bookRepository).findByGenre_Name("Modernist novel");
+        inOrder.verify(bookRepository).updateGenreName("Modernist novel", "Genre");
+        verify(bookRepository, never()).saveAll(anyIterable());
     }
 
     @DirtiesContext(methodMode = DirtiesContext.MethodMode.AFTER_METHOD)
@@ -116,16 +123,21 @@ class GenreServiceImplTest {
     void genreShouldBeDeletedCorrectly() {
         when(genreRepository.findById(expectedNovel.getName())).thenReturn(Optional.of(expectedNovel));
         doNothing().when(genreRepository).deleteById(expectedNovel.getName());
-        doNothing().when(bookRepository).deleteByGenre_Name(expectedNovel.getName());
+        when(bookRepository.findIdsByGenreId(expectedNovel.getName(), 1000)).thenReturn(List.of("first", "second"));
+        when(commentRepository.deleteByBook_IdIn(List.of("first", "second"))).thenReturn(3L);
+        when(bookRepository.deleteByIdIn(List.of("first", "second"))).thenReturn(2L);
 
         final String expected = "Modernist novel was deleted";
         final String actual = service.deleteGenre("Modernist novel");
 
         assertEquals(expected, actual);
 
-        final InOrder inOrder = inOrder(genreRepository, bookRepository);
+        final InOrder inOrder = inOrder(genreRepository, bookRepository, commentRepository);
         inOrder.verify(genreRepository).findById(expectedNovel.getName());
         inOrder.verify(genreRepository).deleteById(expectedNovel.getName());
-        inOrder.verify(bookRepository).deleteByGenre_Name(expectedNovel.getName());
+        inOrder.verify(bookRepository).findIdsByGenreId(expectedNovel.getName(), 1000);
+        inOrder.verify(commentRepository).deleteByBook_IdIn(List.of("first", "second"));
+        inOrder.verify(bookRepository).deleteByIdIn(List.of("first", "second"));
+        verify(bookRepository, times(1)).findIdsByGenreId(anyString(), anyInt());
     }
 }
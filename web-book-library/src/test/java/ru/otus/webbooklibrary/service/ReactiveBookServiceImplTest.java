@@ -0,0 +1,172 @@
+package ru.otus.webbooklibrary.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.Genre;
+import ru.otus.webbooklibrary.repository.ReactiveAuthorRepository;
+import ru.otus.webbooklibrary.repository.ReactiveBookRepository;
+import ru.otus.webbooklibrary.repository.ReactiveCommentRepository;
+import ru.otus.webbooklibrary.repository.ReactiveGenreRepository;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("reactive")
+class ReactiveBookServiceImplTest {
+    @MockBean
+    private ReactiveBookRepository bookRepository;
+    @MockBean
+    private ReactiveAuthorRepository authorRepository;
+    @MockBean
+    private ReactiveGenreRepository genreRepository;
+    @MockBean
+    private ReactiveCommentRepository commentRepository;
+
+    @Autowired
+    private ReactiveBookServiceImpl service;
+
+    @Test
+    void testSaveBookMethodWithNewAuthor() {
+        final Author author = new Author("Michel Foucault");
+        final Genre genre = new Genre("Philosophy");
+        final Book book = new Book("Discipline and Punish", author, genre);
+
+        when(authorRepository.findOrCreateByName(author.getName())).thenReturn(Mono.just(author));
+        when(genreRepository.findOrCreateByName(genre.getName())).thenReturn(Mono.just(genre));
+        when(bookRepository.save(book)).thenReturn(Mono.just(book));
+
+        StepVerifier.create(service.saveBook("Discipline and Punish", "Michel Foucault", "Philosophy"))
+                .verifyComplete();
+
+        verify(authorRepository, never()).save(any());
+        verify(genreRepository, never()).save(any());
+        verify(bookRepository, times(1)).save(book);
+    }
+
+    @Test
+    void shouldReturnBooksByIdsInRequestOrder() {
+        final Book ulysses = new Book("Ulysses", new Author("James Joyce"), new Genre("Modernist novel"));
+        ulysses.setId("ulysses");
+        final Book dubliners = new Book("Dubliners", new Author("James Joyce"), new Genre("Short stories"));
+        dubliners.setId("dubliners");
+
+        when(bookRepository.findAllById(List.of("dubliners", "missing", "ulysses")))
+                .thenReturn(Flux.just(ulysses, dubliners));
+
+        StepVerifier.create(service.getBooksByIds(List.of("dubliners", "missing", "ulysses")))
+                .expectNext(dubliners, ulysses)
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReturnEmptyBookWhenIdIsIncorrect() {
+        when(bookRepository.findById("id")).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.getBookById("id"))
+                .expectNextMatches(b -> b.getId().equals("N/A") && b.getTitle().equals("N/A"))
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldReturnEmptyBookWithCommentsWhenIdIsIncorrect() {
+        when(bookRepository.findWithCommentsById("id")).thenReturn(Mono.empty());
+
+        StepVerifier.create(service.getBookWithComments("id"))
+                .expectNextMatches(b -> b.getId().equals("N/A") && b.getComments().isEmpty())
+                .verifyComplete();
+    }
+
+    @Test
+    void shouldDeleteBookByDeletedCount() {
+        when(commentRepository.deleteByBook_Id("id")).thenReturn(Mono.empty());
+        when(bookRepository.deleteByIdIn(List.of("id"))).thenReturn(Mono.just(0L));
+
+        StepVerifier.create(service.deleteBook("id"))
+                .expectErrorMessage("Incorrect book id")
+                .verify();
+        verify(bookRepository, never()).findById(any(String.class));
+    }
+
+    @Test
+    void shouldReturnEmptyListWhenRepositoryFails() {
+        when(bookRepository.findAll()).thenReturn(Flux.error(new IllegalStateException("Mongo is down")));
+
+        StepVerifier.create(service.getAll())
+                .verifyComplete();
+    }
+
+    @Test
+    void testUpdateBookMethodRenamesComments() {
+        final Author author = new Author("James Joyce");
+        final Genre genre = new Genre("Modernist novel");
+        final Book book = new Book("Ulysses", author, genre);
+
+        when(authorRepository.findOrCreateByName(author.getName())).thenReturn(Mono.just(author));
+        when(genreRepository.findOrCreateByName(genre.getName())).thenReturn(Mono.just(genre));
+        when(bookRepository.findById("id")).thenReturn(Mono.just(book));
+        when(bookRepository.save(book)).thenReturn(Mono.just(book));
+        when(commentRepository.updateBookTitle("id", "Dubliners")).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(service.updateBook("id", "Dubliners", "James Joyce", "Modernist novel"))
+                .verifyComplete();
+
+        verify(bookRepository, times(1)).save(book);
+        verify(commentRepository, times(1)).updateBookTitle("id", "Dubliners");
+        verify(commentRepository, never()).saveAll(any(Flux.class));
+    }
+
+    @Test
+    void shouldPatchBookWithVersionAndRenameComments() {
+        final Book book = new Book("Dubliners", new Author("James Joyce"), new Genre("Modernist novel"));
+        book.setVersion(4L);
+
+        when(bookRepository.patch("id", 3L, Map.of("title", "Dubliners"))).thenReturn(Mono.just(book));
+        when(commentRepository.updateBookTitle("id", "Dubliners")).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(service.patchBook("id", 3L, "Dubliners", null, null))
+                .expectNext(book)
+                .verifyComplete();
+
+        verify(authorRepository, never()).findOrCreateByName(any());
+        verify(bookRepository, never()).save(any());
+    }
+
+    @Test
+    void shouldReportConflictForStaleBookVersion() {
+        when(bookRepository.patch("id", 3L, Map.of("title", "Dubliners"))).thenReturn(Mono.empty());
+        when(bookRepository.existsById("id")).thenReturn(Mono.just(true));
+
+        StepVerifier.create(service.patchBook("id", 3L, "Dubliners", null, null))
+                .verifyError(VersionConflictException.class);
+
+        verify(commentRepository, never()).updateBookTitle(any(), any());
+    }
+
+    @Test
+    void shouldReportConflictWhenUpdatedBookChangedConcurrently() {
+        final Author author = new Author("James Joyce");
+        final Genre genre = new Genre("Modernist novel");
+        final Book book = new Book("Ulysses", author, genre);
+
+        when(authorRepository.findOrCreateByName(author.getName())).thenReturn(Mono.just(author));
+        when(genreRepository.findOrCreateByName(genre.getName())).thenReturn(Mono.just(genre));
+        when(bookRepository.findById("id")).thenReturn(Mono.just(book));
+        when(bookRepository.save(book)).thenReturn(Mono.error(new OptimisticLockingFailureException("stale")));
+
+        StepVerifier.create(service.updateBook("id", "Ulysses", "James Joyce", "Modernist novel"))
+                .verifyError(VersionConflictException.class);
+    }
+}
@@ -0,0 +1,141 @@
+package ru.otus.webbooklibrary.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import ru.otus.webbooklibrary.domain.Author;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class RequestCollapserTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<Set<String>> queries = new CopyOnWriteArrayList<>();
+    private final ExecutorService callers = Executors.newFixedThreadPool(3);
+    private final CountDownLatch queryStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseQuery = new CountDownLatch(1);
+    private RequestCollapsers requestCollapsers;
+
+    @AfterEach
+    void tearDown() {
+        releaseQuery.countDown();
+        callers.shutdownNow();
+        requestCollapsers.destroy();
+    }
+
+    @Test
+    void shouldLoadIdleLookupWithoutWaitingForWindow() {
+        final RequestCollapser<Author> collapser = collapser(Duration.ofSeconds(10), 100, this::authors);
+        releaseQuery.countDown();
+
+        final Author author = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> collapser.load("joyce", IllegalArgumentException::new));
+
+        assertEquals("joyce", author.getName());
+        assertEquals(List.of(Set.of("joyce")), queries);
+    }
+
+    @Test
+    void shouldMergeLookupsArrivingWhileQueryIsInFlight() throws Exception {
+        final RequestCollapser<Author> collapser = collapser(Duration.ofSeconds(10), 2, this::authors);
+
+        final CompletableFuture<List<String>> first = CompletableFuture.supplyAsync(() -> load(collapser, "joyce"));
+        queryStarted.await();
+        final List<String> names = load(collapser, "foucault", "woolf");
+        releaseQuery.countDown();
+
+        assertEquals(List.of("joyce"), first.join());
+        assertEquals(List.of("foucault", "woolf"), names);
+        assertEquals(List.of(Set.of("joyce"), Set.of("foucault", "woolf")), queries);
+        final DistributionSummary batchSizes = meterRegistry.get("library.collapser.batch.size")
+                .tag("collapser", "authors").summary();
+        assertEquals(2, batchSizes.count());
+        assertEquals(3, batchSizes.totalAmount());
+    }
+
+    @Test
+    void shouldLoadDuplicateIdsOnce() throws Exception {
+        final RequestCollapser<Author> collapser = collapser(Duration.ofMillis(200), 100, this::authors);
+
+        final CompletableFuture<List<String>> first = CompletableFuture.supplyAsync(() -> load(collapser, "joyce"));
+        queryStarted.await();
+        final List<String> names = load(collapser, "woolf", "woolf");
+        releaseQuery.countDown();
+
+        assertEquals(List.of("joyce"), first.join());
+        assertEquals(List.of("woolf", "woolf"), names);
+        assertEquals(List.of(Set.of("joyce"), Set.of("woolf")), queries);
+    }
+
+    @Test
+    void shouldThrowNotFoundForMissingIds() {
+        final RequestCollapser<Author> collapser = collapser(Duration.ZERO, 100, ids -> List.of());
+
+        assertThatThrownBy(() -> collapser.load("joyce", () -> new IllegalArgumentException("Incorrect author id")))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Incorrect author id");
+    }
+
+    @Test
+    void shouldPropagateQueryFailureToEveryCaller() {
+        final RequestCollapser<Author> collapser = collapser(Duration.ofSeconds(10), 1, ids -> {
+            throw new IllegalStateException("Mongo is down");
+        });
+
+        assertThatThrownBy(() -> collapser.load("joyce", IllegalArgumentException::new))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Mongo is down");
+    }
+
+    private RequestCollapser<Author> collapser(Duration window, int maxBatchSize,
+                                               Function<Collection<String>, Iterable<Author>> loader) {
+        requestCollapsers = new RequestCollapsers(meterRegistry, window, maxBatchSize, 1);
+        return requestCollapsers.create("authors", loader, Author::getId);
+    }
+
+    private List<String> load(RequestCollapser<Author> collapser, String... ids) {
+        final List<CompletableFuture<Author>> authors = List.of(ids).stream()
+                .map(id -> CompletableFuture.supplyAsync(() -> collapser.load(id, IllegalArgumentException::new),
+                        callers))
+                .collect(Collectors.toList());
+
+        return authors.stream().map(CompletableFuture::join).map(Author::getName).collect(Collectors.toList());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private List<Author> authors(Collection<String> ids) {
+        queries.add(Set.copyOf(ids));
+        if (ids.contains("joyce")) {
+            queryStarted.countDown();
+            await(releaseQuery);
+        }
+        return ids.stream().map(id -> {
+            final Author author = new Author(id);
+            author.setId(id);
+            return author;
+        }).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,56 @@
+package ru.otus.webbooklibrary.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.otus.webbooklibrary.domain.SearchHit;
+import ru.otus.webbooklibrary.repository.SearchRepository;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceImplTest {
+    @Mock
+    private SearchRepository searchRepository;
+
+    private SearchServiceImpl service;
+
+    private final SearchHit ulysses = new SearchHit("book", "ulysses", "Ulysses", "James Joyce", 4.5);
+    private final SearchHit joyce = new SearchHit("author", "joyce", "James Joyce", null, 1.5);
+    private final SearchHit comment = new SearchHit("comment", "comment", "Joyce wrote Ulysses in Paris",
+            "Ulysses", 2.0);
+
+    @BeforeEach
+    void setUp() {
+        service = new SearchServiceImpl(searchRepository,
+                new StaleResultCache(new SimpleMeterRegistry(), 1000, Duration.ofMinutes(1)));
+    }
+
+    @Test
+    void shouldRankHitsAcrossCollectionsByScore() {
+        when(searchRepository.searchBooks("joyce", 10)).thenReturn(List.of(ulysses));
+        when(searchRepository.searchAuthors("joyce", 10)).thenReturn(List.of(joyce));
+        when(searchRepository.searchComments("joyce", 10)).thenReturn(List.of(comment));
+
+        assertThat(service.search("joyce", 0, 10)).containsExactly(ulysses, comment, joyce);
+    }
+
+    @Test
+    void shouldFetchEnoughHitsToSkipPreviousPages() {
+        when(searchRepository.searchBooks("joyce", 3)).thenReturn(List.of(ulysses));
+        when(searchRepository.searchAuthors("joyce", 3)).thenReturn(List.of(joyce));
+        when(searchRepository.searchComments("joyce", 3)).thenReturn(List.of(comment));
+
+        assertThat(service.search("joyce", 1, 2)).containsExactly(comment, joyce);
+
+        verify(searchRepository).searchBooks("joyce", 3);
+    }
+}
@@ -0,0 +1,97 @@
+package ru.otus.webbooklibrary.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.otus.webbooklibrary.domain.Author;
+import ru.otus.webbooklibrary.domain.Book;
+import ru.otus.webbooklibrary.domain.Genre;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class StaleResultCacheTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StaleResultCache staleResults = new StaleResultCache(meterRegistry, 3, Duration.ofMinutes(1));
+
+    private final Book ulysses = new Book("Ulysses", new Author("James Joyce"), new Genre("Modernist novel"));
+    private final Throwable outage = new IllegalStateException("Mongo is down");
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void shouldServeStoredResultAndFlagResponseAsStale() {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest(), response));
+
+        staleResults.store(List.of(ulysses), "books.page", null, 10);
+
+        final List<Book> stale = staleResults.recall(List::of, outage, "books.page", null, 10);
+
+        assertThat(stale).containsExactly(ulysses);
+        assertEquals(StaleResultCache.STALE_WARNING, response.getHeader(HttpHeaders.WARNING));
+        assertEquals("no-store", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals(1, meterRegistry.get("library.stale.served").tag("command", "books.page").counter().count());
+    }
+
+    @Test
+    void shouldFallBackToPlaceholderWhenNothingIsCached() {
+        final MockHttpServletRequest request = new MockHttpServletRequest();
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+
+        final List<Book> placeholder = staleResults.recall(List::of, outage, "books.page", null, 10);
+
+        assertThat(placeholder).isEmpty();
+        assertNull(response.getHeader(HttpHeaders.WARNING));
+        assertEquals("no-store", response.getHeader(HttpHeaders.CACHE_CONTROL));
+        assertEquals(Boolean.TRUE, request.getAttribute(StaleResultCache.DEGRADED_ATTRIBUTE));
+    }
+
+    @Test
+    void shouldIgnoreFieldOrderInKeys() {
+        staleResults.store(List.of(ulysses), "books.projection", Set.of("title", "author.name"), null, 10);
+
+        final List<Book> stale = staleResults.recall(List::of, outage, "books.projection", List.of("author.name", "title"),
+                null, 10);
+
+        assertThat(stale).containsExactly(ulysses);
+    }
+
+    @Test
+    void shouldNotServeStaleResultForMissingDocument() {
+        staleResults.store(ulysses, "books.byId", "id");
+
+        final Book missing = staleResults.recall(() -> null, new IllegalArgumentException("Incorrect book id"),
+                "books.byId", "id");
+
+        assertNull(missing);
+    }
+
+    @Test
+    void shouldForgetResultsOfChangedCollections() {
+        staleResults.store(ulysses, "books.byId", "id");
+        staleResults.store(List.of(ulysses), "books.all");
+        staleResults.store(List.of(), "comments.all");
+
+        staleResults.forget("books.");
+
+        assertNull(staleResults.recall(() -> null, outage, "books.byId", "id"));
+        assertNull(staleResults.recall(() -> null, outage, "books.all"));
+        assertThat(staleResults.<List<Book>>recall(() -> null, outage, "comments.all")).isEmpty();
+    }
+}